@@ -0,0 +1,84 @@
+package com.emqx.topichub.benchmark;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+import com.emqx.topichub.common.EmqxTopicListParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EMQX主题列表页解析基准测试
+ * 对比流式解析与构建JSONObject树后逐个取topic字段两种方式，页大小取EMQX分页常用范围。
+ * 使用 -prof gc 查看每次解析的内存分配
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmqxTopicListParserBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int pageSize;
+
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        StringBuilder json = new StringBuilder("{\"data\":[");
+        for (int i = 0; i < pageSize; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"topic\":\"factory/line-").append(i % 50).append("/device-").append(i)
+                    .append("/telemetry\",\"node\":\"emqx@10.0.0.").append(i % 3).append("\"}");
+        }
+        json.append("],\"meta\":{\"page\":1,\"limit\":").append(pageSize)
+                .append(",\"count\":").append(pageSize * 10).append(",\"hasnext\":true}}");
+        body = json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void streaming(Blackhole blackhole) {
+        Set<String> topics = new HashSet<>();
+        blackhole.consume(EmqxTopicListParser.parse(body, topics::add));
+        blackhole.consume(topics);
+    }
+
+    @Benchmark
+    public void tree(Blackhole blackhole) {
+        Set<String> topics = new HashSet<>();
+        JSONObject response = JSON.parseObject(new String(body, StandardCharsets.UTF_8));
+        JSONArray data = response.getJSONArray("data");
+        for (int i = 0; i < data.size(); i++) {
+            String topic = data.getJSONObject(i).getString("topic");
+            if (topic != null && !topic.trim().isEmpty()) {
+                topics.add(topic.trim());
+            }
+        }
+        JSONObject meta = response.getJSONObject("meta");
+        blackhole.consume(meta.getLong("count"));
+        blackhole.consume(meta.getBoolean("hasnext"));
+        blackhole.consume(topics);
+    }
+}
@@ -0,0 +1,137 @@
+package com.emqx.topichub.benchmark;
+
+import com.emqx.topichub.dto.TopicDTO;
+import com.emqx.topichub.dto.TopicTagRow;
+import com.emqx.topichub.entity.Group;
+import com.emqx.topichub.entity.Topic;
+import com.emqx.topichub.mapper.TopicTagMapper;
+import com.emqx.topichub.service.GroupService;
+import com.emqx.topichub.service.TopicDtoAssembler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.Serializable;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Topic DTO组装基准测试
+ * 分组和标签查询以固定的往返延迟模拟数据库，对比整页批量组装与逐行组装，
+ * 批量组装的耗时应随页大小基本持平，逐行组装随页大小线性增长。
+ * 逐行组装每行2条查询，改造前每行3条，实际差距更大
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TopicDtoAssemblerBenchmark {
+
+    /**
+     * 模拟的单次查询往返延迟，同机房MySQL的典型值
+     */
+    private static final long ROUND_TRIP_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private static final int GROUP_COUNT = 20;
+
+    private static final int TAGS_PER_TOPIC = 3;
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private List<Topic> topics;
+
+    private TopicDtoAssembler assembler;
+
+    @Setup
+    public void setUp() {
+        topics = new ArrayList<>(pageSize);
+        for (long i = 1; i <= pageSize; i++) {
+            Topic topic = new Topic();
+            topic.setId(i);
+            topic.setSystemId(1L);
+            topic.setPath("factory/line-" + (i % 50) + "/device-" + i + "/telemetry");
+            topic.setName("device-" + i);
+            topic.setGroupId(i % GROUP_COUNT + 1);
+            topic.setDeleted(0);
+            topics.add(topic);
+        }
+        assembler = new TopicDtoAssembler(groupService(), topicTagMapper());
+    }
+
+    @Benchmark
+    public void batched(Blackhole blackhole) {
+        blackhole.consume(assembler.toDTOs(topics));
+    }
+
+    @Benchmark
+    public void perRow(Blackhole blackhole) {
+        List<TopicDTO> result = new ArrayList<>(topics.size());
+        for (Topic topic : topics) {
+            result.add(assembler.toDTO(topic));
+        }
+        blackhole.consume(result);
+    }
+
+    private static void roundTrip() {
+        LockSupport.parkNanos(ROUND_TRIP_NANOS);
+    }
+
+    private static GroupService groupService() {
+        return new GroupService() {
+            @Override
+            public List<Group> listByIds(Collection<? extends Serializable> idList) {
+                roundTrip();
+                List<Group> groups = new ArrayList<>(idList.size());
+                for (Serializable id : idList) {
+                    Group group = new Group();
+                    group.setId((Long) id);
+                    group.setName("group-" + id);
+                    groups.add(group);
+                }
+                return groups;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TopicTagMapper topicTagMapper() {
+        return (TopicTagMapper) Proxy.newProxyInstance(TopicTagMapper.class.getClassLoader(),
+                new Class<?>[]{TopicTagMapper.class}, (proxy, method, args) -> {
+                    if (!"selectTagsByTopicIds".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    roundTrip();
+                    List<TopicTagRow> rows = new ArrayList<>();
+                    for (Long topicId : (Collection<Long>) args[0]) {
+                        for (long t = 0; t < TAGS_PER_TOPIC; t++) {
+                            TopicTagRow row = new TopicTagRow();
+                            row.setTopicId(topicId);
+                            row.setTagId((topicId + t) % 100);
+                            row.setName("tag-" + row.getTagId());
+                            row.setColor("#409EFF");
+                            rows.add(row);
+                        }
+                    }
+                    return rows;
+                });
+    }
+}
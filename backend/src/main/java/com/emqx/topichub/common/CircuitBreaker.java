@@ -0,0 +1,217 @@
+package com.emqx.topichub.common;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+
+/**
+ * 熔断器
+ * 基于最近N次调用的滑动窗口统计失败率和慢调用率：
+ * 关闭状态下超过阈值即打开；打开状态直接拒绝调用，到期后进入半开状态放行少量试探调用；
+ * 试探成功则关闭，失败则重新打开，打开时长按连续打开次数指数退避并叠加随机抖动
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+public class CircuitBreaker {
+
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final Config config;
+    private final BiConsumer<State, State> stateListener;
+
+    /**
+     * 滑动窗口：每个槽位记录一次调用结果，0-正常，1-失败，2-慢调用
+     */
+    private final byte[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int failureCount;
+    private int slowCount;
+
+    private State state = State.CLOSED;
+    private long openUntilMillis;
+    private int consecutiveOpens;
+    private int halfOpenInFlight;
+
+    /**
+     * @param config        熔断参数
+     * @param stateListener 状态变化回调（原状态，新状态），在持有锁时调用，不应执行耗时操作
+     */
+    public CircuitBreaker(Config config, BiConsumer<State, State> stateListener) {
+        this.config = config;
+        this.stateListener = stateListener;
+        this.window = new byte[config.windowSize()];
+    }
+
+    /**
+     * 申请调用许可
+     *
+     * @return 允许调用时返回true，熔断打开或半开试探名额已满时返回false
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() < openUntilMillis) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight >= config.halfOpenPermits()) {
+                return false;
+            }
+            halfOpenInFlight++;
+        }
+        return true;
+    }
+
+    /**
+     * 记录调用成功
+     *
+     * @param durationMillis 调用耗时
+     */
+    public synchronized void onSuccess(long durationMillis) {
+        boolean slow = durationMillis >= config.slowCallThresholdMillis();
+        if (state == State.HALF_OPEN) {
+            releaseHalfOpenPermit();
+            if (slow) {
+                open();
+            } else {
+                consecutiveOpens = 0;
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(slow ? (byte) 2 : (byte) 0);
+    }
+
+    /**
+     * 记录调用失败
+     *
+     * @param durationMillis 调用耗时
+     */
+    public synchronized void onError(long durationMillis) {
+        if (state == State.HALF_OPEN) {
+            releaseHalfOpenPermit();
+            open();
+            return;
+        }
+        record((byte) 1);
+    }
+
+    /**
+     * 调用被取消，不计入统计，只归还半开状态的试探名额
+     */
+    public synchronized void onCancel() {
+        if (state == State.HALF_OPEN) {
+            releaseHalfOpenPermit();
+        }
+    }
+
+    /**
+     * 获取当前状态
+     * 打开状态到期后仍返回OPEN，直到下一次调用申请许可
+     *
+     * @return 熔断器状态
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * 获取打开状态的截止时间戳（毫秒）
+     *
+     * @return 截止时间，非打开状态时为0
+     */
+    public synchronized long getOpenUntilMillis() {
+        return state == State.OPEN ? openUntilMillis : 0L;
+    }
+
+    private void releaseHalfOpenPermit() {
+        if (halfOpenInFlight > 0) {
+            halfOpenInFlight--;
+        }
+    }
+
+    private void record(byte outcome) {
+        if (windowCount == window.length) {
+            byte evicted = window[windowIndex];
+            if (evicted == 1) {
+                failureCount--;
+            } else if (evicted == 2) {
+                slowCount--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = outcome;
+        windowIndex = (windowIndex + 1) % window.length;
+        if (outcome == 1) {
+            failureCount++;
+        } else if (outcome == 2) {
+            slowCount++;
+        }
+
+        if (state == State.CLOSED && windowCount >= config.minimumCalls()) {
+            int failureRate = failureCount * 100 / windowCount;
+            int slowRate = slowCount * 100 / windowCount;
+            if (failureRate >= config.failureRateThreshold() || slowRate >= config.slowCallRateThreshold()) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * 打开熔断器，打开时长 = 基础时长 * 2^(连续打开次数-1)，不超过上限，并叠加 ±jitter 的随机抖动
+     */
+    private void open() {
+        consecutiveOpens++;
+        long backoff = config.openDurationMillis() << Math.min(consecutiveOpens - 1, 20);
+        backoff = Math.min(backoff, config.maxOpenDurationMillis());
+        double jitter = 1 + (ThreadLocalRandom.current().nextDouble() * 2 - 1) * config.jitter();
+        openUntilMillis = System.currentTimeMillis() + (long) (backoff * jitter);
+        transitionTo(State.OPEN);
+    }
+
+    private void transitionTo(State newState) {
+        State oldState = state;
+        if (oldState == newState) {
+            return;
+        }
+        state = newState;
+        halfOpenInFlight = 0;
+        if (newState == State.CLOSED) {
+            resetWindow();
+        }
+        stateListener.accept(oldState, newState);
+    }
+
+    private void resetWindow() {
+        windowIndex = 0;
+        windowCount = 0;
+        failureCount = 0;
+        slowCount = 0;
+    }
+
+    /**
+     * 熔断参数
+     *
+     * @param windowSize              滑动窗口大小（调用次数）
+     * @param minimumCalls            计算失败率所需的最少调用次数
+     * @param failureRateThreshold    失败率阈值（百分比）
+     * @param slowCallThresholdMillis 慢调用耗时阈值
+     * @param slowCallRateThreshold   慢调用率阈值（百分比）
+     * @param openDurationMillis      首次打开的时长
+     * @param maxOpenDurationMillis   打开时长上限
+     * @param jitter                  打开时长的随机抖动比例（0~1）
+     * @param halfOpenPermits         半开状态允许的试探调用数
+     */
+    public record Config(int windowSize, int minimumCalls, int failureRateThreshold, long slowCallThresholdMillis,
+                         int slowCallRateThreshold, long openDurationMillis, long maxOpenDurationMillis,
+                         double jitter, int halfOpenPermits) {
+    }
+}
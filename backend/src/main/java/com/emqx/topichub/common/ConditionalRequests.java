@@ -0,0 +1,82 @@
+package com.emqx.topichub.common;
+
+import com.alibaba.fastjson2.JSON;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 条件请求工具
+ * 读接口按版本号生成ETag，请求携带的If-None-Match与之一致时直接返回304，不再查询和序列化。
+ * GET请求交给 {@link WebRequest#checkNotModified(String)} 处理；查询条件放在请求体中的POST搜索接口
+ * 按相同规则比对，命中时同样返回304，而不是checkNotModified对非GET请求返回的412
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+public class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * 设置ETag并判断客户端缓存是否仍然有效
+     * 返回true时响应状态已设为304，接口直接返回null即可
+     *
+     * @param request 当前请求
+     * @param etag    当前版本对应的ETag，为空时不做处理
+     * @return 客户端缓存仍然有效时返回true
+     */
+    public static boolean checkNotModified(WebRequest request, String etag) {
+        if (etag == null) {
+            return false;
+        }
+        if (!(request instanceof ServletWebRequest servletRequest)
+                || HttpMethod.GET.matches(servletRequest.getRequest().getMethod())
+                || HttpMethod.HEAD.matches(servletRequest.getRequest().getMethod())) {
+            return request.checkNotModified(etag);
+        }
+
+        HttpServletResponse response = servletRequest.getResponse();
+        if (response == null) {
+            return false;
+        }
+        String quoted = quote(etag);
+        response.setHeader(HttpHeaders.ETAG, quoted);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(quoted) || "*".equals(value)) {
+                response.setStatus(HttpStatus.NOT_MODIFIED.value());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 由请求参数生成摘要，用于区分同一地址下查询条件不同的POST搜索
+     *
+     * @param parameters 请求参数
+     * @return 参数JSON的MD5
+     */
+    public static String digest(Object parameters) {
+        return DigestUtils.md5DigestAsHex(JSON.toJSONString(parameters).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String quote(String etag) {
+        return etag.startsWith("\"") ? etag : "\"" + etag + "\"";
+    }
+}
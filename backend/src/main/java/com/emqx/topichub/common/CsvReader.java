@@ -0,0 +1,174 @@
+package com.emqx.topichub.common;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 流式CSV读取器
+ * 按RFC 4180逐条读取记录：字段可用双引号包裹，包裹的字段中可含逗号和换行，两个双引号表示一个双引号。
+ * 行尾可为CRLF、LF或CR，空行被跳过，文件开头的UTF-8 BOM被忽略。
+ * 每次只在内存中保留当前记录，单条记录超过长度限制时抛出异常，避免未闭合的引号把文件剩余部分读入内存
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+public class CsvReader {
+
+    private static final int EOF = -1;
+    private static final char BOM = '\uFEFF';
+
+    private final Reader reader;
+    private final int maxRecordLength;
+
+    /**
+     * 预读的一个字符，没有时为-2
+     */
+    private int pushedBack = -2;
+
+    /**
+     * 当前所在的物理行号，从1开始
+     */
+    private long currentLine = 1;
+
+    /**
+     * 最近一次返回的记录起始的物理行号
+     */
+    private long recordLine;
+
+    private boolean started;
+
+    /**
+     * @param reader          字符输入，调用方负责缓冲和关闭
+     * @param maxRecordLength 单条记录的最大字符数
+     */
+    public CsvReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * 读取下一条记录
+     *
+     * @return 字段列表，已到文件末尾时返回null
+     * @throws IOException              读取失败
+     * @throws IllegalArgumentException 引号未闭合或记录超过长度限制，之后的内容无法继续解析
+     */
+    public List<String> next() throws IOException {
+        if (!started) {
+            started = true;
+            int first = read();
+            if (first != BOM && first != EOF) {
+                unread(first);
+            }
+        }
+
+        int c = read();
+        // 跳过空行
+        while (c == '\r' || c == '\n') {
+            c = consumeLineEnd(c);
+        }
+        if (c == EOF) {
+            return null;
+        }
+
+        recordLine = currentLine;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int length = 0;
+        boolean quoted = false;
+        while (true) {
+            if (++length > maxRecordLength) {
+                throw new IllegalArgumentException("第 " + recordLine + " 行的记录超过 " + maxRecordLength + " 个字符");
+            }
+            if (quoted) {
+                if (c == EOF) {
+                    throw new IllegalArgumentException("第 " + recordLine + " 行的引号未闭合");
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n' || c == '\r') {
+                        field.append((char) c);
+                        c = consumeQuotedLineEnd(c, field);
+                        continue;
+                    }
+                    field.append((char) c);
+                }
+                c = read();
+                continue;
+            }
+
+            if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == EOF) {
+                fields.add(field.toString());
+                if (c != EOF) {
+                    unread(consumeLineEnd(c));
+                }
+                return fields;
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * 最近一次返回的记录起始的物理行号，用于错误报告
+     *
+     * @return 行号，从1开始
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * 读过记录外的行尾，返回行尾之后的第一个字符
+     */
+    private int consumeLineEnd(int c) throws IOException {
+        currentLine++;
+        int following = read();
+        if (c == '\r' && following == '\n') {
+            following = read();
+        }
+        return following;
+    }
+
+    /**
+     * 引号内的换行作为字段内容保留，CRLF整体保留，返回之后的第一个字符
+     */
+    private int consumeQuotedLineEnd(int c, StringBuilder field) throws IOException {
+        currentLine++;
+        int following = read();
+        if (c == '\r' && following == '\n') {
+            field.append('\n');
+            following = read();
+        }
+        return following;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+}
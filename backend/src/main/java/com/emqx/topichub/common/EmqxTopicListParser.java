@@ -0,0 +1,140 @@
+package com.emqx.topichub.common;
+
+import com.alibaba.fastjson2.JSONReader;
+
+import java.util.function.Consumer;
+
+/**
+ * EMQX主题列表响应的流式解析器
+ * 基于fastjson2的JSONReader直接扫描响应字节，只提取data[].topic和meta中的分页信息，
+ * 不构建JSONObject/JSONArray树，解析出的路径直接交给调用方处理
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+public class EmqxTopicListParser {
+
+    private static final String FIELD_CODE = "code";
+    private static final String FIELD_DATA = "data";
+    private static final String FIELD_META = "meta";
+    private static final String FIELD_TOPIC = "topic";
+    private static final String FIELD_COUNT = "count";
+    private static final String FIELD_HAS_NEXT = "hasnext";
+
+    /**
+     * API调用成功的状态码
+     */
+    private static final int SUCCESS_CODE = 0;
+
+    private EmqxTopicListParser() {
+    }
+
+    /**
+     * 解析主题列表响应
+     * 同时兼容成功响应和带code字段的错误响应，错误响应中的data同样会被提取
+     *
+     * @param body UTF-8编码的响应体
+     * @param sink 接收去除首尾空白后的非空Topic路径
+     * @return 解析结果（分页元数据和Topic数量）
+     */
+    public static ParseResult parse(byte[] body, Consumer<String> sink) {
+        boolean success = true;
+        Long count = null;
+        Boolean hasNext = null;
+        int topicCount = 0;
+
+        try (JSONReader reader = JSONReader.of(body)) {
+            if (!reader.nextIfObjectStart()) {
+                throw new IllegalArgumentException("Topic响应不是JSON对象");
+            }
+            while (!reader.nextIfObjectEnd()) {
+                String fieldName = reader.readFieldName();
+                switch (fieldName) {
+                    case FIELD_CODE -> success = readCode(reader);
+                    case FIELD_DATA -> topicCount += readData(reader, sink);
+                    case FIELD_META -> {
+                        if (reader.nextIfNull()) {
+                            break;
+                        }
+                        if (!reader.nextIfObjectStart()) {
+                            // 不是对象时跳过整个值，否则其内容会被当作下一个字段名读取
+                            reader.skipValue();
+                            break;
+                        }
+                        while (!reader.nextIfObjectEnd()) {
+                            String metaField = reader.readFieldName();
+                            if (FIELD_COUNT.equals(metaField) && reader.isNumber()) {
+                                count = reader.readInt64Value();
+                            } else if (FIELD_HAS_NEXT.equals(metaField) && !reader.isNull()) {
+                                hasNext = reader.readBoolValue();
+                            } else {
+                                reader.skipValue();
+                            }
+                        }
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+        }
+
+        return new ParseResult(success, count, hasNext, topicCount);
+    }
+
+    /**
+     * 读取code字段，EMQX错误响应中的code为字符串（如BAD_REQUEST）
+     */
+    private static boolean readCode(JSONReader reader) {
+        if (reader.isNumber()) {
+            return reader.readInt32Value() == SUCCESS_CODE;
+        }
+        if (reader.nextIfNull()) {
+            return true;
+        }
+        reader.skipValue();
+        return false;
+    }
+
+    /**
+     * 读取data数组，只取每个元素的topic字段
+     */
+    private static int readData(JSONReader reader, Consumer<String> sink) {
+        if (reader.nextIfNull()) {
+            return 0;
+        }
+        if (!reader.nextIfArrayStart()) {
+            reader.skipValue();
+            return 0;
+        }
+        int topicCount = 0;
+        while (!reader.nextIfArrayEnd()) {
+            if (!reader.nextIfObjectStart()) {
+                reader.skipValue();
+                continue;
+            }
+            while (!reader.nextIfObjectEnd()) {
+                String fieldName = reader.readFieldName();
+                if (FIELD_TOPIC.equals(fieldName) && reader.isString()) {
+                    String topicPath = reader.readString().trim();
+                    if (!topicPath.isEmpty()) {
+                        sink.accept(topicPath);
+                        topicCount++;
+                    }
+                } else {
+                    reader.skipValue();
+                }
+            }
+        }
+        return topicCount;
+    }
+
+    /**
+     * 主题列表解析结果
+     *
+     * @param success    响应是否为成功响应
+     * @param count      meta中的Topic总数，可能为空
+     * @param hasNext    meta中的是否有下一页标记，可能为空
+     * @param topicCount 本页解析出的Topic数量
+     */
+    public record ParseResult(boolean success, Long count, Boolean hasNext, int topicCount) {
+    }
+}
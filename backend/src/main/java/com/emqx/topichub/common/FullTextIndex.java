@@ -0,0 +1,409 @@
+package com.emqx.topichub.common;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 内存全文索引
+ * 倒排表为 词项 -> (文档ID -> 权重)，词项字典有序，前缀匹配按字典区间展开。
+ * 分词在非字母数字字符处切分（Topic路径的 / + # 等分隔符自然成为切分点），
+ * 驼峰及字母数字交界处再切分；中日韩文字按相邻两字切分。
+ * 每个查询词依次按精确、前缀匹配，都没有命中时按编辑距离模糊匹配，前缀展开的词项过多时取文档数最多的；
+ * 文档须命中所有查询词，得分为各查询词的 字段权重 × 匹配质量 × IDF 之和。
+ * 写操作串行，读操作无锁，可与写操作并发执行
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+public class FullTextIndex {
+
+    /**
+     * 每个字段最多索引的不同词项数量，避免超长文档占用过多内存
+     */
+    private static final int MAX_TERMS_PER_FIELD = 256;
+
+    /**
+     * 词项最大长度，更长的词项不索引
+     */
+    private static final int MAX_TERM_LENGTH = 64;
+
+    /**
+     * 前缀匹配最少字符数（中日韩文字为1）
+     */
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    /**
+     * 单个查询词最多展开的前缀词项数量，超出时取文档数最多的词项
+     */
+    private static final int MAX_PREFIX_EXPANSIONS = 128;
+
+    /**
+     * 模糊匹配最少字符数，8个字符及以上允许2处编辑，否则1处
+     */
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int TWO_EDITS_LENGTH = 8;
+
+    /**
+     * 模糊匹配最多比较的候选词项数量及最多采用的词项数量
+     */
+    private static final int MAX_FUZZY_CANDIDATES = 20000;
+    private static final int MAX_FUZZY_EXPANSIONS = 32;
+
+    private static final float EXACT_QUALITY = 1.0f;
+    private static final float PREFIX_QUALITY = 0.6f;
+    private static final float FUZZY_QUALITY = 0.3f;
+
+    private final NavigableMap<String, Map<Long, Float>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, String[]> documentTerms = new ConcurrentHashMap<>();
+
+    /**
+     * 添加或替换文档
+     *
+     * @param docId  文档ID
+     * @param fields 文档字段，同一词项出现在多个字段时取最高权重
+     */
+    public synchronized void put(long docId, Field... fields) {
+        removeDocument(docId);
+        Map<String, Float> weights = new HashMap<>();
+        for (Field field : fields) {
+            if (field.text() == null || field.text().isEmpty()) {
+                continue;
+            }
+            int fieldTerms = 0;
+            for (String term : tokenize(field.text(), true)) {
+                if (fieldTerms >= MAX_TERMS_PER_FIELD) {
+                    break;
+                }
+                Float previous = weights.get(term);
+                if (previous == null) {
+                    fieldTerms++;
+                }
+                if (previous == null || previous < field.weight()) {
+                    weights.put(term, field.weight());
+                }
+            }
+        }
+        if (weights.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<String, Float> entry : weights.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), key -> new ConcurrentHashMap<>()).put(docId, entry.getValue());
+        }
+        documentTerms.put(docId, weights.keySet().toArray(new String[0]));
+    }
+
+    /**
+     * 移除文档
+     *
+     * @param docId 文档ID
+     */
+    public synchronized void remove(long docId) {
+        removeDocument(docId);
+    }
+
+    /**
+     * 搜索文档，按得分从高到低排列，得分相同时ID小的在前
+     *
+     * @param query 查询文本
+     * @param limit 最多返回的数量，不小于命中数时返回全部命中
+     * @return 命中的文档
+     */
+    public List<Hit> search(String query, int limit) {
+        List<String> queryTerms = tokenize(query, false);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        // 命中文档少的查询词先求交集
+        int documentCount = Math.max(documentTerms.size(), 1);
+        List<Map<Long, Float>> termScores = new ArrayList<>(queryTerms.size());
+        for (String term : queryTerms) {
+            Map<Long, Float> scores = matchTerm(term, documentCount);
+            if (scores.isEmpty()) {
+                return new ArrayList<>();
+            }
+            termScores.add(scores);
+        }
+        termScores.sort(Comparator.comparingInt(Map::size));
+
+        Map<Long, Float> scores = termScores.get(0);
+        for (int i = 1; i < termScores.size() && !scores.isEmpty(); i++) {
+            Map<Long, Float> next = termScores.get(i);
+            Map<Long, Float> intersection = new HashMap<>();
+            for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+                Float score = next.get(entry.getKey());
+                if (score != null) {
+                    intersection.put(entry.getKey(), entry.getValue() + score);
+                }
+            }
+            scores = intersection;
+        }
+
+        Comparator<Hit> ranking = Comparator.comparingDouble(Hit::score).reversed().thenComparingLong(Hit::docId);
+        if (limit >= scores.size()) {
+            List<Hit> result = new ArrayList<>(scores.size());
+            scores.forEach((docId, score) -> result.add(new Hit(docId, score)));
+            result.sort(ranking);
+            return result;
+        }
+
+        // 小顶堆保留得分最高的limit个
+        PriorityQueue<Hit> top = new PriorityQueue<>(ranking.reversed());
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            top.offer(new Hit(entry.getKey(), entry.getValue()));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Hit> result = new ArrayList<>(top);
+        result.sort(ranking);
+        return result;
+    }
+
+    /**
+     * 已索引的文档数量
+     *
+     * @return 文档数量
+     */
+    public int size() {
+        return documentTerms.size();
+    }
+
+    /**
+     * 分词，结果已转为小写并去重
+     *
+     * @param text     文本
+     * @param compound 驼峰或字母数字混合的词是否同时保留整词，索引时保留，查询时只用切分后的部分
+     * @return 词项列表
+     */
+    public static List<String> tokenize(String text, boolean compound) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return new ArrayList<>();
+        }
+        StringBuilder word = new StringBuilder();
+        List<Integer> cjk = new ArrayList<>();
+        for (int i = 0; i < text.length(); ) {
+            int codePoint = text.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (isCjk(codePoint)) {
+                addWord(word, compound, terms);
+                cjk.add(codePoint);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                addCjk(cjk, terms);
+                word.appendCodePoint(codePoint);
+            } else {
+                addWord(word, compound, terms);
+                addCjk(cjk, terms);
+            }
+        }
+        addWord(word, compound, terms);
+        addCjk(cjk, terms);
+        return new ArrayList<>(terms);
+    }
+
+    private void removeDocument(long docId) {
+        String[] terms = documentTerms.remove(docId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(docId);
+                if (docs.isEmpty()) {
+                    postings.remove(term, docs);
+                }
+            }
+        }
+    }
+
+    /**
+     * 文档ID -> 单个查询词的得分，同一文档命中多个展开词项时取最高分
+     */
+    private Map<Long, Float> matchTerm(String term, int documentCount) {
+        Map<Long, Float> scores = new HashMap<>();
+        Map<Long, Float> exact = postings.get(term);
+        if (exact != null) {
+            accumulate(scores, exact, EXACT_QUALITY, documentCount);
+        }
+
+        if (term.length() >= MIN_PREFIX_LENGTH || isCjk(term.codePointAt(0))) {
+            for (Map<Long, Float> docs : expandPrefix(term)) {
+                accumulate(scores, docs, PREFIX_QUALITY, documentCount);
+            }
+        }
+
+        if (scores.isEmpty() && term.length() >= MIN_FUZZY_LENGTH) {
+            matchFuzzy(term, scores, documentCount);
+        }
+        return scores;
+    }
+
+    /**
+     * 以term为前缀的其他词项的倒排表，超过MAX_PREFIX_EXPANSIONS个时取文档数最多的，
+     * 与词项的字典顺序无关
+     */
+    private List<Map<Long, Float>> expandPrefix(String term) {
+        Comparator<Map<Long, Float>> bySize = Comparator.comparingInt(Map::size);
+        PriorityQueue<Map<Long, Float>> top = new PriorityQueue<>(bySize);
+        for (Map<Long, Float> docs : postings.subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+            if (top.size() < MAX_PREFIX_EXPANSIONS) {
+                top.offer(docs);
+            } else if (docs.size() > top.peek().size()) {
+                top.poll();
+                top.offer(docs);
+            }
+        }
+        return new ArrayList<>(top);
+    }
+
+    /**
+     * 编辑距离模糊匹配，只比较首字符相同、长度相近的词项
+     */
+    private void matchFuzzy(String term, Map<Long, Float> scores, int documentCount) {
+        int maxEdits = term.length() >= TWO_EDITS_LENGTH ? 2 : 1;
+        String first = term.substring(0, Character.charCount(term.codePointAt(0)));
+        int candidates = 0;
+        int expanded = 0;
+        for (Map.Entry<String, Map<Long, Float>> entry
+                : postings.subMap(first, true, first + Character.MAX_VALUE, false).entrySet()) {
+            if (++candidates > MAX_FUZZY_CANDIDATES || expanded >= MAX_FUZZY_EXPANSIONS) {
+                break;
+            }
+            String candidate = entry.getKey();
+            if (Math.abs(candidate.length() - term.length()) <= maxEdits
+                    && withinEditDistance(term, candidate, maxEdits)) {
+                accumulate(scores, entry.getValue(), FUZZY_QUALITY, documentCount);
+                expanded++;
+            }
+        }
+    }
+
+    private static void accumulate(Map<Long, Float> scores, Map<Long, Float> docs, float quality, int documentCount) {
+        float idf = (float) Math.log(1 + (double) documentCount / Math.max(docs.size(), 1));
+        for (Map.Entry<Long, Float> doc : docs.entrySet()) {
+            scores.merge(doc.getKey(), doc.getValue() * quality * idf, Math::max);
+        }
+    }
+
+    /**
+     * 编辑距离是否不超过maxEdits，某一行的最小值超过maxEdits时提前结束
+     */
+    private static boolean withinEditDistance(String a, String b, int maxEdits) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+
+    /**
+     * 字母数字词：整词，以及按驼峰和字母数字交界切分出的部分
+     */
+    private static void addWord(StringBuilder word, boolean compound, Set<String> terms) {
+        if (word.length() == 0) {
+            return;
+        }
+        String text = word.toString();
+        word.setLength(0);
+
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i < text.length(); i++) {
+            char previous = text.charAt(i - 1);
+            char current = text.charAt(i);
+            boolean boundary = Character.isLowerCase(previous) && Character.isUpperCase(current)
+                    || Character.isDigit(previous) != Character.isDigit(current)
+                    || Character.isUpperCase(previous) && Character.isUpperCase(current)
+                    && i + 1 < text.length() && Character.isLowerCase(text.charAt(i + 1));
+            if (boundary) {
+                parts.add(text.substring(start, i));
+                start = i;
+            }
+        }
+        parts.add(text.substring(start));
+
+        if (parts.size() == 1 || compound) {
+            addTerm(text, terms);
+        }
+        if (parts.size() > 1) {
+            parts.forEach(part -> addTerm(part, terms));
+        }
+    }
+
+    /**
+     * 连续的中日韩文字：相邻两字组成一个词项，只有一个字时单独成词
+     */
+    private static void addCjk(List<Integer> codePoints, Set<String> terms) {
+        if (codePoints.isEmpty()) {
+            return;
+        }
+        if (codePoints.size() == 1) {
+            terms.add(new String(Character.toChars(codePoints.get(0))));
+        } else {
+            for (int i = 0; i + 1 < codePoints.size(); i++) {
+                terms.add(new StringBuilder().appendCodePoint(codePoints.get(i))
+                        .appendCodePoint(codePoints.get(i + 1)).toString());
+            }
+        }
+        codePoints.clear();
+    }
+
+    private static void addTerm(String term, Set<String> terms) {
+        if (term.length() <= MAX_TERM_LENGTH) {
+            terms.add(term.toLowerCase());
+        }
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+
+    /**
+     * 文档字段
+     *
+     * @param text   字段文本
+     * @param weight 字段权重
+     */
+    public record Field(String text, float weight) {
+    }
+
+    /**
+     * 命中的文档
+     *
+     * @param docId 文档ID
+     * @param score 得分
+     */
+    public record Hit(long docId, float score) {
+    }
+}
@@ -0,0 +1,232 @@
+package com.emqx.topichub.common;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.emqx.topichub.dto.CursorPage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 键集（游标）分页
+ * 按 (排序列, id) 定位上一页的最后一行，以 WHERE (col, id) > (?, ?) 从索引处继续读取，
+ * 不使用OFFSET也不统计总数，任意深度的翻页代价与第一页相同。
+ * 游标是对排序列、方向、最后一行的排序值和ID的Base64编码，对调用方不透明；
+ * 只允许白名单中的非空列参与排序。
+ * 候选ID来自全文索引等外部来源时，按批在各批ID内查询一页后在内存中合并，结果与一次查询全部ID相同
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+public class KeysetPaging<T> {
+
+    private static final String ID_COLUMN = "id";
+    private static final String ASC = "asc";
+    private static final int MAX_SIZE = 1000;
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    private final Map<String, SortColumn<T>> columns = new LinkedHashMap<>();
+    private final Function<T, Long> idGetter;
+    private final String defaultSort;
+
+    /**
+     * @param idGetter    读取实体ID
+     * @param defaultSort 未指定排序字段时使用的字段
+     * @param sortColumns 允许排序的列
+     */
+    @SafeVarargs
+    public KeysetPaging(Function<T, Long> idGetter, String defaultSort, SortColumn<T>... sortColumns) {
+        this.idGetter = idGetter;
+        this.defaultSort = defaultSort;
+        for (SortColumn<T> column : sortColumns) {
+            columns.put(column.field(), column);
+        }
+    }
+
+    /**
+     * 查询一页
+     *
+     * @param wrapper 已包含筛选条件、不含排序的查询条件
+     * @param sortBy  排序字段（驼峰），为空时使用默认字段
+     * @param sortDir 排序方向（asc/desc）
+     * @param cursor  上一页返回的游标，第一页为空
+     * @param size    每页大小
+     * @param query   执行查询
+     * @return 一页记录及下一页游标
+     */
+    public CursorPage<T> page(QueryWrapper<T> wrapper, String sortBy, String sortDir, String cursor, Integer size,
+                              Function<QueryWrapper<T>, List<T>> query) {
+        String field = sortBy == null || sortBy.isEmpty() ? defaultSort : sortBy;
+        SortColumn<T> column = resolve(field);
+        boolean asc = ASC.equalsIgnoreCase(sortDir);
+        String direction = asc ? ASC : "desc";
+        int limit = size == null ? 20 : size;
+        if (limit < 1 || limit > MAX_SIZE) {
+            throw new BusinessException(400, "每页大小取值范围为1~" + MAX_SIZE);
+        }
+
+        applyCursor(wrapper, column, field, direction, cursor);
+        wrapper.orderBy(true, asc, column.column()).orderBy(true, asc, ID_COLUMN);
+        // 多取一行用于判断是否还有下一页
+        wrapper.last("LIMIT " + (limit + 1));
+
+        return toPage(new ArrayList<>(query.apply(wrapper)), false, column, field, direction, limit);
+    }
+
+    /**
+     * 在给定的候选ID中查询一页
+     * 每批ID分别按游标查询一页，合并后在内存中按相同顺序取前size个，每条SQL最多携带一批ID
+     *
+     * @param ids            候选ID
+     * @param wrapperFactory 为一批ID构建已包含筛选条件、不含排序的查询条件
+     * @param sortBy         排序字段（驼峰），为空时使用默认字段
+     * @param sortDir        排序方向（asc/desc）
+     * @param cursor         上一页返回的游标，第一页为空
+     * @param size           每页大小
+     * @param query          执行查询
+     * @return 一页记录及下一页游标
+     */
+    public CursorPage<T> page(List<Long> ids, Function<List<Long>, QueryWrapper<T>> wrapperFactory, String sortBy,
+                              String sortDir, String cursor, Integer size, Function<QueryWrapper<T>, List<T>> query) {
+        String field = sortBy == null || sortBy.isEmpty() ? defaultSort : sortBy;
+        SortColumn<T> column = resolve(field);
+        String direction = ASC.equalsIgnoreCase(sortDir) ? ASC : "desc";
+        int limit = size == null ? 20 : size;
+
+        List<T> merged = new ArrayList<>();
+        boolean more = false;
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()));
+            CursorPage<T> part = page(wrapperFactory.apply(chunk), field, direction, cursor, limit, query);
+            merged.addAll(part.getRecords());
+            more |= part.isHasMore();
+        }
+        merged.sort(comparator(field, direction));
+        return toPage(merged, more, column, field, direction, limit);
+    }
+
+    /**
+     * 排序字段对应的数据库列
+     *
+     * @param sortBy 排序字段（驼峰），为空时使用默认字段
+     * @return 列名
+     */
+    public String column(String sortBy) {
+        return resolve(sortBy == null || sortBy.isEmpty() ? defaultSort : sortBy).column();
+    }
+
+    /**
+     * 与查询相同的内存排序：按排序列，再按ID；字符串不区分大小写，与数据库默认排序规则一致
+     *
+     * @param sortBy  排序字段（驼峰），为空时使用默认字段
+     * @param sortDir 排序方向（asc/desc）
+     * @return 比较器
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Comparator<T> comparator(String sortBy, String sortDir) {
+        SortColumn<T> column = resolve(sortBy == null || sortBy.isEmpty() ? defaultSort : sortBy);
+        Comparator<Object> values = (a, b) -> a instanceof String left && b instanceof String right
+                ? String.CASE_INSENSITIVE_ORDER.compare(left, right) : ((Comparable) a).compareTo(b);
+        Comparator<T> order = Comparator.comparing(column.getter(), Comparator.nullsFirst(values))
+                .thenComparing(idGetter, Comparator.nullsFirst(Comparator.naturalOrder()));
+        return ASC.equalsIgnoreCase(sortDir) ? order : order.reversed();
+    }
+
+    private SortColumn<T> resolve(String field) {
+        SortColumn<T> column = columns.get(field);
+        if (column == null) {
+            throw new BusinessException(400, "不支持按该字段进行游标分页: " + field + "，可选: " + columns.keySet());
+        }
+        return column;
+    }
+
+    private void applyCursor(QueryWrapper<T> wrapper, SortColumn<T> column, String field, String direction,
+                             String cursor) {
+        boolean asc = ASC.equals(direction);
+        if (cursor != null && !cursor.isEmpty()) {
+            Cursor position = decode(cursor);
+            if (!field.equals(position.sort()) || !direction.equals(position.dir())) {
+                throw new BusinessException(400, "游标与排序条件不一致，请从第一页重新查询");
+            }
+            Object value;
+            try {
+                value = column.parser().apply(position.value());
+            } catch (RuntimeException e) {
+                throw new BusinessException(400, "无效的分页游标");
+            }
+            wrapper.apply("(" + column.column() + ", " + ID_COLUMN + ") " + (asc ? ">" : "<") + " ({0}, {1})",
+                    value, position.id());
+        }
+    }
+
+    /**
+     * @param more 已知还有更多行，如某一批ID还有下一页时
+     */
+    private CursorPage<T> toPage(List<T> rows, boolean more, SortColumn<T> column, String field, String direction,
+                                 int limit) {
+        boolean hasMore = more || rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, Math.min(limit, rows.size()));
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            T last = rows.get(rows.size() - 1);
+            nextCursor = encode(new Cursor(field, direction,
+                    String.valueOf(column.getter().apply(last)), idGetter.apply(last)));
+        }
+        return new CursorPage<>(rows, nextCursor, hasMore);
+    }
+
+    private static String encode(Cursor cursor) {
+        JSONObject json = new JSONObject();
+        json.put("s", cursor.sort());
+        json.put("d", cursor.dir());
+        json.put("v", cursor.value());
+        json.put("i", cursor.id());
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(json.toJSONString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decode(String token) {
+        try {
+            JSONObject json = JSON.parseObject(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+            Cursor cursor = new Cursor(json.getString("s"), json.getString("d"), json.getString("v"), json.getLong("i"));
+            if (cursor.sort() == null || cursor.value() == null || cursor.id() == null) {
+                throw new IllegalArgumentException(token);
+            }
+            return cursor;
+        } catch (RuntimeException e) {
+            throw new BusinessException(400, "无效的分页游标");
+        }
+    }
+
+    /**
+     * 游标内容
+     *
+     * @param sort  排序字段
+     * @param dir   排序方向
+     * @param value 最后一行的排序值
+     * @param id    最后一行的ID
+     */
+    private record Cursor(String sort, String dir, String value, Long id) {
+    }
+
+    /**
+     * 允许排序的列，列值不能为NULL
+     *
+     * @param field  请求中的排序字段（驼峰）
+     * @param column 数据库列名
+     * @param getter 从实体读取排序值
+     * @param parser 将游标中的排序值还原为查询参数
+     */
+    public record SortColumn<T>(String field, String column, Function<T, Object> getter,
+                                Function<String, Object> parser) {
+    }
+}
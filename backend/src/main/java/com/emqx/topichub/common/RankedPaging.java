@@ -0,0 +1,103 @@
+package com.emqx.topichub.common;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 全文检索结果的分页
+ * 关键字命中的ID按相关度排列在内存中，其他筛选条件按批以主键在数据库中过滤，
+ * 过滤后的ID即为完整结果，总数准确；分页在内存中完成，只按本页的ID读取完整记录，
+ * 每条SQL最多携带一批ID，不再把全部命中的ID放进一条 IN 和 ORDER BY FIELD
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+public final class RankedPaging {
+
+    /**
+     * 每条SQL最多携带的ID数量
+     */
+    public static final int CHUNK_SIZE = 1000;
+
+    private RankedPaging() {
+    }
+
+    /**
+     * 按批过滤ID，保持原有顺序
+     *
+     * @param rankedIds 已排序的ID
+     * @param matching  对一批ID执行筛选，返回其中满足条件的ID
+     * @return 满足条件的ID，顺序与输入相同
+     */
+    public static List<Long> filter(List<Long> rankedIds, Function<List<Long>, Collection<Long>> matching) {
+        List<Long> result = new ArrayList<>();
+        for (List<Long> chunk : chunks(rankedIds)) {
+            Set<Long> matched = new HashSet<>(matching.apply(chunk));
+            for (Long id : chunk) {
+                if (matched.contains(id)) {
+                    result.add(id);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按批拆分
+     *
+     * @param items 待拆分的列表
+     * @return 每批不超过CHUNK_SIZE个元素的子列表
+     */
+    public static <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += CHUNK_SIZE) {
+            chunks.add(items.subList(from, Math.min(from + CHUNK_SIZE, items.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * 取出某一页的ID
+     *
+     * @param ids  完整结果
+     * @param page 页码，从1开始
+     * @param size 每页大小
+     * @return 本页的ID，超出范围时为空
+     */
+    public static List<Long> page(List<Long> ids, long page, long size) {
+        long from = (Math.max(page, 1) - 1) * size;
+        if (size <= 0 || from >= ids.size()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(ids.subList((int) from, (int) Math.min(from + size, ids.size())));
+    }
+
+    /**
+     * 按给定的ID顺序排列记录，不存在的ID跳过
+     *
+     * @param ids      ID顺序
+     * @param records  按主键查询得到的记录，顺序任意
+     * @param idGetter 读取记录ID
+     * @return 排好序的记录
+     */
+    public static <T> List<T> inOrder(List<Long> ids, Collection<T> records, Function<T, Long> idGetter) {
+        Map<Long, T> byId = new HashMap<>();
+        for (T record : records) {
+            byId.put(idGetter.apply(record), record);
+        }
+        List<T> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T record = byId.get(id);
+            if (record != null) {
+                result.add(record);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,330 @@
+package com.emqx.topichub.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * MQTT Topic前缀树
+ * 按"/"分层存储Topic路径及其ID，支持按MQTT订阅过滤器（+ 单层通配，# 多层通配）匹配，
+ * 匹配耗时与命中的Topic数量及通配展开的分支数成正比，与Topic总数无关。
+ * 每个节点维护子树中的Topic数量，子节点按名称有序存储，按层级浏览时无需遍历子树或排序。
+ * 层级前缀即各层以"/"连接的路径；各层均为空时（如 /a 的第一层）连接结果与根节点无法区分，
+ * 此时用与层数相同个数的"/"表示，如 / 表示 /a 的第一层
+ * 写操作串行，读操作无锁，可与写操作并发执行
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+public class TopicTrie {
+
+    private static final String LEVEL_SEPARATOR = "/";
+    private static final String SINGLE_LEVEL_WILDCARD = "+";
+    private static final String MULTI_LEVEL_WILDCARD = "#";
+    private static final String SYSTEM_TOPIC_PREFIX = "$";
+
+    /**
+     * 节点上没有Topic
+     */
+    private static final long NO_TOPIC = -1L;
+
+    private final Node root = new Node();
+    private int size;
+
+    /**
+     * 添加或更新Topic
+     *
+     * @param path    Topic路径
+     * @param topicId Topic ID
+     */
+    public synchronized void put(String path, long topicId) {
+        String[] levels = split(path);
+        Node[] nodes = new Node[levels.length + 1];
+        nodes[0] = root;
+        for (int i = 0; i < levels.length; i++) {
+            nodes[i + 1] = nodes[i].children.computeIfAbsent(levels[i], key -> new Node());
+        }
+        Node target = nodes[levels.length];
+        if (target.topicId == NO_TOPIC) {
+            size++;
+            for (Node node : nodes) {
+                node.topicCount++;
+            }
+        }
+        target.topicId = topicId;
+    }
+
+    /**
+     * 移除Topic，并清理不再有Topic的空分支
+     *
+     * @param path Topic路径
+     * @return 存在并被移除时返回true
+     */
+    public synchronized boolean remove(String path) {
+        return remove(path, NO_TOPIC);
+    }
+
+    /**
+     * 路径上的Topic是给定的ID时才移除，用于按顺序无关的方式重放删除，
+     * 避免误删同一路径上后来新增的Topic
+     *
+     * @param path    Topic路径
+     * @param topicId Topic ID
+     * @return 存在并被移除时返回true
+     */
+    public synchronized boolean remove(String path, long topicId) {
+        String[] levels = split(path);
+        Node[] nodes = new Node[levels.length + 1];
+        nodes[0] = root;
+        for (int i = 0; i < levels.length; i++) {
+            nodes[i + 1] = nodes[i].children.get(levels[i]);
+            if (nodes[i + 1] == null) {
+                return false;
+            }
+        }
+        Node target = nodes[levels.length];
+        if (target.topicId == NO_TOPIC || topicId != NO_TOPIC && target.topicId != topicId) {
+            return false;
+        }
+        target.topicId = NO_TOPIC;
+        size--;
+        for (Node node : nodes) {
+            node.topicCount--;
+        }
+        for (int i = levels.length; i > 0 && nodes[i].isEmpty(); i--) {
+            nodes[i - 1].children.remove(levels[i - 1]);
+        }
+        return true;
+    }
+
+    /**
+     * 按MQTT订阅过滤器匹配Topic
+     * 与MQTT规范一致：a/# 同时匹配 a 本身；以 $ 开头的Topic不被首层通配符匹配
+     *
+     * @param filter 订阅过滤器
+     * @param limit  最多返回的数量
+     * @return 命中的Topic ID
+     */
+    public List<Long> match(String filter, int limit) {
+        validateFilter(filter);
+        List<Long> result = new ArrayList<>();
+        match(root, split(filter), 0, result, limit);
+        return result;
+    }
+
+    /**
+     * 查询某一层级节点的汇总信息
+     *
+     * @param prefix 层级前缀，为空时表示根节点
+     * @return 节点信息，不存在时返回null
+     */
+    public LevelNode describe(String prefix) {
+        Node node = find(prefix);
+        if (node == null) {
+            return null;
+        }
+        String path = prefix == null ? "" : prefix;
+        return toLevelNode(path.substring(path.lastIndexOf(LEVEL_SEPARATOR) + 1), path, node);
+    }
+
+    /**
+     * 查询某一层级的直接子节点，按名称排序，耗时只与返回的数量有关
+     *
+     * @param prefix 层级前缀，为空时返回第一层
+     * @param limit  最多返回的数量
+     * @return 子节点列表，前缀不存在时返回空列表
+     */
+    public List<LevelNode> children(String prefix, int limit) {
+        Node node = find(prefix);
+        if (node == null) {
+            return new ArrayList<>();
+        }
+        List<LevelNode> result = new ArrayList<>();
+        for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            String name = entry.getKey();
+            result.add(toLevelNode(name, childPath(prefix, name), entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Topic数量
+     *
+     * @return Topic数量
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 校验订阅过滤器：# 只能单独出现在最后一层，+ 必须单独占一层
+     *
+     * @param filter 订阅过滤器
+     */
+    public static void validateFilter(String filter) {
+        if (filter == null || filter.isEmpty()) {
+            throw new IllegalArgumentException("Topic过滤器不能为空");
+        }
+        String[] levels = split(filter);
+        for (int i = 0; i < levels.length; i++) {
+            String level = levels[i];
+            if (level.contains(MULTI_LEVEL_WILDCARD)
+                    && (!level.equals(MULTI_LEVEL_WILDCARD) || i != levels.length - 1)) {
+                throw new IllegalArgumentException("Topic过滤器不合法，# 只能单独出现在最后一层: " + filter);
+            }
+            if (level.contains(SINGLE_LEVEL_WILDCARD) && !level.equals(SINGLE_LEVEL_WILDCARD)) {
+                throw new IllegalArgumentException("Topic过滤器不合法，+ 必须单独占一层: " + filter);
+            }
+        }
+    }
+
+    /**
+     * 校验Topic名称：不能为空，不能含通配符 + 和 # 以及空字符；
+     * 与MQTT规范一致，空层级（如 /a、a//b、a/）是合法的Topic名称
+     *
+     * @param path Topic路径
+     */
+    public static void validateTopicName(String path) {
+        if (path == null || path.isEmpty()) {
+            throw new IllegalArgumentException("Topic路径不能为空");
+        }
+        if (path.contains(SINGLE_LEVEL_WILDCARD) || path.contains(MULTI_LEVEL_WILDCARD)) {
+            throw new IllegalArgumentException("Topic路径不能包含通配符 + 或 #: " + path);
+        }
+        if (path.indexOf('\0') >= 0) {
+            throw new IllegalArgumentException("Topic路径不能包含空字符");
+        }
+    }
+
+    private void match(Node node, String[] levels, int depth, List<Long> result, int limit) {
+        if (result.size() >= limit) {
+            return;
+        }
+        if (depth == levels.length) {
+            addTopic(node, result);
+            return;
+        }
+        String level = levels[depth];
+        if (MULTI_LEVEL_WILDCARD.equals(level)) {
+            collectAll(node, depth == 0, result, limit);
+        } else if (SINGLE_LEVEL_WILDCARD.equals(level)) {
+            for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+                if (depth == 0 && entry.getKey().startsWith(SYSTEM_TOPIC_PREFIX)) {
+                    continue;
+                }
+                match(entry.getValue(), levels, depth + 1, result, limit);
+            }
+        } else {
+            Node child = node.children.get(level);
+            if (child != null) {
+                match(child, levels, depth + 1, result, limit);
+            }
+        }
+    }
+
+    private void collectAll(Node node, boolean rootLevel, List<Long> result, int limit) {
+        if (result.size() >= limit) {
+            return;
+        }
+        addTopic(node, result);
+        for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+            if (rootLevel && entry.getKey().startsWith(SYSTEM_TOPIC_PREFIX)) {
+                continue;
+            }
+            collectAll(entry.getValue(), false, result, limit);
+        }
+    }
+
+    private Node find(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return root;
+        }
+        Node node = root;
+        for (String level : levelsOf(prefix)) {
+            node = node.children.get(level);
+            if (node == null) {
+                return null;
+            }
+        }
+        return node;
+    }
+
+    private static LevelNode toLevelNode(String name, String path, Node node) {
+        long topicId = node.topicId;
+        return new LevelNode(name, path, topicId != NO_TOPIC ? topicId : null,
+                node.topicCount, node.children.size());
+    }
+
+    private static void addTopic(Node node, List<Long> result) {
+        long topicId = node.topicId;
+        if (topicId != NO_TOPIC) {
+            result.add(topicId);
+        }
+    }
+
+    /**
+     * 子节点的层级前缀，父节点为根或各层均为空时按类注释中的规则表示
+     */
+    private static String childPath(String prefix, String name) {
+        if (prefix == null || prefix.isEmpty()) {
+            return name.isEmpty() ? LEVEL_SEPARATOR : name;
+        }
+        if (isAllEmptyLevels(prefix)) {
+            return name.isEmpty() ? prefix + LEVEL_SEPARATOR : prefix + name;
+        }
+        return prefix + LEVEL_SEPARATOR + name;
+    }
+
+    /**
+     * 解析层级前缀，n个"/"表示n个空层级，其余按"/"拆分
+     */
+    private static String[] levelsOf(String prefix) {
+        if (isAllEmptyLevels(prefix)) {
+            String[] levels = new String[prefix.length()];
+            Arrays.fill(levels, "");
+            return levels;
+        }
+        return split(prefix);
+    }
+
+    private static boolean isAllEmptyLevels(String prefix) {
+        return prefix.chars().allMatch(c -> c == '/');
+    }
+
+    private static String[] split(String path) {
+        // 保留空层级，a//b 与 a/b 是不同的Topic
+        return path.split(LEVEL_SEPARATOR, -1);
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> children = new ConcurrentSkipListMap<>();
+        private volatile long topicId = NO_TOPIC;
+
+        /**
+         * 子树中（含自身）的Topic数量
+         */
+        private volatile int topicCount;
+
+        private boolean isEmpty() {
+            return topicId == NO_TOPIC && children.isEmpty();
+        }
+    }
+
+    /**
+     * 层级节点信息
+     *
+     * @param name       本层名称
+     * @param path       从根到本层的完整路径
+     * @param topicId    本节点自身是Topic时为其ID，否则为空
+     * @param topicCount 子树中（含自身）的Topic数量
+     * @param childCount 直接子节点数量
+     */
+    public record LevelNode(String name, String path, Long topicId, int topicCount, int childCount) {
+    }
+}
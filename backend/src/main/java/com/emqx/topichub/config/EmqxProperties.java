@@ -0,0 +1,340 @@
+package com.emqx.topichub.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * EMQX交互配置
+ * 对应application.yml中emqx前缀下的配置项
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "emqx")
+public class EmqxProperties {
+
+    /**
+     * HTTP客户端配置
+     */
+    private Client client = new Client();
+
+    /**
+     * Topic同步配置
+     */
+    private Sync sync = new Sync();
+
+    /**
+     * 令牌缓存配置
+     */
+    private Token token = new Token();
+
+    /**
+     * 统计采集配置
+     */
+    private Stats stats = new Stats();
+
+    /**
+     * 健康检查配置
+     */
+    private Health health = new Health();
+
+    /**
+     * 熔断配置
+     */
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    /**
+     * 自动同步配置
+     */
+    private AutoSync autoSync = new AutoSync();
+
+    /**
+     * EMQX HTTP客户端配置
+     * 每个EMQX系统独立使用一个连接池
+     */
+    @Data
+    public static class Client {
+
+        /**
+         * 建立TCP连接的超时时间
+         */
+        private Duration connectTimeout = Duration.ofSeconds(3);
+
+        /**
+         * 等待响应数据的超时时间（两次读之间的最大间隔）
+         */
+        private Duration responseTimeout = Duration.ofSeconds(10);
+
+        /**
+         * 单次请求的整体超时时间（包含排队获取连接、发送和接收）
+         */
+        private Duration requestTimeout = Duration.ofSeconds(30);
+
+        /**
+         * 每个EMQX系统连接池的最大连接数
+         */
+        private int maxConnections = 20;
+
+        /**
+         * 连接池已满时等待获取连接的最长时间
+         */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+        /**
+         * 空闲连接的最长保持时间（keep-alive）
+         */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        /**
+         * 连接的最长存活时间
+         */
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        /**
+         * 后台清理过期连接的间隔
+         */
+        private Duration evictInterval = Duration.ofSeconds(30);
+
+        /**
+         * 是否协商gzip压缩
+         */
+        private boolean compress = true;
+
+        /**
+         * 是否开启连接池指标（通过Micrometer暴露）
+         */
+        private boolean metricsEnabled = true;
+
+        /**
+         * 响应体最大缓冲字节数
+         */
+        private int maxInMemorySize = 64 * 1024 * 1024;
+    }
+
+    /**
+     * Topic同步配置
+     */
+    @Data
+    public static class Sync {
+
+        /**
+         * 首次同步使用的分页大小，后续按观测到的延迟和响应大小自适应调整
+         */
+        private int pageSize = 1000;
+
+        /**
+         * 自适应分页大小下限
+         */
+        private int minPageSize = 100;
+
+        /**
+         * 自适应分页大小上限（EMQX API单页上限为10000）
+         */
+        private int maxPageSize = 10000;
+
+        /**
+         * 单个EMQX系统并发拉取的分页数
+         */
+        private int pageConcurrency = 4;
+
+        /**
+         * 单页期望的响应耗时，超过时缩小分页，远低于时扩大分页
+         */
+        private Duration targetPageLatency = Duration.ofSeconds(2);
+
+        /**
+         * 单页期望的最大响应字节数
+         */
+        private int targetPageBytes = 4 * 1024 * 1024;
+
+        /**
+         * 单次同步最多拉取的页数，防止异常元数据导致无限拉取
+         */
+        private int maxPages = 1000;
+
+        /**
+         * 写入数据库时每批的Topic数，每批单独提交事务
+         */
+        private int writeChunkSize = 1000;
+
+        /**
+         * Topic连续多少次同步未出现后标记为过期
+         */
+        private int staleAfterMisses = 3;
+
+        /**
+         * Topic连续多少次同步未出现后归档（逻辑删除），再次出现时自动恢复
+         */
+        private int archiveAfterMisses = 10;
+
+        /**
+         * 已存在Topic的最后活动时间刷新间隔，间隔内再次同步到不重复写入
+         */
+        private Duration activityRefreshInterval = Duration.ofHours(1);
+
+        /**
+         * 同时运行的后台同步任务数，超出的任务排队等待
+         */
+        private int jobConcurrency = 2;
+
+        /**
+         * 已结束的同步任务保留多久以供查询
+         */
+        private Duration jobRetention = Duration.ofHours(1);
+
+        /**
+         * 同步锁（Redis租约）的有效期，同步期间由后台任务定期续期
+         */
+        private Duration leaseTtl = Duration.ofSeconds(60);
+    }
+
+    /**
+     * EMQX令牌缓存配置
+     * 进程内缓存在前，Redis缓存在后，令牌在过期前由后台任务提前刷新
+     */
+    @Data
+    public static class Token {
+
+        /**
+         * 令牌缓存有效期，需小于EMQX令牌有效期（默认60分钟）
+         */
+        private Duration cacheTtl = Duration.ofMinutes(50);
+
+        /**
+         * 剩余有效期低于该值时由后台任务提前刷新
+         */
+        private Duration refreshAhead = Duration.ofMinutes(5);
+
+        /**
+         * 后台刷新任务的检查间隔
+         */
+        private Duration refreshCheckInterval = Duration.ofMinutes(1);
+    }
+
+    /**
+     * EMQX统计采集配置
+     * 后台定时拉取各在线系统的/api/v5/stats，列表和统计接口只读取内存快照
+     */
+    @Data
+    public static class Stats {
+
+        /**
+         * 采集间隔
+         */
+        private Duration interval = Duration.ofSeconds(30);
+
+        /**
+         * 快照超过该时长未成功更新即视为过期
+         */
+        private Duration staleAfter = Duration.ofSeconds(90);
+    }
+
+    /**
+     * EMQX健康检查配置
+     * 所有系统并发探测，单个探测超时不影响其他系统
+     */
+    @Data
+    public static class Health {
+
+        /**
+         * 并发探测的最大线程数
+         */
+        private int concurrency = 16;
+
+        /**
+         * 单个系统探测的截止时间，超时视为离线
+         */
+        private Duration probeTimeout = Duration.ofSeconds(5);
+    }
+
+    /**
+     * EMQX熔断配置
+     * 每个EMQX系统独立熔断，熔断打开期间的调用直接失败，不再占用线程和连接
+     */
+    @Data
+    public static class CircuitBreaker {
+
+        /**
+         * 是否启用熔断
+         */
+        private boolean enabled = true;
+
+        /**
+         * 滑动窗口大小（最近的调用次数）
+         */
+        private int windowSize = 20;
+
+        /**
+         * 窗口内至少达到该调用次数才计算失败率
+         */
+        private int minimumCalls = 5;
+
+        /**
+         * 失败率阈值（百分比），达到后打开熔断
+         */
+        private int failureRateThreshold = 50;
+
+        /**
+         * 超过该耗时的调用视为慢调用
+         */
+        private Duration slowCallThreshold = Duration.ofSeconds(5);
+
+        /**
+         * 慢调用率阈值（百分比），达到后打开熔断
+         */
+        private int slowCallRateThreshold = 80;
+
+        /**
+         * 首次打开熔断的时长，连续打开时指数递增
+         */
+        private Duration openDuration = Duration.ofSeconds(10);
+
+        /**
+         * 打开熔断的最长时长
+         */
+        private Duration maxOpenDuration = Duration.ofMinutes(5);
+
+        /**
+         * 打开时长的随机抖动比例，避免多个系统同时恢复试探
+         */
+        private double jitter = 0.2;
+
+        /**
+         * 半开状态允许的试探调用数
+         */
+        private int halfOpenPermits = 1;
+    }
+
+    /**
+     * Topic自动同步配置
+     * 每个在线系统按带抖动的间隔自动同步，多实例部署时通过Redis租约保证同一系统只在一个实例上同步
+     */
+    @Data
+    public static class AutoSync {
+
+        /**
+         * 是否启用自动同步
+         */
+        private boolean enabled = true;
+
+        /**
+         * 同一系统两次自动同步的间隔
+         */
+        private Duration interval = Duration.ofMinutes(10);
+
+        /**
+         * 同步间隔的随机抖动比例（0~1），避免所有系统同时同步
+         */
+        private double jitter = 0.2;
+
+        /**
+         * 检查到期系统的周期
+         */
+        private Duration checkInterval = Duration.ofSeconds(30);
+    }
+}
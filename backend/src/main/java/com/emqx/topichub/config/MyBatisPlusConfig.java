@@ -3,6 +3,7 @@ package com.emqx.topichub.config;
 import com.baomidou.mybatisplus.core.handlers.MetaObjectHandler;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.emqx.topichub.service.TableVersions;
 import org.apache.ibatis.reflection.MetaObject;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,7 +13,7 @@ import java.time.LocalDateTime;
 
 /**
  * MyBatis Plus配置类
- * 配置分页插件和自动填充
+ * 配置分页插件、表变更拦截器和自动填充
  *
  * @author EMQX Topic Hub Team
  * @since 1.0.0
@@ -30,6 +31,14 @@ public class MyBatisPlusConfig {
         return interceptor;
     }
 
+    /**
+     * 表变更拦截器，写入后递增表版本号
+     */
+    @Bean
+    public TableChangeInterceptor tableChangeInterceptor(TableVersions tableVersions) {
+        return new TableChangeInterceptor(tableVersions);
+    }
+
     /**
      * 自动填充处理器
      */
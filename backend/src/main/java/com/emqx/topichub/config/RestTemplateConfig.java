@@ -1,27 +0,0 @@
-package com.emqx.topichub.config;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
-
-/**
- * RestTemplate配置类
- * 配置HTTP客户端Bean
- *
- * @author EMQX Topic Hub Team
- * @since 1.0.0
- */
-@Configuration
-public class RestTemplateConfig {
-
-    /**
-     * 创建RestTemplate Bean
-     * 用于HTTP请求调用
-     *
-     * @return RestTemplate实例
-     */
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
-    }
-}
\ No newline at end of file
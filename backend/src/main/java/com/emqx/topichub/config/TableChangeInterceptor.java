@@ -0,0 +1,54 @@
+package com.emqx.topichub.config;
+
+import com.emqx.topichub.common.TransactionHooks;
+import com.emqx.topichub.service.TableVersions;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+
+import java.util.Map;
+
+/**
+ * 表变更拦截器
+ * 拦截所有写操作，按Mapper判断被修改的表并递增其版本号，使该表的分页总数缓存和读接口的ETag失效。
+ * 在事务中时等事务提交后再递增，避免其他请求在提交前按新版本号缓存旧的数据
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Intercepts(@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}))
+public class TableChangeInterceptor implements Interceptor {
+
+    /**
+     * Mapper -> 受影响的表，topic_tag的变更会影响按标签筛选的Topic总数，计入topic
+     */
+    private static final Map<String, String> MAPPER_TABLES = Map.of(
+            "com.emqx.topichub.mapper.TopicMapper", TableVersions.TABLE_TOPIC,
+            "com.emqx.topichub.mapper.TopicTagMapper", TableVersions.TABLE_TOPIC,
+            "com.emqx.topichub.mapper.PayloadTemplateMapper", TableVersions.TABLE_PAYLOAD_TEMPLATE,
+            "com.emqx.topichub.mapper.TagMapper", TableVersions.TABLE_TAG,
+            "com.emqx.topichub.mapper.GroupMapper", TableVersions.TABLE_GROUP);
+
+    private final TableVersions tableVersions;
+
+    public TableChangeInterceptor(TableVersions tableVersions) {
+        this.tableVersions = tableVersions;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        String id = statement.getId();
+        String table = MAPPER_TABLES.get(id.substring(0, id.lastIndexOf('.')));
+        if (table == null) {
+            return result;
+        }
+        TransactionHooks.afterCommit(() -> tableVersions.increment(table));
+        return result;
+    }
+}
@@ -29,7 +29,7 @@ public class WebConfig implements WebMvcConfigurer {
 
     /**
      * 配置跨域访问
-     * 允许前端应用访问后端API
+     * 允许前端应用访问后端API，并可读取条件请求使用的ETag
      */
     @Override
     public void addCorsMappings(CorsRegistry registry) {
@@ -37,6 +37,7 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOriginPatterns("*")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("ETag")
                 .allowCredentials(true)
                 .maxAge(3600);
     }
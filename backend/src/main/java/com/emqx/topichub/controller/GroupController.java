@@ -1,15 +1,19 @@
 package com.emqx.topichub.controller;
 
+import com.emqx.topichub.common.ConditionalRequests;
 import com.emqx.topichub.common.Result;
 import com.emqx.topichub.dto.GroupCreateRequest;
 import com.emqx.topichub.dto.GroupDTO;
 import com.emqx.topichub.dto.GroupUpdateRequest;
 import com.emqx.topichub.entity.Group;
 import com.emqx.topichub.service.GroupService;
+import com.emqx.topichub.service.TableVersions;
+import com.emqx.topichub.service.TopicDtoCache;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -27,14 +31,20 @@ import java.util.stream.Collectors;
 public class GroupController {
 
     private final GroupService groupService;
+    private final TopicDtoCache topicDtoCache;
+    private final TableVersions tableVersions;
 
     /**
      * 获取所有业务列表
      *
+     * @param webRequest 当前请求
      * @return 业务列表
      */
     @GetMapping
-    public Result<List<GroupDTO>> getAllGroups() {
+    public Result<List<GroupDTO>> getAllGroups(WebRequest webRequest) {
+        if (ConditionalRequests.checkNotModified(webRequest, tableVersions.etag(TableVersions.TABLE_GROUP))) {
+            return null;
+        }
         List<Group> groups = groupService.list();
         List<GroupDTO> groupDtoList = groups.stream()
                 .map(this::convertToDTO)
@@ -46,10 +56,14 @@ public class GroupController {
      * 根据ID获取业务详情
      *
      * @param id 业务ID
+     * @param webRequest 当前请求
      * @return 业务详情
      */
     @GetMapping("/{id}")
-    public Result<GroupDTO> getGroupById(@PathVariable("id") Long id) {
+    public Result<GroupDTO> getGroupById(@PathVariable("id") Long id, WebRequest webRequest) {
+        if (ConditionalRequests.checkNotModified(webRequest, tableVersions.etag(TableVersions.TABLE_GROUP))) {
+            return null;
+        }
         Group group = groupService.getById(id);
         if (group == null) {
             return Result.error("业务不存在");
@@ -96,6 +110,7 @@ public class GroupController {
         BeanUtils.copyProperties(request, existingGroup);
         boolean updated = groupService.updateById(existingGroup);
         if (updated) {
+            topicDtoCache.evictGroup(id);
             return Result.success(convertToDTO(existingGroup));
         } else {
             return Result.error("更新业务失败");
@@ -117,6 +132,7 @@ public class GroupController {
         
         boolean deleted = groupService.removeById(id);
         if (deleted) {
+            topicDtoCache.evictGroup(id);
             return Result.success(null);
         } else {
             return Result.error("删除业务失败");
@@ -127,10 +143,15 @@ public class GroupController {
      * 根据关键词搜索业务
      *
      * @param keyword 搜索关键词
+     * @param webRequest 当前请求
      * @return 业务列表
      */
     @GetMapping("/search")
-    public Result<List<GroupDTO>> searchGroups(@RequestParam(required = false) String keyword) {
+    public Result<List<GroupDTO>> searchGroups(@RequestParam(required = false) String keyword,
+                                               WebRequest webRequest) {
+        if (ConditionalRequests.checkNotModified(webRequest, tableVersions.etag(TableVersions.TABLE_GROUP))) {
+            return null;
+        }
         List<Group> groups;
         if (keyword == null || keyword.trim().isEmpty()) {
             groups = groupService.list();
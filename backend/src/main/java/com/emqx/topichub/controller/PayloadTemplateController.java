@@ -1,13 +1,17 @@
 package com.emqx.topichub.controller;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.emqx.topichub.common.BusinessException;
+import com.emqx.topichub.common.ConditionalRequests;
 import com.emqx.topichub.common.Result;
 import com.emqx.topichub.dto.*;
 import com.emqx.topichub.service.PayloadTemplateService;
+import com.emqx.topichub.service.TableVersions;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -26,16 +30,23 @@ import java.util.Map;
 public class PayloadTemplateController {
 
     private final PayloadTemplateService payloadTemplateService;
+    private final TableVersions tableVersions;
 
     /**
      * 分页搜索Payload模板列表
+     * 携带的If-None-Match与当前版本一致时返回304
      *
-     * @param request 搜索请求参数
+     * @param request    搜索请求参数
+     * @param webRequest 当前请求
      * @return 分页Payload模板列表
      */
     @PostMapping("/search")
-    public Result<IPage<PayloadTemplateDTO>> searchTemplates(@RequestBody PayloadTemplateSearchRequest request) {
+    public Result<IPage<PayloadTemplateDTO>> searchTemplates(@RequestBody PayloadTemplateSearchRequest request,
+                                                             WebRequest webRequest) {
         try {
+            if (ConditionalRequests.checkNotModified(webRequest, searchEtag(request))) {
+                return null;
+            }
             IPage<PayloadTemplateDTO> result = payloadTemplateService.searchTemplates(request);
             return Result.success(result);
         } catch (Exception e) {
@@ -44,15 +55,46 @@ public class PayloadTemplateController {
         }
     }
 
+    /**
+     * 游标分页搜索Payload模板
+     * 不返回总数，将返回的nextCursor作为下一次请求的cursor即可继续翻页
+     *
+     * @param request    搜索请求参数
+     * @param webRequest 当前请求
+     * @return 一页模板及下一页游标
+     */
+    @PostMapping("/search/cursor")
+    public Result<CursorPage<PayloadTemplateDTO>> searchTemplatesByCursor(
+            @RequestBody PayloadTemplateSearchRequest request, WebRequest webRequest) {
+        try {
+            if (ConditionalRequests.checkNotModified(webRequest, searchEtag(request))) {
+                return null;
+            }
+            CursorPage<PayloadTemplateDTO> result = payloadTemplateService.searchTemplatesByCursor(request);
+            return Result.success(result);
+        } catch (BusinessException e) {
+            return Result.error(e.getCode(), e.getMessage());
+        } catch (Exception e) {
+            log.error("搜索模板失败: {}", e.getMessage());
+            return Result.error("搜索模板失败");
+        }
+    }
+
     /**
      * 根据ID获取Payload模板详情
      *
-     * @param id 模板ID
+     * @param id         模板ID
+     * @param webRequest 当前请求
      * @return 模板详情
      */
     @GetMapping("/{id}")
-    public Result<PayloadTemplateDTO> getTemplateById(@PathVariable("id") Long id) {
+    public Result<PayloadTemplateDTO> getTemplateById(@PathVariable("id") Long id, WebRequest webRequest) {
         try {
+            // 详情中的分组名称来自分组表，分组改名也要使缓存失效
+            if (ConditionalRequests.checkNotModified(webRequest,
+                    tableVersions.etag(TableVersions.TABLE_PAYLOAD_TEMPLATE, TableVersions.TABLE_GROUP))) {
+                return null;
+            }
             PayloadTemplateDTO result = payloadTemplateService.getTemplateDtoById(id);
             return Result.success(result);
         } catch (RuntimeException e) {
@@ -203,4 +245,13 @@ public class PayloadTemplateController {
             return Result.error("批量删除失败: " + e.getMessage());
         }
     }
+
+    /**
+     * 搜索接口的ETag：模板表和分组表版本号加搜索条件摘要，同一地址下不同的搜索条件互不影响
+     * 结果中的分组名称来自分组表，因此分组表变化也使ETag失效
+     */
+    private String searchEtag(PayloadTemplateSearchRequest request) {
+        String version = tableVersions.etag(TableVersions.TABLE_PAYLOAD_TEMPLATE, TableVersions.TABLE_GROUP);
+        return version != null ? version + "-" + ConditionalRequests.digest(request) : null;
+    }
 }
\ No newline at end of file
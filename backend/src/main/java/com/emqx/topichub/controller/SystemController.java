@@ -1,11 +1,13 @@
 package com.emqx.topichub.controller;
 
+import com.emqx.topichub.common.ConditionalRequests;
 import com.emqx.topichub.common.Result;
 import com.emqx.topichub.dto.*;
 import com.emqx.topichub.service.EmqxSystemService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -25,35 +27,46 @@ public class SystemController {
 
     /**
      * 获取所有系统列表
+     * 列表包含内存中的统计快照和熔断状态，ETag按内容摘要计算，内容未变时返回304
      *
+     * @param webRequest 当前请求
      * @return 系统列表
      */
     @GetMapping
-    public Result<List<SystemManagementDTO>> getAllSystems() {
+    public Result<List<SystemManagementDTO>> getAllSystems(WebRequest webRequest) {
         List<SystemManagementDTO> systems = emqxSystemService.getAllSystems();
+        if (ConditionalRequests.checkNotModified(webRequest, ConditionalRequests.digest(systems))) {
+            return null;
+        }
         return Result.success(systems);
     }
 
     /**
      * 根据关键词搜索系统
      *
-     * @param keyword 搜索关键词
+     * @param keyword    搜索关键词
+     * @param webRequest 当前请求
      * @return 系统列表
      */
     @GetMapping("/search")
-    public Result<List<SystemManagementDTO>> searchSystems(@RequestParam(required = false) String keyword) {
+    public Result<List<SystemManagementDTO>> searchSystems(@RequestParam(required = false) String keyword,
+                                                           WebRequest webRequest) {
         List<SystemManagementDTO> systems = emqxSystemService.searchSystems(keyword);
+        if (ConditionalRequests.checkNotModified(webRequest, ConditionalRequests.digest(systems))) {
+            return null;
+        }
         return Result.success(systems);
     }
 
     /**
      * 根据ID获取系统详情
      *
-     * @param id 系统ID
+     * @param id         系统ID
+     * @param webRequest 当前请求
      * @return 系统详情
      */
     @GetMapping("/{id}")
-    public Result<SystemManagementDTO> getSystemById(@PathVariable("id") Long id) {
+    public Result<SystemManagementDTO> getSystemById(@PathVariable("id") Long id, WebRequest webRequest) {
         List<SystemManagementDTO> systems = emqxSystemService.getAllSystems();
         SystemManagementDTO system = systems.stream()
                 .filter(s -> s.getId().equals(id))
@@ -63,6 +76,9 @@ public class SystemController {
         if (system == null) {
             return Result.error("系统不存在");
         }
+        if (ConditionalRequests.checkNotModified(webRequest, ConditionalRequests.digest(system))) {
+            return null;
+        }
 
         return Result.success(system);
     }
@@ -1,18 +1,22 @@
 package com.emqx.topichub.controller;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.emqx.topichub.common.ConditionalRequests;
 import com.emqx.topichub.common.Result;
 import com.emqx.topichub.dto.TagCreateRequest;
 import com.emqx.topichub.dto.TagDTO;
 import com.emqx.topichub.dto.TagUpdateRequest;
 import com.emqx.topichub.entity.Tag;
 import com.emqx.topichub.entity.TopicTag;
+import com.emqx.topichub.service.TableVersions;
 import com.emqx.topichub.service.TagService;
+import com.emqx.topichub.service.TopicDtoCache;
 import com.emqx.topichub.service.TopicTagService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -31,14 +35,20 @@ public class TagController {
 
     private final TagService tagService;
     private final TopicTagService topicTagService;
+    private final TopicDtoCache topicDtoCache;
+    private final TableVersions tableVersions;
 
     /**
      * 获取所有标签列表
      *
+     * @param webRequest 当前请求
      * @return 标签列表
      */
     @GetMapping
-    public Result<List<TagDTO>> getAllTags() {
+    public Result<List<TagDTO>> getAllTags(WebRequest webRequest) {
+        if (ConditionalRequests.checkNotModified(webRequest, tableVersions.etag(TableVersions.TABLE_TAG))) {
+            return null;
+        }
         List<Tag> tags = tagService.list();
         List<TagDTO> tagDtoList = tags.stream()
                 .map(this::convertToDTO)
@@ -50,10 +60,14 @@ public class TagController {
      * 根据ID获取标签详情
      *
      * @param id 标签ID
+     * @param webRequest 当前请求
      * @return 标签详情
      */
     @GetMapping("/{id}")
-    public Result<TagDTO> getTagById(@PathVariable("id") Long id) {
+    public Result<TagDTO> getTagById(@PathVariable("id") Long id, WebRequest webRequest) {
+        if (ConditionalRequests.checkNotModified(webRequest, tableVersions.etag(TableVersions.TABLE_TAG))) {
+            return null;
+        }
         Tag tag = tagService.getById(id);
         if (tag == null) {
             return Result.error("标签不存在");
@@ -117,6 +131,7 @@ public class TagController {
         BeanUtils.copyProperties(request, existingTag);
         boolean updated = tagService.updateById(existingTag);
         if (updated) {
+            topicDtoCache.evictTag(id);
             return Result.success(convertToDTO(existingTag));
         } else {
             return Result.error("更新标签失败");
@@ -147,6 +162,7 @@ public class TagController {
         
         boolean deleted = tagService.removeById(id);
         if (deleted) {
+            topicDtoCache.evictTag(id);
             return Result.success(null);
         } else {
             return Result.error("删除标签失败");
@@ -157,10 +173,15 @@ public class TagController {
      * 根据关键词搜索标签
      *
      * @param keyword 搜索关键词
+     * @param webRequest 当前请求
      * @return 标签列表
      */
     @GetMapping("/search")
-    public Result<List<TagDTO>> searchTags(@RequestParam(required = false) String keyword) {
+    public Result<List<TagDTO>> searchTags(@RequestParam(required = false) String keyword,
+                                           WebRequest webRequest) {
+        if (ConditionalRequests.checkNotModified(webRequest, tableVersions.etag(TableVersions.TABLE_TAG))) {
+            return null;
+        }
         List<Tag> tags;
         if (keyword == null || keyword.trim().isEmpty()) {
             tags = tagService.list();
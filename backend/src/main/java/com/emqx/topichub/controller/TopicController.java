@@ -1,16 +1,31 @@
 package com.emqx.topichub.controller;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.emqx.topichub.common.ConditionalRequests;
 import com.emqx.topichub.common.Result;
 import com.emqx.topichub.dto.*;
-import com.emqx.topichub.dto.TopicSyncResult;
+import com.emqx.topichub.service.TopicDtoCache;
+import com.emqx.topichub.service.TopicExporter;
+import com.emqx.topichub.service.TopicImporter;
+import com.emqx.topichub.service.TopicIndexService;
 import com.emqx.topichub.service.TopicService;
+import com.emqx.topichub.service.TopicSyncJobService;
 import com.emqx.topichub.service.RateLimitService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Topic管理控制器
@@ -24,8 +39,17 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TopicController {
 
+    /**
+     * 按层级浏览时单次最多返回的子节点数量
+     */
+    private static final int MAX_TREE_CHILDREN = 5000;
+
     private final TopicService topicService;
     private final RateLimitService rateLimitService;
+    private final TopicSyncJobService topicSyncJobService;
+    private final TopicIndexService topicIndexService;
+    private final TopicExporter topicExporter;
+    private final TopicImporter topicImporter;
 
     /**
      * 分页搜索Topic列表
@@ -39,17 +63,59 @@ public class TopicController {
         return Result.success(result);
     }
 
+    /**
+     * 游标分页搜索Topic列表
+     * 不返回总数，将返回的nextCursor作为下一次请求的cursor即可继续翻页
+     *
+     * @param request 搜索请求参数
+     * @return 一页Topic及下一页游标
+     */
+    @PostMapping("/search/cursor")
+    public Result<CursorPage<TopicDTO>> searchTopicsByCursor(@Valid @RequestBody TopicSearchRequest request) {
+        CursorPage<TopicDTO> result = topicService.searchTopicsByCursor(request);
+        return Result.success(result);
+    }
+
+    /**
+     * 按层级浏览Topic
+     * 返回某一层级前缀下的直接子节点及其子树Topic数量，前端可逐层展开
+     *
+     * @param systemId EMQX系统ID
+     * @param prefix   层级前缀，为空时返回第一层
+     * @param limit    最多返回的子节点数量
+     * @return 层级信息
+     */
+    @GetMapping("/tree")
+    public Result<TopicTreeDTO> browseTopicTree(@RequestParam("systemId") Long systemId,
+                                                @RequestParam(value = "prefix", required = false) String prefix,
+                                                @RequestParam(value = "limit", defaultValue = "500") Integer limit) {
+        try {
+            if (limit < 1 || limit > MAX_TREE_CHILDREN) {
+                return Result.error("limit取值范围为1~" + MAX_TREE_CHILDREN);
+            }
+            TopicTreeDTO result = topicIndexService.browse(systemId, prefix, limit);
+            return Result.success(result);
+        } catch (RuntimeException e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
     /**
      * 根据ID获取Topic详情
+     * 携带的If-None-Match与当前版本一致时返回304
      *
-     * @param id Topic ID
+     * @param id         Topic ID
+     * @param webRequest 当前请求
      * @return Topic详情
      */
     @GetMapping("/{id}")
-    public Result<TopicDTO> getTopicById(@PathVariable("id") Long id) {
+    public Result<TopicDTO> getTopicById(@PathVariable("id") Long id, WebRequest webRequest) {
         try {
-            TopicDTO result = topicService.getTopicDtoById(id);
-            return Result.success(result);
+            TopicDtoCache.VersionedTopic versioned = topicService.getVersionedTopicDto(id);
+            if (ConditionalRequests.checkNotModified(webRequest, versioned.etag())) {
+                return null;
+            }
+            return Result.success(versioned.topic());
         } catch (RuntimeException e) {
             return Result.error(e.getMessage());
         }
@@ -121,6 +187,87 @@ public class TopicController {
         }
     }
 
+    /**
+     * 按筛选条件批量操作Topic
+     *
+     * @param request 筛选条件及操作，dryRun为true时只返回命中数量
+     * @return 操作结果
+     */
+    @PostMapping("/batch/filter")
+    public Result<TopicBatchResult> batchOperationByFilter(@Valid @RequestBody TopicFilterBatchRequest request) {
+        try {
+            TopicBatchResult result = topicService.batchOperationByFilter(request);
+            return Result.success(result);
+        } catch (RuntimeException e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 导出满足筛选条件的Topic
+     * 逐行流式写出NDJSON或CSV，客户端支持gzip时边写边压缩，同时进行的导出过多时返回429
+     *
+     * @param request     筛选条件及导出格式
+     * @param httpRequest 当前请求
+     * @param response    当前响应
+     * @throws IOException 写入失败，如客户端断开
+     */
+    @GetMapping("/export")
+    public void exportTopics(TopicExportRequest request, HttpServletRequest httpRequest,
+                             HttpServletResponse response) throws IOException {
+        // 格式错误时在写入响应之前抛出，由全局异常处理返回错误信息
+        String format = TopicExporter.resolveFormat(request.getFormat());
+        request.setFormat(format);
+        String fileName = "topics-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"))
+                + "." + format;
+        String acceptEncoding = httpRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        // 响应头在读到第一行后才设置，之前的失败（如导出过多、查询出错）仍按普通错误响应返回
+        topicExporter.export(request, () -> {
+            response.setContentType(TopicExporter.FORMAT_CSV.equals(format)
+                    ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+            if (!gzip) {
+                return response.getOutputStream();
+            }
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return new GZIPOutputStream(response.getOutputStream(), 64 * 1024);
+        });
+    }
+
+    /**
+     * 从CSV或NDJSON批量导入Topic
+     * 请求体即文件内容，边读边写入，不缓存整个文件；Content-Encoding为gzip时边读边解压
+     *
+     * @param systemId    系统ID
+     * @param format      导入格式，为空时按Content-Type判断，含csv时为CSV，否则为NDJSON
+     * @param dryRun      为true时只校验并统计新增和更新数量，不写入
+     * @param httpRequest 当前请求
+     * @return 导入结果及错误行
+     * @throws IOException 读取请求体失败
+     */
+    @PostMapping("/import")
+    public Result<TopicImportResult> importTopics(@RequestParam("systemId") Long systemId,
+                                                  @RequestParam(value = "format", required = false) String format,
+                                                  @RequestParam(value = "dryRun", defaultValue = "false") boolean dryRun,
+                                                  HttpServletRequest httpRequest) throws IOException {
+        if (format == null || format.isBlank()) {
+            String contentType = httpRequest.getContentType();
+            format = contentType != null && contentType.toLowerCase().contains("csv")
+                    ? TopicImporter.FORMAT_CSV : TopicImporter.FORMAT_NDJSON;
+        }
+        String contentEncoding = httpRequest.getHeader(HttpHeaders.CONTENT_ENCODING);
+        boolean gzip = contentEncoding != null && contentEncoding.toLowerCase().contains("gzip");
+        try (InputStream in = gzip ? new GZIPInputStream(httpRequest.getInputStream(), 64 * 1024)
+                : httpRequest.getInputStream()) {
+            TopicImportResult result = topicImporter.importTopics(systemId, format, dryRun, in);
+            return Result.success(result);
+        } catch (RuntimeException e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
     /**
      * 获取Topic的标签列表
      *
@@ -173,14 +320,20 @@ public class TopicController {
 
     /**
      * 获取Topic的公开文档（无需登录）
+     * 携带的If-None-Match与当前版本一致时返回304
      *
-     * @param id Topic ID
+     * @param id         Topic ID
+     * @param webRequest 当前请求
      * @return Topic公开文档信息
      */
     @GetMapping("/{id}/public-doc")
-    public Result<TopicDTO> getTopicPublicDoc(@PathVariable("id") Long id) {
+    public Result<TopicDTO> getTopicPublicDoc(@PathVariable("id") Long id, WebRequest webRequest) {
         try {
-            TopicDTO result = topicService.getTopicDtoById(id);
+            TopicDtoCache.VersionedTopic versioned = topicService.getVersionedTopicDto(id);
+            if (ConditionalRequests.checkNotModified(webRequest, versioned.etag())) {
+                return null;
+            }
+            TopicDTO result = versioned.topic();
             // 只返回必要的公开信息
             TopicDTO publicDoc = new TopicDTO();
             publicDoc.setId(result.getId());
@@ -199,13 +352,13 @@ public class TopicController {
     }
 
     /**
-     * 同步EMQX系统的Topic数据
+     * 提交从EMQX同步Topic的后台任务
      *
      * @param systemId EMQX系统ID
-     * @return 同步结果
+     * @return 同步任务，该系统已有任务在运行时返回该任务
      */
     @PostMapping("/sync/{systemId}")
-    public Result<TopicSyncResult> syncTopicsFromEmqx(@PathVariable("systemId") Long systemId) {
+    public Result<TopicSyncJobDTO> syncTopicsFromEmqx(@PathVariable("systemId") Long systemId) {
         try {
             // 检查限流
            if (!rateLimitService.isTopicSyncAllowed(systemId)) {
@@ -214,7 +367,39 @@ public class TopicController {
                return Result.error(message);
            }
             
-            TopicSyncResult result = topicService.syncTopicsFromEmqx(systemId);
+            TopicSyncJobDTO result = topicSyncJobService.submit(systemId);
+            return Result.success(result);
+        } catch (RuntimeException e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 查询同步任务的阶段和进度
+     *
+     * @param jobId 任务ID
+     * @return 同步任务
+     */
+    @GetMapping("/sync/jobs/{jobId}")
+    public Result<TopicSyncJobDTO> getSyncJob(@PathVariable("jobId") String jobId) {
+        try {
+            TopicSyncJobDTO result = topicSyncJobService.getJob(jobId);
+            return Result.success(result);
+        } catch (RuntimeException e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 取消同步任务
+     *
+     * @param jobId 任务ID
+     * @return 同步任务
+     */
+    @DeleteMapping("/sync/jobs/{jobId}")
+    public Result<TopicSyncJobDTO> cancelSyncJob(@PathVariable("jobId") String jobId) {
+        try {
+            TopicSyncJobDTO result = topicSyncJobService.cancel(jobId);
             return Result.success(result);
         } catch (RuntimeException e) {
             return Result.error(e.getMessage());
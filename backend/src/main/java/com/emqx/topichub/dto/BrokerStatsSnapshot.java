@@ -0,0 +1,63 @@
+package com.emqx.topichub.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * EMQX系统统计快照
+ * 由后台采集任务生成，发布后不再修改
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Value
+public class BrokerStatsSnapshot {
+
+    /**
+     * 系统ID
+     */
+    Long systemId;
+
+    /**
+     * Topic总数（topics.count）
+     */
+    long topicCount;
+
+    /**
+     * 连接数（connections.count）
+     */
+    long connectionCount;
+
+    /**
+     * 最近一次成功采集的时间，从未成功时为空
+     */
+    LocalDateTime collectedAt;
+
+    /**
+     * 生成该快照的采集轮次
+     */
+    long version;
+
+    /**
+     * 最近一次采集失败的原因，最近一次采集成功时为空
+     */
+    String lastError;
+
+    /**
+     * 最近一次采集失败的时间
+     */
+    LocalDateTime lastErrorAt;
+
+    /**
+     * 基于本快照生成采集失败后的新快照，保留上次成功采集的数据
+     *
+     * @param error   失败原因
+     * @param version 采集轮次
+     * @return 新快照
+     */
+    public BrokerStatsSnapshot withError(String error, long version) {
+        return new BrokerStatsSnapshot(systemId, topicCount, connectionCount, collectedAt, version,
+                error, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,33 @@
+package com.emqx.topichub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 游标分页结果
+ * 不返回总数，翻页时将nextCursor原样传回即可取下一页
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    /**
+     * 本页记录
+     */
+    private List<T> records;
+
+    /**
+     * 下一页的游标，没有更多记录时为空
+     */
+    private String nextCursor;
+
+    /**
+     * 是否还有更多记录
+     */
+    private boolean hasMore;
+}
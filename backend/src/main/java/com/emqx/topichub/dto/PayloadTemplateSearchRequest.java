@@ -28,7 +28,7 @@ public class PayloadTemplateSearchRequest {
     private Integer size = 10;
 
     /**
-     * 搜索关键词（模板名称或描述）
+     * 搜索关键词（模板名称、描述或内容，全文检索，支持前缀和模糊匹配）
      */
     private String keyword;
 
@@ -48,7 +48,7 @@ public class PayloadTemplateSearchRequest {
     private Boolean onlyFavorites;
 
     /**
-     * 排序字段（name, usageCount, lastUsed, createdAt）
+     * 排序字段（name, usageCount, lastUsed, createdAt, relevance-按关键词相关度）
      */
     private String sortBy = "createdAt";
 
@@ -56,4 +56,14 @@ public class PayloadTemplateSearchRequest {
      * 排序方向（asc, desc）
      */
     private String sortOrder = "desc";
+
+    /**
+     * 总数模式（exact-精确统计，none-不统计，total返回-1，cached-使用短时缓存的统计结果）
+     */
+    private String countMode = "exact";
+
+    /**
+     * 游标分页时上一页返回的游标，第一页为空
+     */
+    private String cursor;
 }
\ No newline at end of file
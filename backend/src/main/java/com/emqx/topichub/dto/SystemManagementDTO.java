@@ -71,6 +71,27 @@ public class SystemManagementDTO {
      */
     private Integer connectionCount;
 
+    /**
+     * 统计数据的采集时间（后台定时采集）
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime statsUpdatedAt;
+
+    /**
+     * 统计数据是否已过期（超过过期时间未成功采集）
+     */
+    private Boolean statsStale;
+
+    /**
+     * 最近一次统计采集失败的原因
+     */
+    private String statsError;
+
+    /**
+     * 熔断状态：CLOSED-正常，OPEN-已熔断，HALF_OPEN-恢复试探中
+     */
+    private String circuitState;
+
     /**
      * 是否正在测试连接
      */
@@ -0,0 +1,24 @@
+package com.emqx.topichub.dto;
+
+import lombok.Data;
+
+/**
+ * 标签关联数量行
+ * 批量打标签前后按标签统计一批Topic上的有效关联数量，用于计算标签使用次数的增量
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Data
+public class TagLinkCountRow {
+
+    /**
+     * 标签ID
+     */
+    private Long tagId;
+
+    /**
+     * 有效关联数量
+     */
+    private Long linkCount;
+}
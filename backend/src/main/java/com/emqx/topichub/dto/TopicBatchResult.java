@@ -0,0 +1,43 @@
+package com.emqx.topichub.dto;
+
+import lombok.Data;
+
+/**
+ * Topic批量操作结果DTO
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Data
+public class TopicBatchResult {
+
+    /**
+     * 操作类型
+     */
+    private String action;
+
+    /**
+     * 是否为试运行
+     */
+    private boolean dryRun;
+
+    /**
+     * 命中筛选条件的Topic数量，试运行时为统计结果，执行时等于已处理数量
+     */
+    private long matchedCount;
+
+    /**
+     * 已执行操作的Topic数量
+     */
+    private long processedCount;
+
+    /**
+     * 执行的批次数，每批单独提交事务
+     */
+    private int chunkCount;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private long elapsedMillis;
+}
@@ -66,6 +66,11 @@ public class TopicDTO {
      */
     private String status;
 
+    /**
+     * 同步状态：active-活跃，stale-连续多次同步未出现
+     */
+    private String syncState;
+
     /**
      * 创建时间
      */
@@ -0,0 +1,40 @@
+package com.emqx.topichub.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Topic导出请求DTO
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Data
+public class TopicExportRequest {
+
+    /**
+     * 系统ID筛选
+     */
+    private Long systemId;
+
+    /**
+     * 业务ID筛选
+     */
+    private Long groupId;
+
+    /**
+     * 标签ID筛选
+     */
+    private List<Long> tagIds;
+
+    /**
+     * 标签匹配方式（any/all）
+     */
+    private String tagMatch = "any";
+
+    /**
+     * 导出格式（ndjson/csv）
+     */
+    private String format = "ndjson";
+}
@@ -0,0 +1,71 @@
+package com.emqx.topichub.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Topic导出行
+ * 导出时逐行读取，标签只查询ID，名称在内存中对照
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Data
+public class TopicExportRow {
+
+    /**
+     * Topic ID
+     */
+    private Long id;
+
+    /**
+     * 系统ID
+     */
+    private Long systemId;
+
+    /**
+     * Topic名称
+     */
+    private String name;
+
+    /**
+     * Topic路径
+     */
+    private String path;
+
+    /**
+     * 业务ID
+     */
+    private Long groupId;
+
+    /**
+     * Payload文档
+     */
+    private String payloadDoc;
+
+    /**
+     * 同步状态
+     */
+    private String syncState;
+
+    /**
+     * 最后活动时间
+     */
+    private LocalDateTime lastActivity;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedAt;
+
+    /**
+     * 未删除的标签ID，逗号分隔，没有标签时为空
+     */
+    private String tagIds;
+}
@@ -0,0 +1,28 @@
+package com.emqx.topichub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Set;
+
+/**
+ * 从EMQX拉取Topic列表的结果
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Data
+@AllArgsConstructor
+public class TopicFetchResult {
+
+    /**
+     * Topic路径集合
+     */
+    private Set<String> topicPaths;
+
+    /**
+     * 是否拉取了完整列表
+     * 达到最大页数限制被截断时为false，此时不能据此判断Topic已从EMQX消失
+     */
+    private boolean complete;
+}
@@ -0,0 +1,54 @@
+package com.emqx.topichub.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 按筛选条件批量操作Topic的请求DTO
+ * 与搜索使用相同的筛选条件，由服务端逐批取出命中的Topic执行操作，客户端无需提交Topic ID列表
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Data
+public class TopicFilterBatchRequest {
+
+    /**
+     * 筛选条件，分页、排序和总数相关字段被忽略
+     */
+    @NotNull(message = "筛选条件不能为空")
+    private TopicSearchRequest filter;
+
+    /**
+     * 操作类型：assignGroup（分配业务）、addTags（添加标签）、removeTags（移除标签）、updatePayload（更新Payload）
+     */
+    @NotNull(message = "操作类型不能为空")
+    private String action;
+
+    /**
+     * 业务ID（当action为assignGroup时使用）
+     */
+    private Long groupId;
+
+    /**
+     * 标签ID列表（当action为addTags或removeTags时使用）
+     */
+    private List<Long> tagIds;
+
+    /**
+     * Payload模板ID（当action为updatePayload时使用）
+     */
+    private Long templateId;
+
+    /**
+     * 自定义Payload内容（当action为updatePayload且不使用模板时使用）
+     */
+    private String payloadDoc;
+
+    /**
+     * 为true时只统计命中的Topic数量，不执行操作
+     */
+    private Boolean dryRun = false;
+}
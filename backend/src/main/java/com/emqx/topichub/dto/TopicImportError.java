@@ -0,0 +1,32 @@
+package com.emqx.topichub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Topic导入的错误行
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopicImportError {
+
+    /**
+     * 所在行号，从1开始，CSV含表头
+     */
+    private long line;
+
+    /**
+     * Topic路径，无法解析时为空
+     */
+    private String path;
+
+    /**
+     * 错误原因
+     */
+    private String message;
+}
@@ -0,0 +1,61 @@
+package com.emqx.topichub.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Topic导入结果DTO
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Data
+public class TopicImportResult {
+
+    /**
+     * 是否为试运行
+     */
+    private boolean dryRun;
+
+    /**
+     * 读取的数据行数，不含CSV表头和空行
+     */
+    private long totalRows;
+
+    /**
+     * 新增的Topic数量，含恢复的已删除Topic；试运行时为预计数量
+     */
+    private long createdCount;
+
+    /**
+     * 更新的已有Topic数量；试运行时为预计数量
+     */
+    private long updatedCount;
+
+    /**
+     * 未导入的行数
+     */
+    private long errorCount;
+
+    /**
+     * 未导入的行及原因，最多返回前1000条
+     */
+    private List<TopicImportError> errors = new ArrayList<>();
+
+    /**
+     * 错误行超过返回上限时为true
+     */
+    private boolean errorsTruncated;
+
+    /**
+     * 写入的批次数
+     */
+    private int chunkCount;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private long elapsedMillis;
+}
@@ -0,0 +1,39 @@
+package com.emqx.topichub.dto;
+
+import lombok.Data;
+
+/**
+ * 导入前已有Topic的状态
+ * 包含已逻辑删除的Topic，用于区分新增、更新和恢复，并计算业务Topic数量的变化
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Data
+public class TopicImportState {
+
+    /**
+     * Topic ID
+     */
+    private Long id;
+
+    /**
+     * Topic路径
+     */
+    private String path;
+
+    /**
+     * Topic名称
+     */
+    private String name;
+
+    /**
+     * 业务ID
+     */
+    private Long groupId;
+
+    /**
+     * 逻辑删除标记
+     */
+    private Integer deleted;
+}
@@ -0,0 +1,24 @@
+package com.emqx.topichub.dto;
+
+import lombok.Data;
+
+/**
+ * Topic路径行
+ * 构建Topic索引时只加载ID和路径
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Data
+public class TopicPathRow {
+
+    /**
+     * Topic ID
+     */
+    private Long id;
+
+    /**
+     * Topic路径
+     */
+    private String path;
+}
@@ -0,0 +1,34 @@
+package com.emqx.topichub.dto;
+
+import lombok.Data;
+
+/**
+ * Topic全文索引文档行
+ * 构建全文索引时只加载参与检索的字段
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Data
+public class TopicSearchDocRow {
+
+    /**
+     * Topic ID
+     */
+    private Long id;
+
+    /**
+     * Topic名称
+     */
+    private String name;
+
+    /**
+     * Topic路径
+     */
+    private String path;
+
+    /**
+     * Payload文档
+     */
+    private String payloadDoc;
+}
@@ -16,7 +16,7 @@ import java.util.List;
 public class TopicSearchRequest {
 
     /**
-     * 搜索关键字（Topic名称或路径）
+     * 搜索关键字（Topic名称、路径或Payload文档，全文检索，支持前缀和模糊匹配）
      */
     private String keyword;
 
@@ -30,6 +30,16 @@ public class TopicSearchRequest {
      */
     private List<Long> tagIds;
 
+    /**
+     * 标签匹配方式（any-包含任一标签，all-包含全部标签）
+     */
+    private String tagMatch = "any";
+
+    /**
+     * MQTT订阅过滤器筛选，支持 + 和 # 通配符，如 factory/+/line/#
+     */
+    private String topicFilter;
+
     /**
      * 状态筛选（enabled/disabled）
      */
@@ -41,6 +51,16 @@ public class TopicSearchRequest {
     @NotNull(message = "EMQX系统ID不能为空")
     private Long systemId;
 
+    /**
+     * 总数模式（exact-精确统计，none-不统计，total返回-1，cached-使用短时缓存的统计结果）
+     */
+    private String countMode = "exact";
+
+    /**
+     * 游标分页时上一页返回的游标，第一页为空
+     */
+    private String cursor;
+
     /**
      * 页码（从1开始）
      */
@@ -52,7 +72,7 @@ public class TopicSearchRequest {
     private Integer size = 20;
 
     /**
-     * 排序字段
+     * 排序字段，relevance表示按关键字相关度排序
      */
     private String sortBy = "createdAt";
 
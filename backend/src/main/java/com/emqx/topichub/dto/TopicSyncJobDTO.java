@@ -0,0 +1,95 @@
+package com.emqx.topichub.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Topic同步任务DTO
+ * 用于返回后台同步任务的阶段和进度
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Data
+public class TopicSyncJobDTO {
+
+    /**
+     * 任务ID
+     */
+    private String jobId;
+
+    /**
+     * EMQX系统ID
+     */
+    private Long systemId;
+
+    /**
+     * 任务阶段：PENDING-排队中，FETCHING-拉取中，WRITING-写入中，
+     * COMPLETED-已完成，FAILED-失败，CANCELLED-已取消
+     */
+    private String phase;
+
+    /**
+     * 同步租约的围栏令牌，取得租约前为空
+     */
+    private Long fencingToken;
+
+    /**
+     * 已拉取的页数
+     */
+    private int pagesFetched;
+
+    /**
+     * 预计总页数，未知时为空
+     */
+    private Integer totalPages;
+
+    /**
+     * 已拉取的Topic数量
+     */
+    private long topicsFetched;
+
+    /**
+     * 待写入的行数，进入写入阶段前为空
+     */
+    private Integer totalRows;
+
+    /**
+     * 已写入的行数
+     */
+    private long rowsWritten;
+
+    /**
+     * 写入速率（行/秒）
+     */
+    private double throughput;
+
+    /**
+     * 开始时间
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime startedAt;
+
+    /**
+     * 结束时间
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime finishedAt;
+
+    /**
+     * 已运行时长（毫秒）
+     */
+    private long elapsedMillis;
+
+    /**
+     * 失败原因
+     */
+    private String error;
+
+    /**
+     * 同步结果，任务完成后才有值
+     */
+    private TopicSyncResult result;
+}
@@ -13,15 +13,35 @@ import lombok.Data;
 public class TopicSyncResult {
 
     /**
-     * 新增的Topic数量
+     * 新增的Topic数量（与addedCount相同，保留以兼容前端）
      */
     private int syncedCount;
 
     /**
-     * 更新的Topic数量
+     * 更新的Topic数量（与retainedCount相同，保留以兼容前端）
      */
     private int updatedCount;
 
+    /**
+     * 新增的Topic数量（含再次出现而恢复的已归档Topic）
+     */
+    private int addedCount;
+
+    /**
+     * 仍存在于EMQX中的已有Topic数量
+     */
+    private int retainedCount;
+
+    /**
+     * 同步后处于过期状态的Topic数量
+     */
+    private int staleCount;
+
+    /**
+     * 本次同步归档的Topic数量
+     */
+    private int removedCount;
+
     /**
      * 同步结果消息
      */
@@ -43,6 +63,8 @@ public class TopicSyncResult {
     public TopicSyncResult(int syncedCount, int updatedCount, String message) {
         this.syncedCount = syncedCount;
         this.updatedCount = updatedCount;
+        this.addedCount = syncedCount;
+        this.retainedCount = updatedCount;
         this.message = message;
     }
 
@@ -58,6 +80,24 @@ public class TopicSyncResult {
         return new TopicSyncResult(syncedCount, updatedCount, message);
     }
 
+    /**
+     * 创建包含生命周期统计的成功结果
+     *
+     * @param addedCount    新增数量
+     * @param retainedCount 保留数量
+     * @param staleCount    过期数量
+     * @param removedCount  归档数量
+     * @return 同步结果
+     */
+    public static TopicSyncResult success(int addedCount, int retainedCount, int staleCount, int removedCount) {
+        String message = String.format("同步完成：新增 %d 个Topic，保留 %d 个Topic，过期 %d 个Topic，归档 %d 个Topic",
+                addedCount, retainedCount, staleCount, removedCount);
+        TopicSyncResult result = new TopicSyncResult(addedCount, retainedCount, message);
+        result.setStaleCount(staleCount);
+        result.setRemovedCount(removedCount);
+        return result;
+    }
+
     /**
      * 创建失败结果
      *
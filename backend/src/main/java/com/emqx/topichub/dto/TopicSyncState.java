@@ -0,0 +1,46 @@
+package com.emqx.topichub.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Topic同步状态
+ * 同步比对时只加载Topic的路径和生命周期字段，不加载完整实体
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Data
+public class TopicSyncState {
+
+    /**
+     * Topic ID
+     */
+    private Long id;
+
+    /**
+     * Topic路径
+     */
+    private String path;
+
+    /**
+     * 所属业务ID
+     */
+    private Long groupId;
+
+    /**
+     * 最后活动时间，为空表示手动创建且从未被同步到
+     */
+    private LocalDateTime lastActivity;
+
+    /**
+     * 连续未在EMQX中出现的同步次数
+     */
+    private Integer missedSyncs;
+
+    /**
+     * 同步状态
+     */
+    private String syncState;
+}
@@ -0,0 +1,51 @@
+package com.emqx.topichub.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Topic标签关联行
+ * 一次查询多个Topic的标签时，关联表与标签表连接后的一行
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Data
+public class TopicTagRow {
+
+    /**
+     * Topic ID
+     */
+    private Long topicId;
+
+    /**
+     * 标签ID
+     */
+    private Long tagId;
+
+    /**
+     * 标签名称
+     */
+    private String name;
+
+    /**
+     * 标签颜色
+     */
+    private String color;
+
+    /**
+     * 使用次数
+     */
+    private Integer usageCount;
+
+    /**
+     * 标签创建时间
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * 标签更新时间
+     */
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,46 @@
+package com.emqx.topichub.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Topic层级DTO
+ * 某一层级前缀下的汇总信息及其直接子节点
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Data
+public class TopicTreeDTO {
+
+    /**
+     * EMQX系统ID
+     */
+    private Long systemId;
+
+    /**
+     * 层级前缀，为空表示根
+     */
+    private String prefix;
+
+    /**
+     * 前缀下（含前缀自身）的Topic数量
+     */
+    private int topicCount;
+
+    /**
+     * 直接子节点数量
+     */
+    private int childCount;
+
+    /**
+     * 子节点数量超过返回上限时为true
+     */
+    private boolean truncated;
+
+    /**
+     * 直接子节点，按名称排序
+     */
+    private List<TopicTreeNodeDTO> children;
+}
@@ -0,0 +1,39 @@
+package com.emqx.topichub.dto;
+
+import lombok.Data;
+
+/**
+ * Topic层级节点DTO
+ * 按层级浏览Topic时的一个节点
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Data
+public class TopicTreeNodeDTO {
+
+    /**
+     * 本层名称
+     */
+    private String name;
+
+    /**
+     * 从根到本层的完整路径，可作为下一次查询的前缀
+     */
+    private String path;
+
+    /**
+     * 本节点自身是Topic时为其ID，否则为空
+     */
+    private Long topicId;
+
+    /**
+     * 子树中（含自身）的Topic数量
+     */
+    private int topicCount;
+
+    /**
+     * 直接子节点数量
+     */
+    private int childCount;
+}
@@ -60,6 +60,18 @@ public class Topic {
     @TableField("payload_doc")
     private String payloadDoc;
 
+    /**
+     * 连续未在EMQX中出现的同步次数
+     */
+    @TableField("missed_syncs")
+    private Integer missedSyncs;
+
+    /**
+     * 同步状态：active-活跃，stale-过期，archived-已归档
+     */
+    @TableField("sync_state")
+    private String syncState;
+
     /**
      * 创建时间
      */
@@ -0,0 +1,31 @@
+package com.emqx.topichub.event;
+
+import com.emqx.topichub.common.CircuitBreaker;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * EMQX系统熔断状态变化事件
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Getter
+@AllArgsConstructor
+public class EmqxCircuitStateChangedEvent {
+
+    /**
+     * 系统ID
+     */
+    private final Long systemId;
+
+    /**
+     * 原状态
+     */
+    private final CircuitBreaker.State fromState;
+
+    /**
+     * 新状态
+     */
+    private final CircuitBreaker.State toState;
+}
@@ -3,6 +3,9 @@ package com.emqx.topichub.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.emqx.topichub.entity.EmqxSystem;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * @author EMQX Topic Hub Team
@@ -10,6 +13,13 @@ import org.apache.ibatis.annotations.Mapper;
 @Mapper
 public interface EmqxSystemMapper extends BaseMapper<EmqxSystem> {
 
-    // 可以在这里添加自定义的SQL方法
+    /**
+     * 批量更新系统状态和最后检查时间
+     * 单条UPDATE语句按ID分别设置，避免逐条更新
+     *
+     * @param systems 待更新的系统（需包含id、status、lastCheck）
+     * @return 影响行数
+     */
+    int batchUpdateStatus(@Param("systems") List<EmqxSystem> systems);
 
 }
\ No newline at end of file
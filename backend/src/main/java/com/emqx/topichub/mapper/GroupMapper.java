@@ -3,6 +3,10 @@ package com.emqx.topichub.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.emqx.topichub.entity.Group;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.Map;
 
 /**
  * @author EMQX Topic Hub Team
@@ -10,6 +14,27 @@ import org.apache.ibatis.annotations.Mapper;
 @Mapper
 public interface GroupMapper extends BaseMapper<Group> {
 
-    // 可以在这里添加自定义的SQL方法
+    /**
+     * 按Topic表重新统计业务的Topic数量
+     *
+     * @param groupIds 业务ID集合
+     * @return 影响行数
+     */
+    int recountTopics(@Param("groupIds") Collection<Long> groupIds);
+
+    /**
+     * 按增量批量调整业务的Topic数量，结果不小于0
+     *
+     * @param deltas 业务ID -> 增量，不能为空
+     * @return 影响行数
+     */
+    int addTopicCounts(@Param("deltas") Map<Long, Long> deltas);
+
+    /**
+     * 按Topic表重新统计所有业务的Topic数量，只更新与实际不符的行
+     *
+     * @return 被修正的行数
+     */
+    int reconcileTopicCounts();
 
 }
\ No newline at end of file
@@ -3,6 +3,9 @@ package com.emqx.topichub.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.emqx.topichub.entity.Tag;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Map;
 
 /**
  * @author EMQX Topic Hub Team
@@ -10,6 +13,19 @@ import org.apache.ibatis.annotations.Mapper;
 @Mapper
 public interface TagMapper extends BaseMapper<Tag> {
 
-    // 可以在这里添加自定义的SQL方法
+    /**
+     * 按增量批量调整标签的使用次数，结果不小于0
+     *
+     * @param deltas 标签ID -> 增量，不能为空
+     * @return 影响行数
+     */
+    int addUsageCounts(@Param("deltas") Map<Long, Long> deltas);
+
+    /**
+     * 按未删除Topic上的标签关联重新统计所有标签的使用次数，只更新与实际不符的行
+     *
+     * @return 被修正的行数
+     */
+    int reconcileUsageCounts();
 
 }
\ No newline at end of file
@@ -1,8 +1,19 @@
 package com.emqx.topichub.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.emqx.topichub.dto.TopicExportRow;
+import com.emqx.topichub.dto.TopicImportState;
+import com.emqx.topichub.dto.TopicPathRow;
+import com.emqx.topichub.dto.TopicSearchDocRow;
+import com.emqx.topichub.dto.TopicSyncState;
 import com.emqx.topichub.entity.Topic;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * @author EMQX Topic Hub Team
@@ -10,6 +21,139 @@ import org.apache.ibatis.annotations.Mapper;
 @Mapper
 public interface TopicMapper extends BaseMapper<Topic> {
 
-    // 可以在这里添加自定义的SQL方法
+    /**
+     * 批量插入或更新同步的Topic
+     * 基于uk_system_path唯一键，已存在的Topic（含已归档或逻辑删除的）只更新最后活动时间并恢复为活跃
+     *
+     * @param systemId   系统ID
+     * @param topics     Topic列表（需包含name、path）
+     * @param syncTime   同步时间
+     * @return 影响行数
+     */
+    int batchUpsertSyncedTopics(@Param("systemId") Long systemId,
+                                @Param("topics") List<Topic> topics,
+                                @Param("syncTime") LocalDateTime syncTime);
+
+    /**
+     * 查询系统下所有未删除Topic的同步状态
+     * 只查询同步比对所需的字段
+     *
+     * @param systemId 系统ID
+     * @return Topic同步状态列表
+     */
+    List<TopicSyncState> selectSyncStates(@Param("systemId") Long systemId);
+
+    /**
+     * 标记Topic在本次同步中出现：刷新最后活动时间并重置为活跃
+     *
+     * @param ids      Topic ID列表
+     * @param syncTime 同步时间
+     * @return 影响行数
+     */
+    int markTopicsSeen(@Param("ids") List<Long> ids, @Param("syncTime") LocalDateTime syncTime);
+
+    /**
+     * 标记Topic在本次同步中未出现：累加未出现次数，达到阈值时标记为过期或归档（逻辑删除）
+     *
+     * @param ids                Topic ID列表
+     * @param staleAfterMisses   标记为过期的未出现次数
+     * @param archiveAfterMisses 归档的未出现次数
+     * @return 影响行数
+     */
+    int markTopicsMissed(@Param("ids") List<Long> ids,
+                         @Param("staleAfterMisses") int staleAfterMisses,
+                         @Param("archiveAfterMisses") int archiveAfterMisses);
+
+    /**
+     * 查询系统下给定路径中已删除（含归档）Topic的业务ID，同步重新写入时这些Topic被恢复
+     * 每个有业务的已删除Topic返回一行，没有业务的不返回
+     *
+     * @param systemId 系统ID
+     * @param paths    Topic路径集合，不能为空
+     * @return 业务ID，同一业务按Topic数量重复出现
+     */
+    List<Long> selectDeletedGroupIds(@Param("systemId") Long systemId, @Param("paths") Collection<String> paths);
+
+    /**
+     * 查询系统下所有未删除Topic的ID和路径
+     *
+     * @param systemId 系统ID
+     * @return Topic路径列表
+     */
+    List<TopicPathRow> selectTopicPaths(@Param("systemId") Long systemId);
+
+    /**
+     * 按路径查询系统下未删除Topic的ID
+     *
+     * @param systemId 系统ID
+     * @param paths    Topic路径集合，不能为空
+     * @return Topic路径列表
+     */
+    List<TopicPathRow> selectTopicPathsByPaths(@Param("systemId") Long systemId,
+                                               @Param("paths") Collection<String> paths);
+
+    /**
+     * 流式读取所有未删除Topic的全文索引字段，用于构建全文索引
+     *
+     * @param handler 逐行处理
+     */
+    void scanSearchDocuments(ResultHandler<TopicSearchDocRow> handler);
+
+    /**
+     * 按ID查询未删除Topic的全文索引字段
+     *
+     * @param ids Topic ID集合，不能为空
+     * @return 文档行，已删除或不存在的Topic不返回
+     */
+    List<TopicSearchDocRow> selectSearchDocumentsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 按路径查询系统下未删除Topic的全文索引字段
+     *
+     * @param systemId 系统ID
+     * @param paths    Topic路径集合，不能为空
+     * @return 文档行
+     */
+    List<TopicSearchDocRow> selectSearchDocumentsByPaths(@Param("systemId") Long systemId,
+                                                         @Param("paths") Collection<String> paths);
+
+    /**
+     * 按主键顺序流式读取满足筛选条件的未删除Topic，用于导出
+     *
+     * @param systemId 系统ID，为空时不筛选
+     * @param groupId  业务ID，为空时不筛选
+     * @param tagIds   去重后的标签ID，为空时不筛选
+     * @param matchAll 为true时须包含全部标签，否则包含任一标签即可
+     * @param handler  逐行处理
+     */
+    void scanExportRows(@Param("systemId") Long systemId,
+                        @Param("groupId") Long groupId,
+                        @Param("tagIds") List<Long> tagIds,
+                        @Param("matchAll") boolean matchAll,
+                        ResultHandler<TopicExportRow> handler);
+
+    /**
+     * 按路径查询系统下已有Topic的导入状态，包含已逻辑删除的Topic
+     *
+     * @param systemId 系统ID
+     * @param paths    Topic路径集合，不能为空
+     * @return 已有Topic的状态
+     */
+    List<TopicImportState> selectImportStates(@Param("systemId") Long systemId,
+                                              @Param("paths") Collection<String> paths);
+
+    /**
+     * 批量插入或更新导入的Topic
+     * 基于uk_system_path唯一键，已存在的Topic更新名称，业务和Payload文档为空时保留原值；
+     * 已逻辑删除的Topic被恢复并重置同步状态
+     *
+     * @param systemId   系统ID
+     * @param topics     Topic列表（需包含name、path，可包含groupId、payloadDoc）
+     * @param importTime 导入时间
+     * @return 影响行数
+     */
+    int batchUpsertImportedTopics(@Param("systemId") Long systemId,
+                                  @Param("topics") List<Topic> topics,
+                                  @Param("importTime") LocalDateTime importTime);
 
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.emqx.topichub.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * Topic同步围栏Mapper
+ * 每个系统一行，记录当前同步租约持有者的围栏令牌
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Mapper
+public interface TopicSyncFenceMapper {
+
+    /**
+     * 递增系统的围栏令牌，没有记录时以1初始化
+     *
+     * @param systemId 系统ID
+     * @return 影响行数
+     */
+    int advance(@Param("systemId") Long systemId);
+
+    /**
+     * 加锁读取系统当前的围栏令牌，锁持有到事务结束
+     * 同步写入的每批事务先执行此查询，与新持有者递增令牌互斥
+     *
+     * @param systemId 系统ID
+     * @return 围栏令牌，没有记录时为null
+     */
+    Long selectTokenForUpdate(@Param("systemId") Long systemId);
+
+}
@@ -1,8 +1,14 @@
 package com.emqx.topichub.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.emqx.topichub.dto.TagLinkCountRow;
+import com.emqx.topichub.dto.TopicTagRow;
 import com.emqx.topichub.entity.TopicTag;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * @author EMQX Topic Hub Team
@@ -10,6 +16,58 @@ import org.apache.ibatis.annotations.Mapper;
 @Mapper
 public interface TopicTagMapper extends BaseMapper<TopicTag> {
 
-    // 可以在这里添加自定义的SQL方法
+    /**
+     * 一次查询多个Topic的未删除标签，按关联创建顺序排列
+     *
+     * @param topicIds Topic ID集合，不能为空
+     * @return Topic标签关联行
+     */
+    List<TopicTagRow> selectTagsByTopicIds(@Param("topicIds") Collection<Long> topicIds);
+
+    /**
+     * 按标签统计一批Topic上的未删除关联数量，没有关联的标签不返回
+     *
+     * @param topicIds Topic ID集合，不能为空
+     * @param tagIds   标签ID集合，不能为空
+     * @return 标签关联数量行
+     */
+    List<TagLinkCountRow> countActiveLinks(@Param("topicIds") Collection<Long> topicIds,
+                                           @Param("tagIds") Collection<Long> tagIds);
+
+    /**
+     * 为每个Topic关联每个标签，多行插入；关联已存在时恢复被逻辑删除的关联，不因唯一键冲突失败
+     *
+     * @param topicIds Topic ID集合，不能为空
+     * @param tagIds   标签ID集合，不能为空
+     * @return 影响行数
+     */
+    int insertOrRevive(@Param("topicIds") Collection<Long> topicIds,
+                       @Param("tagIds") Collection<Long> tagIds);
+
+    /**
+     * 按给定的Topic与标签组合插入关联，多行插入；关联已存在时恢复被逻辑删除的关联
+     *
+     * @param links 关联列表（需包含topicId、tagId），不能为空
+     * @return 影响行数
+     */
+    int insertOrReviveLinks(@Param("links") List<TopicTag> links);
+
+    /**
+     * 逻辑删除一批Topic与一批标签之间的关联
+     *
+     * @param topicIds Topic ID集合，不能为空
+     * @param tagIds   标签ID集合，不能为空
+     * @return 被删除的关联数量
+     */
+    int softDeleteLinks(@Param("topicIds") Collection<Long> topicIds,
+                        @Param("tagIds") Collection<Long> tagIds);
+
+    /**
+     * 逻辑删除一批Topic的全部标签关联，如Topic被同步归档时
+     *
+     * @param topicIds Topic ID集合，不能为空
+     * @return 被删除的关联数量
+     */
+    int softDeleteLinksByTopicIds(@Param("topicIds") Collection<Long> topicIds);
 
 }
\ No newline at end of file
@@ -15,7 +15,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -34,7 +33,7 @@ public class DashboardService {
     private final TopicMapper topicMapper;
     private final GroupMapper groupMapper;
     private final TagMapper tagMapper;
-    private final EmqxService emqxService;
+    private final EmqxHealthChecker emqxHealthChecker;
 
     /**
      * 获取仪表板统计数据
@@ -80,33 +79,12 @@ public class DashboardService {
 
     /**
      * 刷新系统状态
-     * 主动检查所有EMQX系统的连接状态
+     * 主动检查所有EMQX系统的连接状态，所有系统并发检查，状态批量写回
      *
      * @return 更新后的系统状态列表
      */
     public List<DashboardStatusDTO> refreshSystemStatus() {
-        List<EmqxSystem> systems = emqxSystemMapper.selectList(new QueryWrapper<EmqxSystem>());
-
-        // 检查每个系统的状态
-        for (EmqxSystem system : systems) {
-            try {
-                // 调用EmqxService检查系统状态
-                boolean isOnline = emqxService.checkSystemHealth(system);
-
-                system.setStatus(isOnline ? "online" : "offline");
-                system.setLastCheck(LocalDateTime.now());
-
-                emqxSystemMapper.updateById(system);
-
-                log.info("系统 {} 状态检查完成，状态: {}", system.getName(), system.getStatus());
-            } catch (Exception e) {
-                log.error("检查系统 {} 状态时发生错误: {}", system.getName(), e.getMessage());
-                system.setStatus("offline");
-                system.setLastCheck(LocalDateTime.now());
-                emqxSystemMapper.updateById(system);
-            }
-        }
-
+        emqxHealthChecker.checkAll(emqxSystemMapper.selectList(new QueryWrapper<EmqxSystem>()));
         return getSystemStatus();
     }
 }
\ No newline at end of file
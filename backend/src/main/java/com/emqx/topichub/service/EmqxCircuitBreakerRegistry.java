@@ -0,0 +1,83 @@
+package com.emqx.topichub.service;
+
+import com.emqx.topichub.common.CircuitBreaker;
+import com.emqx.topichub.config.EmqxProperties;
+import com.emqx.topichub.event.EmqxCircuitStateChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * EMQX熔断器注册表
+ * 按系统ID维护独立的熔断器，状态变化时发布EmqxCircuitStateChangedEvent
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmqxCircuitBreakerRegistry {
+
+    private final EmqxProperties emqxProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 系统ID -> 熔断器
+     */
+    private final Map<Long, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    /**
+     * 获取系统的熔断器，不存在时创建
+     *
+     * @param systemId 系统ID
+     * @return 熔断器
+     */
+    public CircuitBreaker get(Long systemId) {
+        return breakers.computeIfAbsent(systemId, this::create);
+    }
+
+    /**
+     * 获取系统当前的熔断状态
+     *
+     * @param systemId 系统ID
+     * @return 熔断状态，尚未发生调用时为CLOSED
+     */
+    public CircuitBreaker.State getState(Long systemId) {
+        CircuitBreaker breaker = breakers.get(systemId);
+        return breaker != null ? breaker.getState() : CircuitBreaker.State.CLOSED;
+    }
+
+    /**
+     * 移除系统的熔断器
+     * 系统地址变更或删除时调用，变更后的系统从关闭状态重新开始统计
+     *
+     * @param systemId 系统ID
+     */
+    public void evict(Long systemId) {
+        breakers.remove(systemId);
+    }
+
+    private CircuitBreaker create(Long systemId) {
+        EmqxProperties.CircuitBreaker config = emqxProperties.getCircuitBreaker();
+        CircuitBreaker.Config breakerConfig = new CircuitBreaker.Config(
+                config.getWindowSize(),
+                config.getMinimumCalls(),
+                config.getFailureRateThreshold(),
+                config.getSlowCallThreshold().toMillis(),
+                config.getSlowCallRateThreshold(),
+                config.getOpenDuration().toMillis(),
+                config.getMaxOpenDuration().toMillis(),
+                config.getJitter(),
+                config.getHalfOpenPermits());
+
+        return new CircuitBreaker(breakerConfig, (from, to) -> {
+            log.warn("系统 {} 熔断状态变化: {} -> {}", systemId, from, to);
+            eventPublisher.publishEvent(new EmqxCircuitStateChangedEvent(systemId, from, to));
+        });
+    }
+}
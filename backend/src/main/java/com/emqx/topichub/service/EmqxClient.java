@@ -0,0 +1,227 @@
+package com.emqx.topichub.service;
+
+import com.emqx.topichub.common.CircuitBreaker;
+import com.emqx.topichub.config.EmqxProperties;
+import com.emqx.topichub.entity.EmqxSystem;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EMQX HTTP客户端
+ * 基于Reactor Netty为每个EMQX系统维护独立的连接池，统一设置超时、gzip和连接池指标，
+ * 所有请求经过系统独立的熔断器
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmqxClient {
+
+    /**
+     * 连接池名称前缀，连接池指标以此区分不同的EMQX系统
+     */
+    private static final String POOL_NAME_PREFIX = "emqx-system-";
+
+    private final EmqxProperties emqxProperties;
+    private final EmqxCircuitBreakerRegistry circuitBreakerRegistry;
+
+    /**
+     * 系统ID -> 客户端实例
+     */
+    private final Map<Long, ClientHolder> clients = new ConcurrentHashMap<>();
+
+    /**
+     * 执行GET请求
+     *
+     * @param emqxSystem EMQX系统信息
+     * @param path       API路径（可带查询参数）
+     * @param headers    请求头
+     * @return 响应结果
+     */
+    public Mono<ResponseEntity<String>> get(EmqxSystem emqxSystem, String path, HttpHeaders headers) {
+        return exchange(emqxSystem, HttpMethod.GET, path, headers, null, String.class);
+    }
+
+    /**
+     * 执行GET请求并以原始字节返回响应体
+     * 用于大响应的流式解析，避免先解码为String
+     *
+     * @param emqxSystem EMQX系统信息
+     * @param path       API路径（可带查询参数）
+     * @param headers    请求头
+     * @return 响应结果
+     */
+    public Mono<ResponseEntity<byte[]>> getBytes(EmqxSystem emqxSystem, String path, HttpHeaders headers) {
+        return exchange(emqxSystem, HttpMethod.GET, path, headers, null, byte[].class);
+    }
+
+    /**
+     * 执行POST请求
+     *
+     * @param emqxSystem EMQX系统信息
+     * @param path       API路径
+     * @param headers    请求头
+     * @param body       请求体
+     * @return 响应结果
+     */
+    public Mono<ResponseEntity<String>> post(EmqxSystem emqxSystem, String path, HttpHeaders headers, String body) {
+        return exchange(emqxSystem, HttpMethod.POST, path, headers, body, String.class);
+    }
+
+    /**
+     * 释放指定系统的连接池和熔断器
+     * 系统地址变更或系统删除时调用
+     *
+     * @param systemId 系统ID
+     */
+    public void evict(Long systemId) {
+        circuitBreakerRegistry.evict(systemId);
+        ClientHolder holder = clients.remove(systemId);
+        if (holder != null) {
+            holder.provider().disposeLater().subscribe();
+            log.info("已释放系统 {} 的EMQX连接池", systemId);
+        }
+    }
+
+    /**
+     * 应用关闭时释放所有连接池
+     */
+    @PreDestroy
+    public void destroy() {
+        clients.values().forEach(holder -> holder.provider().dispose());
+        clients.clear();
+    }
+
+    /**
+     * 执行HTTP请求，经过系统的熔断器
+     * 熔断打开时直接失败，不占用连接；5xx、超时和网络错误计为失败，4xx说明系统可用，不计为失败
+     */
+    private <T> Mono<ResponseEntity<T>> exchange(EmqxSystem emqxSystem, HttpMethod method, String path,
+                                                 HttpHeaders headers, String body, Class<T> responseType) {
+        if (!emqxProperties.getCircuitBreaker().isEnabled()) {
+            return doExchange(emqxSystem, method, path, headers, body, responseType);
+        }
+
+        CircuitBreaker breaker = circuitBreakerRegistry.get(emqxSystem.getId());
+        return Mono.defer(() -> {
+            if (!breaker.tryAcquire()) {
+                return Mono.error(new RuntimeException("系统 " + emqxSystem.getName() + " 已熔断，暂停访问"));
+            }
+            long startTime = System.nanoTime();
+            return doExchange(emqxSystem, method, path, headers, body, responseType)
+                    .doOnSuccess(response -> breaker.onSuccess(elapsedMillis(startTime)))
+                    .doOnError(e -> {
+                        if (isSystemFailure(e)) {
+                            breaker.onError(elapsedMillis(startTime));
+                        } else {
+                            breaker.onSuccess(elapsedMillis(startTime));
+                        }
+                    })
+                    .doOnCancel(breaker::onCancel);
+        });
+    }
+
+    /**
+     * 执行HTTP请求
+     * 非2xx响应会以WebClientResponseException的形式抛出，与RestTemplate的行为保持一致
+     */
+    private <T> Mono<ResponseEntity<T>> doExchange(EmqxSystem emqxSystem, HttpMethod method, String path,
+                                                   HttpHeaders headers, String body, Class<T> responseType) {
+        WebClient.RequestBodySpec spec = getClient(emqxSystem)
+                .method(method)
+                .uri(emqxSystem.getUrl() + path)
+                .headers(h -> h.addAll(headers));
+        WebClient.RequestHeadersSpec<?> request = body != null ? spec.bodyValue(body) : spec;
+        return request.retrieve()
+                .toEntity(responseType)
+                .timeout(emqxProperties.getClient().getRequestTimeout());
+    }
+
+    /**
+     * 判断异常是否说明EMQX系统不可用
+     */
+    private boolean isSystemFailure(Throwable e) {
+        if (e instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().is5xxServerError();
+        }
+        return true;
+    }
+
+    private long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * 获取系统对应的客户端，系统地址变化时重建连接池
+     */
+    private WebClient getClient(EmqxSystem emqxSystem) {
+        ClientHolder holder = clients.compute(emqxSystem.getId(), (id, existing) -> {
+            if (existing != null && existing.url().equals(emqxSystem.getUrl())) {
+                return existing;
+            }
+            if (existing != null) {
+                existing.provider().disposeLater().subscribe();
+            }
+            return createClient(emqxSystem);
+        });
+        return holder.webClient();
+    }
+
+    /**
+     * 创建带独立连接池的客户端
+     */
+    private ClientHolder createClient(EmqxSystem emqxSystem) {
+        EmqxProperties.Client config = emqxProperties.getClient();
+
+        ConnectionProvider provider = ConnectionProvider.builder(POOL_NAME_PREFIX + emqxSystem.getId())
+                .maxConnections(config.getMaxConnections())
+                .pendingAcquireTimeout(config.getPendingAcquireTimeout())
+                .maxIdleTime(config.getMaxIdleTime())
+                .maxLifeTime(config.getMaxLifeTime())
+                .evictInBackground(config.getEvictInterval())
+                .metrics(config.isMetricsEnabled())
+                .build();
+
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) config.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(config.getResponseTimeout())
+                .compress(config.isCompress());
+
+        WebClient webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(config.getMaxInMemorySize()))
+                .build();
+
+        log.info("创建EMQX连接池，系统: {}, 最大连接数: {}", emqxSystem.getName(), config.getMaxConnections());
+        return new ClientHolder(emqxSystem.getUrl(), webClient, provider);
+    }
+
+    /**
+     * 客户端及其连接池
+     *
+     * @param url       创建时的系统地址
+     * @param webClient WebClient实例
+     * @param provider  连接池
+     */
+    private record ClientHolder(String url, WebClient webClient, ConnectionProvider provider) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.emqx.topichub.service;
+
+import com.emqx.topichub.config.EmqxProperties;
+import com.emqx.topichub.entity.EmqxSystem;
+import com.emqx.topichub.mapper.EmqxSystemMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EMQX健康检查器
+ * 在有界线程池上并发探测所有系统，每个探测有独立的截止时间，截止时间从探测开始执行时计算，
+ * 在队列中等待线程的时间不计入；超时的探测被取消，释放其线程。
+ * 探测结果通过一条批量UPDATE写回数据库，整体耗时取决于最慢的单个系统
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmqxHealthChecker {
+
+    private static final String STATUS_ONLINE = "online";
+    private static final String STATUS_OFFLINE = "offline";
+
+    private final EmqxSystemMapper emqxSystemMapper;
+    private final EmqxService emqxService;
+    private final EmqxProperties emqxProperties;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(emqxProperties.getHealth().getConcurrency());
+        executor.setMaxPoolSize(emqxProperties.getHealth().getConcurrency());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("emqx-health-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * 并发检查系统健康状态并批量写回状态和检查时间
+     * 超过截止时间仍未返回的探测不再等待，对应系统记为离线
+     *
+     * @param systems 待检查的系统
+     * @return 更新状态后的系统列表
+     */
+    public List<EmqxSystem> checkAll(List<EmqxSystem> systems) {
+        if (systems.isEmpty()) {
+            return systems;
+        }
+
+        Duration probeTimeout = emqxProperties.getHealth().getProbeTimeout();
+        long probeTimeoutMillis = probeTimeout.toMillis();
+        long startTime = System.currentTimeMillis();
+
+        List<CompletableFuture<Boolean>> probes = new ArrayList<>(systems.size());
+        for (EmqxSystem system : systems) {
+            probes.add(probe(system, probeTimeout));
+        }
+        CompletableFuture.allOf(probes.toArray(new CompletableFuture[0])).join();
+
+        LocalDateTime now = LocalDateTime.now();
+        int timedOut = 0;
+        for (int i = 0; i < systems.size(); i++) {
+            EmqxSystem system = systems.get(i);
+            Boolean online = probes.get(i).join();
+            if (online == null) {
+                timedOut++;
+                log.warn("检查系统 {} 状态超时（{}ms），记为离线", system.getName(), probeTimeoutMillis);
+            }
+            system.setStatus(Boolean.TRUE.equals(online) ? STATUS_ONLINE : STATUS_OFFLINE);
+            system.setLastCheck(now);
+        }
+
+        emqxSystemMapper.batchUpdateStatus(systems);
+
+        log.info("系统状态检查完成，共 {} 个系统，超时 {} 个，耗时 {}ms",
+                systems.size(), timedOut, System.currentTimeMillis() - startTime);
+        return systems;
+    }
+
+    /**
+     * 提交单个系统的探测，超时时结果为null
+     * 截止时间在探测开始执行时才设置；超时后取消探测，中断阻塞中的请求
+     */
+    private CompletableFuture<Boolean> probe(EmqxSystem system, Duration probeTimeout) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            result.completeOnTimeout(null, probeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            try {
+                result.complete(emqxService.checkSystemHealth(system, probeTimeout));
+            } catch (Exception e) {
+                log.error("检查系统 {} 状态时发生错误: {}", system.getName(), e.getMessage());
+                result.complete(false);
+            }
+        });
+        result.thenAccept(online -> {
+            if (online == null) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+}
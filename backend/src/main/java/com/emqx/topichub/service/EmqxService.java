@@ -3,23 +3,30 @@ package com.emqx.topichub.service;
 import com.alibaba.fastjson2.JSON;
 import com.alibaba.fastjson2.JSONArray;
 import com.alibaba.fastjson2.JSONObject;
+import com.emqx.topichub.common.EmqxTopicListParser;
+import com.emqx.topichub.config.EmqxProperties;
+import com.emqx.topichub.dto.TopicFetchResult;
 import com.emqx.topichub.entity.EmqxSystem;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import jakarta.annotation.Resource;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import java.util.Base64;
-import java.util.HashSet;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * EMQX系统API交互服务
@@ -34,12 +41,6 @@ public class EmqxService {
 
     // ================================ API路径常量 ================================
     
-    /**
-     * EMQX登录API路径
-     * 用于获取访问令牌的认证接口
-     */
-    private static final String API_LOGIN_PATH = "/api/v5/login";
-    
     /**
      * EMQX系统状态API路径
      * 用于检查系统运行状态和版本信息
@@ -58,34 +59,8 @@ public class EmqxService {
      */
     private static final String API_TOPICS_PATH = "/api/v5/topics";
     
-    // ================================ 缓存相关常量 ================================
-    
-    /**
-     * Redis中EMQX令牌缓存的键前缀
-     * 格式: emqx:token:{systemId}
-     */
-    private static final String CACHE_KEY_PREFIX = "emqx:token:";
-    
-    /**
-     * 令牌在Redis中的缓存超时时间（分钟）
-     * 设置为50分钟，略小于EMQX默认的60分钟令牌有效期，确保缓存不会过期
-     */
-    private static final long TOKEN_CACHE_TIMEOUT_MINUTES = 50L;
-    
     // ================================ 分页相关常量 ================================
     
-    /**
-     * 默认分页大小
-     * 用于主题列表等分页查询的默认每页记录数
-     */
-    private static final int DEFAULT_PAGE_SIZE = 1000;
-    
-    /**
-     * 最大分页限制
-     * 防止无限循环，限制最多获取的页数
-     */
-    private static final int MAX_PAGE_LIMIT = 100;
-    
     /**
      * 初始页码
      * 分页查询的起始页码
@@ -100,12 +75,6 @@ public class EmqxService {
      */
     private static final String HEADER_AUTHORIZATION = "Authorization";
     
-    /**
-     * HTTP Content-Type头名称
-     * 用于指定请求体的媒体类型
-     */
-    private static final String HEADER_CONTENT_TYPE = "Content-Type";
-    
     /**
      * HTTP Referer头名称
      * 用于指定请求来源页面
@@ -124,12 +93,6 @@ public class EmqxService {
      */
     private static final String BEARER_PREFIX = "Bearer ";
     
-    /**
-     * JSON内容类型
-     * 用于指定请求体为JSON格式
-     */
-    private static final String CONTENT_TYPE_JSON = "application/json";
-    
     /**
      * 浏览器用户代理字符串
      * 模拟Chrome浏览器的User-Agent，用于API请求
@@ -138,18 +101,6 @@ public class EmqxService {
     
     // ================================ JSON字段常量 ================================
     
-    /**
-     * JSON响应中的令牌字段名
-     * 用于从登录响应中提取访问令牌
-     */
-    private static final String JSON_FIELD_TOKEN = "token";
-    
-    /**
-     * JSON响应中的状态码字段名
-     * 用于判断API调用是否成功
-     */
-    private static final String JSON_FIELD_CODE = "code";
-    
     /**
      * JSON响应中的数据字段名
      * 用于提取响应中的主要数据内容
@@ -168,23 +119,19 @@ public class EmqxService {
      */
     private static final String JSON_FIELD_STATUS = "status";
     
-    /**
-     * JSON响应中的主题字段名
-     * 用于从主题列表响应中提取主题路径
-     */
-    private static final String JSON_FIELD_TOPIC = "topic";
-    
-    /**
-     * API调用成功的状态码
-     * EMQX API返回0表示操作成功
-     */
-    private static final int SUCCESS_CODE = 0;
-
     @Resource
-    private RestTemplate restTemplate;
+    private EmqxClient emqxClient;
     
     @Resource
-    private StringRedisTemplate stringRedisTemplate;
+    private EmqxTokenManager emqxTokenManager;
+
+    @Resource
+    private EmqxProperties emqxProperties;
+
+    /**
+     * 系统ID -> 自适应调整后的Topic分页大小
+     */
+    private final Map<Long, Integer> pageSizeBySystem = new ConcurrentHashMap<>();
 
 
 
@@ -192,69 +139,36 @@ public class EmqxService {
      * 从EMQX系统获取Topic列表
      *
      * @param emqxSystem EMQX系统信息
-     * @return Topic路径集合
+     * @return Topic路径集合及是否完整
      */
-    public Set<String> fetchTopicsFromEmqx(EmqxSystem emqxSystem) {
-        Set<String> topicPaths = new HashSet<>();
-        
-        try {
-            // 1. 先登录获取Bearer token
-            String bearerToken = loginToEmqx(emqxSystem);
-            
-            // 2. 使用token获取Topic列表
-            topicPaths = fetchTopicsWithToken(emqxSystem, bearerToken);
-            
-            log.info("从EMQX系统 {} 获取到 {} 个Topic", emqxSystem.getName(), topicPaths.size());
-
-        } catch (Exception e) {
-            log.error("调用EMQX API失败，系统: {}", emqxSystem.getName(), e);
-            throw new RuntimeException("调用EMQX API失败: " + e.getMessage());
-        }
-
-        return topicPaths;
+    public TopicFetchResult fetchTopicsFromEmqx(EmqxSystem emqxSystem) {
+        return fetchTopicsFromEmqx(emqxSystem, TopicSyncProgress.NONE);
     }
 
     /**
-     * 登录EMQX系统获取Bearer token
-     * 支持Redis缓存，避免重复登录
+     * 从EMQX系统获取Topic列表，每拉取一页回调一次进度
      *
      * @param emqxSystem EMQX系统信息
-     * @return Bearer token
+     * @param progress 进度回调，已取消时停止拉取并抛出CancellationException
+     * @return Topic路径集合及是否完整
      */
-    private String loginToEmqx(EmqxSystem emqxSystem) {
-        String cacheKey = CACHE_KEY_PREFIX + emqxSystem.getId();
-        
+    public TopicFetchResult fetchTopicsFromEmqx(EmqxSystem emqxSystem, TopicSyncProgress progress) {
         try {
-            // 1. 先从Redis缓存获取token
-            String cachedToken = stringRedisTemplate.opsForValue().get(cacheKey);
-            
-            // 2. 如果缓存中有token，验证其有效性
-            if (cachedToken != null && !cachedToken.isEmpty()) {
-                if (validateToken(emqxSystem, cachedToken)) {
-                    log.debug("使用缓存的token，系统: {}", emqxSystem.getName());
-                    return cachedToken;
-                } else {
-                    log.info("缓存的token已失效，重新登录，系统: {}", emqxSystem.getName());
-                    // 删除失效的token
-                    stringRedisTemplate.delete(cacheKey);
-                }
-            }
-            
-            // 3. 重新登录获取新token
-            String newToken = performLogin(emqxSystem);
-            
-            // 4. 将新token缓存到Redis，设置过期时间为50分钟（EMQX默认token有效期1小时）
-            stringRedisTemplate.opsForValue().set(cacheKey, newToken, TOKEN_CACHE_TIMEOUT_MINUTES, TimeUnit.MINUTES);
-            
-            log.info("获取新token并缓存，系统: {}", emqxSystem.getName());
-            return newToken;
+            // 使用缓存的Bearer token获取Topic列表，token失效时自动重新登录
+            TopicFetchResult result = executeWithToken(emqxSystem,
+                    token -> fetchTopicsWithToken(emqxSystem, token, progress));
             
+            log.info("从EMQX系统 {} 获取到 {} 个Topic", emqxSystem.getName(), result.getTopicPaths().size());
+            return result;
+
+        } catch (CancellationException e) {
+            throw e;
         } catch (Exception e) {
-            log.error("登录EMQX系统失败，系统: {}", emqxSystem.getName(), e);
-            throw new RuntimeException("登录EMQX系统失败: " + e.getMessage());
+            log.error("调用EMQX API失败，系统: {}", emqxSystem.getName(), e);
+            throw new RuntimeException("调用EMQX API失败: " + e.getMessage());
         }
     }
-    
+
     /**
      * 创建带Bearer token的HTTP请求头
      *
@@ -281,95 +195,38 @@ public class EmqxService {
         return headers;
     }
     
-    /**
-     * 创建登录请求头
-     *
-     * @param emqxSystem EMQX系统信息
-     * @return HTTP请求头
-     */
-    private HttpHeaders createLoginHeaders(EmqxSystem emqxSystem) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.set(HEADER_CONTENT_TYPE, CONTENT_TYPE_JSON);
-        headers.set(HEADER_REFERER, emqxSystem.getUrl() + "/");
-        headers.set(HEADER_USER_AGENT, USER_AGENT_VALUE);
-        return headers;
-    }
-    
     /**
      * 执行GET请求
+     * 请求经由EmqxClient的系统独立连接池发出，超时由连接池配置统一控制
      *
-     * @param url 请求URL
+     * @param emqxSystem EMQX系统信息
+     * @param path API路径
      * @param headers 请求头
      * @return 响应结果
      */
-    private ResponseEntity<String> executeGetRequest(String url, HttpHeaders headers) {
-        HttpEntity<String> entity = new HttpEntity<>(headers);
-        return restTemplate.exchange(url, HttpMethod.GET, entity, String.class);
+    private ResponseEntity<String> executeGetRequest(EmqxSystem emqxSystem, String path, HttpHeaders headers) {
+        return emqxClient.get(emqxSystem, path, headers).block();
     }
     
     /**
-     * 执行POST请求
-     *
-     * @param url 请求URL
-     * @param headers 请求头
-     * @param body 请求体
-     * @return 响应结果
-     */
-    private ResponseEntity<String> executePostRequest(String url, HttpHeaders headers, String body) {
-        HttpEntity<String> entity = new HttpEntity<>(body, headers);
-        return restTemplate.exchange(url, HttpMethod.POST, entity, String.class);
-    }
-
-    /**
-     * 验证token是否有效
-     * 通过调用EMQX状态接口来验证token
+     * 使用有效令牌执行EMQX调用
+     * 调用返回401时说明令牌已在EMQX侧失效，清除该令牌并重新获取后重试一次
      *
      * @param emqxSystem EMQX系统信息
-     * @param token 待验证的token
-     * @return token是否有效
+     * @param call 使用令牌的调用
+     * @return 调用结果
      */
-    private boolean validateToken(EmqxSystem emqxSystem, String token) {
+    private <T> T executeWithToken(EmqxSystem emqxSystem, Function<String, T> call) {
+        String token = emqxTokenManager.getToken(emqxSystem);
         try {
-            HttpHeaders headers = createBearerAuthHeaders(token);
-            String apiUrl = emqxSystem.getUrl() + API_STATUS_PATH;
-            ResponseEntity<String> response = executeGetRequest(apiUrl, headers);
-            
-            return response.getStatusCode().is2xxSuccessful();
-        } catch (Exception e) {
-            log.debug("Token验证失败，系统: {}, 错误: {}", emqxSystem.getName(), e.getMessage());
-            return false;
-        }
-    }
-    
-    /**
-     * 执行实际的登录操作
-     *
-     * @param emqxSystem EMQX系统信息
-     * @return Bearer token
-     */
-    private String performLogin(EmqxSystem emqxSystem) {
-        // 解密密码
-        String password = new String(Base64.getDecoder().decode(emqxSystem.getPassword()));
-
-        // 创建登录请求头
-        HttpHeaders headers = createLoginHeaders(emqxSystem);
-
-        // 创建登录请求体
-        String loginBody = String.format("{\"username\":\"%s\",\"password\":\"%s\"}", 
-                emqxSystem.getUsername(), password);
-        
-        // 调用登录API
-        String loginUrl = emqxSystem.getUrl() + API_LOGIN_PATH;
-        ResponseEntity<String> loginResponse = executePostRequest(loginUrl, headers, loginBody);
-
-        if (loginResponse.getStatusCode().is2xxSuccessful() && loginResponse.getBody() != null) {
-            // 解析响应获取token
-            return parseTokenFromLoginResponse(loginResponse.getBody());
-        } else {
-            throw new RuntimeException("登录EMQX系统失败，状态码: " + loginResponse.getStatusCode());
+            return call.apply(token);
+        } catch (WebClientResponseException.Unauthorized e) {
+            log.info("EMQX返回401，重新获取token后重试，系统: {}", emqxSystem.getName());
+            emqxTokenManager.invalidate(emqxSystem.getId(), token);
+            return call.apply(emqxTokenManager.getToken(emqxSystem));
         }
     }
-    
+
     /**
      * 清除指定系统的token缓存
      * 当系统配置更新时调用此方法
@@ -377,168 +234,228 @@ public class EmqxService {
      * @param systemId 系统ID
      */
     public void clearTokenCache(Long systemId) {
-        String cacheKey = CACHE_KEY_PREFIX + systemId;
-        stringRedisTemplate.delete(cacheKey);
-        log.info("已清除系统 {} 的token缓存", systemId);
+        emqxTokenManager.evict(systemId);
     }
     
+    /**
+     * 释放指定系统的连接资源
+     * 系统配置更新或删除时调用，清除token缓存并释放连接池
+     *
+     * @param systemId 系统ID
+     */
+    public void releaseSystem(Long systemId) {
+        clearTokenCache(systemId);
+        emqxClient.evict(systemId);
+    }
+
     /**
      * 清除所有系统的token缓存
      */
     public void clearAllTokenCache() {
-        Set<String> keys = stringRedisTemplate.keys(CACHE_KEY_PREFIX + "*");
-        if (!keys.isEmpty()) {
-            stringRedisTemplate.delete(keys);
-            log.info("已清除所有系统的token缓存，共 {} 个", keys.size());
-        }
+        emqxTokenManager.evictAll();
     }
 
     /**
      * 使用Bearer token获取Topic列表
+     * 先拉取第一页读取meta中的总数，再以有限并发拉取剩余分页，结果合并到同一集合
      *
      * @param emqxSystem EMQX系统信息
      * @param bearerToken Bearer token
-     * @return Topic路径集合
-     */
-    private Set<String> fetchTopicsWithToken(EmqxSystem emqxSystem, String bearerToken) {
-        Set<String> allTopics = new HashSet<>();
-        int page = INITIAL_PAGE;
-        int limit = DEFAULT_PAGE_SIZE;
-        boolean hasMoreData = true;
-        
+     * @param progress 进度回调
+     * @return Topic路径集合及是否完整
+     */
+    private TopicFetchResult fetchTopicsWithToken(EmqxSystem emqxSystem, String bearerToken,
+                                                  TopicSyncProgress progress) {
+        EmqxProperties.Sync config = emqxProperties.getSync();
+        Set<String> allTopics = ConcurrentHashMap.newKeySet();
+        int limit = getPageSize(emqxSystem.getId());
+        PageStats stats = new PageStats();
+
         try {
             // 创建请求头
             HttpHeaders headers = createStandardApiHeaders(emqxSystem, bearerToken);
 
-            // 分页获取所有Topic数据
-            while (hasMoreData) {
-                String apiUrl = emqxSystem.getUrl() + API_TOPICS_PATH + "?limit=" + limit + "&page=" + page;
-                log.debug("正在获取第{}页Topic数据，URL: {}", page, apiUrl);
-                
-                ResponseEntity<String> response = executeGetRequest(apiUrl, headers);
-
-                if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                    // 解析当前页的Topic列表
-                    Set<String> currentPageTopics = parseTopicsFromResponse(response.getBody());
-                    
-                    if (currentPageTopics.isEmpty()) {
-                        // 当前页没有数据，停止分页
-                        hasMoreData = false;
-                        log.debug("第{}页没有Topic数据，停止分页获取", page);
-                    } else {
-                        // 添加到总集合中
-                        allTopics.addAll(currentPageTopics);
-                        log.debug("第{}页获取到{}个Topic", page, currentPageTopics.size());
-                        
-                        // 如果当前页数据少于limit，说明已经是最后一页
-                        if (currentPageTopics.size() < limit) {
-                            hasMoreData = false;
-                            log.debug("第{}页数据量({})小于限制({}), 已是最后一页", page, currentPageTopics.size(), limit);
-                        } else {
-                            // 继续下一页
-                            page++;
-                        }
-                    }
-                } else {
-                    log.warn("获取EMQX系统 {} 第{}页Topic列表失败，状态码: {}", emqxSystem.getName(), page, response.getStatusCode());
-                    hasMoreData = false;
+            // 1. 拉取第一页，获取总数
+            progress.onFetchStarted();
+            TopicPage firstPage = fetchTopicPage(emqxSystem, headers, INITIAL_PAGE, limit, allTopics::add).block();
+            stats.record(firstPage, limit);
+
+            int fetchedPages = 1;
+            boolean complete = true;
+            AtomicBoolean failedPage = new AtomicBoolean(!firstPage.success());
+            if (!firstPage.success()) {
+                // 第一页即为错误响应时总数未知，不再翻页，结果记为不完整，已有Topic不计为未出现
+                progress.onPageFetched(INITIAL_PAGE, firstPage.topicCount());
+            } else if (firstPage.count() != null) {
+                // 2. 已知总数，按配置的并发度拉取剩余分页
+                long requiredPages = (firstPage.count() + limit - 1) / limit;
+                if (requiredPages > config.getMaxPages()) {
+                    log.warn("Topic总数需要{}页，超过最大页数限制({}页)，只获取前{}页",
+                            requiredPages, config.getMaxPages(), config.getMaxPages());
+                    complete = false;
                 }
-                
-                // 防止无限循环，最多获取100页
-                if (page > MAX_PAGE_LIMIT) {
-                    log.warn("已达到最大页数限制({}页)，停止获取", MAX_PAGE_LIMIT);
-                    hasMoreData = false;
+                int totalPages = (int) Math.max(Math.min(requiredPages, config.getMaxPages()), INITIAL_PAGE);
+                progress.onPageFetched(totalPages, firstPage.topicCount());
+                if (totalPages > INITIAL_PAGE) {
+                    // 取消后不再发起新的分页请求
+                    Flux.range(INITIAL_PAGE + 1, totalPages - INITIAL_PAGE)
+                            .takeWhile(page -> !progress.isCancelled())
+                            .flatMap(page -> fetchTopicPage(emqxSystem, headers, page, limit, allTopics::add),
+                                    config.getPageConcurrency())
+                            .doOnNext(page -> {
+                                if (!page.success()) {
+                                    failedPage.set(true);
+                                }
+                                stats.record(page, limit);
+                                progress.onPageFetched(totalPages, page.topicCount());
+                            })
+                            .blockLast();
+                    progress.checkCancelled();
+                    fetchedPages = totalPages;
+                }
+            } else {
+                // 3. 响应中没有总数，退化为顺序翻页
+                TopicPage currentPage = firstPage;
+                progress.onPageFetched(null, firstPage.topicCount());
+                while (hasNextPage(currentPage, limit)) {
+                    progress.checkCancelled();
+                    if (fetchedPages >= config.getMaxPages()) {
+                        log.warn("已达到最大页数限制({}页)，停止获取", config.getMaxPages());
+                        complete = false;
+                        break;
+                    }
+                    currentPage = fetchTopicPage(emqxSystem, headers, currentPage.page() + 1, limit, allTopics::add).block();
+                    stats.record(currentPage, limit);
+                    progress.onPageFetched(null, currentPage.topicCount());
+                    fetchedPages++;
+                    if (!currentPage.success()) {
+                        // 错误响应中没有可靠的翻页信息，停止翻页
+                        failedPage.set(true);
+                        break;
+                    }
                 }
             }
-            
-            log.info("共获取{}页数据，总计{}个Topic", page - 1, allTopics.size());
-            return allTopics;
 
+            if (failedPage.get()) {
+                log.warn("部分Topic分页为错误响应，本次拉取结果记为不完整，系统: {}", emqxSystem.getName());
+                complete = false;
+            }
+
+            adjustPageSize(emqxSystem, limit, stats);
+
+            log.info("共获取{}页数据，总计{}个Topic，分页大小: {}", fetchedPages, allTopics.size(), limit);
+            return new TopicFetchResult(allTopics, complete);
+
+        } catch (WebClientResponseException.Unauthorized | CancellationException e) {
+            // 401交由上层重新获取token后重试，取消直接向上传递
+            throw e;
         } catch (Exception e) {
-            log.error("获取Topic列表失败，系统: {}, 当前页: {}", emqxSystem.getName(), page, e);
+            log.error("获取Topic列表失败，系统: {}, 分页大小: {}", emqxSystem.getName(), limit, e);
             throw new RuntimeException("获取Topic列表失败: " + e.getMessage());
         }
     }
 
     /**
-     * 从登录响应中解析Bearer token
+     * 拉取单页Topic数据并记录耗时
+     * 响应以字节形式流式解析，Topic路径直接写入sink，并发拉取时sink需线程安全
      *
-     * @param responseBody 登录响应体
-     * @return Bearer token
+     * @param emqxSystem EMQX系统信息
+     * @param headers 请求头
+     * @param page 页码
+     * @param limit 分页大小
+     * @param sink Topic路径接收者
+     * @return 分页结果
+     */
+    private Mono<TopicPage> fetchTopicPage(EmqxSystem emqxSystem, HttpHeaders headers, int page, int limit,
+                                           Consumer<String> sink) {
+        String apiPath = API_TOPICS_PATH + "?limit=" + limit + "&page=" + page;
+        log.debug("正在获取第{}页Topic数据，URL: {}", page, emqxSystem.getUrl() + apiPath);
+
+        return emqxClient.getBytes(emqxSystem, apiPath, headers)
+                .elapsed()
+                .map(tuple -> {
+                    byte[] body = tuple.getT2().getBody();
+                    TopicPage topicPage = body == null
+                            ? new TopicPage(page, false, 0, null, false, tuple.getT1(), 0)
+                            : parseTopicsFromResponse(page, body, tuple.getT1(), sink);
+                    log.debug("第{}页获取到{}个Topic，耗时{}ms", page, topicPage.topicCount(), topicPage.latencyMillis());
+                    return topicPage;
+                });
+    }
+
+    /**
+     * 判断顺序翻页时是否还有下一页
      */
-    private String parseTokenFromLoginResponse(String responseBody) {
-        try {
-            JSONObject jsonObject = JSON.parseObject(responseBody);
-            
-            // 直接检查是否有token字段
-            String token = jsonObject.getString(JSON_FIELD_TOKEN);
-            if (token != null && !token.trim().isEmpty()) {
-                return token;
-            }
-            
-            // 如果有code字段，检查是否成功
-            Integer code = jsonObject.getInteger(JSON_FIELD_CODE);
-            if (code != null) {
-                if (code == SUCCESS_CODE && jsonObject.containsKey(JSON_FIELD_TOKEN)) {
-                    return jsonObject.getString(JSON_FIELD_TOKEN);
-                }
-                throw new RuntimeException("登录失败，错误码: " + code);
-            }
-            
-            throw new RuntimeException("登录响应中未找到有效的token");
-            
-        } catch (Exception e) {
-            log.error("解析登录响应失败: {}", responseBody, e);
-            throw new RuntimeException("解析登录响应失败: " + e.getMessage());
+    private boolean hasNextPage(TopicPage topicPage, int limit) {
+        if (topicPage.hasNext() != null) {
+            return topicPage.hasNext();
         }
+        // 没有hasnext标记时，当前页数据少于limit说明已经是最后一页
+        return topicPage.topicCount() >= limit;
     }
 
     /**
-     * 从API响应中解析Topic列表
+     * 获取系统当前使用的分页大小
+     */
+    private int getPageSize(Long systemId) {
+        EmqxProperties.Sync config = emqxProperties.getSync();
+        int pageSize = pageSizeBySystem.getOrDefault(systemId, config.getPageSize());
+        return Math.max(config.getMinPageSize(), Math.min(pageSize, config.getMaxPageSize()));
+    }
+
+    /**
+     * 根据本次同步观测到的单页耗时和响应大小调整下次同步的分页大小
+     * 单页过慢或过大时减半，明显低于目标时翻倍
      *
+     * @param emqxSystem EMQX系统信息
+     * @param limit 本次使用的分页大小
+     * @param stats 本次分页统计
+     */
+    private void adjustPageSize(EmqxSystem emqxSystem, int limit, PageStats stats) {
+        if (stats.pages == 0) {
+            return;
+        }
+        EmqxProperties.Sync config = emqxProperties.getSync();
+        long avgLatency = stats.totalLatencyMillis / stats.pages;
+        long avgBytes = stats.totalBytes / stats.pages;
+        long targetLatency = config.getTargetPageLatency().toMillis();
+
+        int nextPageSize = limit;
+        if (avgLatency > targetLatency || avgBytes > config.getTargetPageBytes()) {
+            nextPageSize = Math.max(limit / 2, config.getMinPageSize());
+        } else if (stats.fullPages > 1 && avgLatency < targetLatency / 2 && avgBytes < config.getTargetPageBytes() / 2) {
+            nextPageSize = Math.min(limit * 2, config.getMaxPageSize());
+        }
+
+        if (nextPageSize != limit) {
+            pageSizeBySystem.put(emqxSystem.getId(), nextPageSize);
+            log.info("调整系统 {} 的Topic分页大小: {} -> {}，平均耗时: {}ms，平均大小: {}字节",
+                    emqxSystem.getName(), limit, nextPageSize, avgLatency, avgBytes);
+        }
+    }
+
+    /**
+     * 从API响应中解析Topic列表及分页元数据
+     * 使用流式解析，不构建中间JSON树
+     *
+     * @param page 页码
      * @param responseBody API响应体
-     * @return Topic路径集合
+     * @param latencyMillis 请求耗时
+     * @param sink Topic路径接收者
+     * @return 分页结果
      */
-    private Set<String> parseTopicsFromResponse(String responseBody) {
-        Set<String> topicPaths = new HashSet<>();
-        
+    private TopicPage parseTopicsFromResponse(int page, byte[] responseBody, long latencyMillis, Consumer<String> sink) {
         try {
-            JSONObject jsonObject = JSON.parseObject(responseBody);
-            
-            // 检查响应是否成功
-            Integer code = jsonObject.getInteger(JSON_FIELD_CODE);
-            if (code != null && code == SUCCESS_CODE) {
-                // 获取data数组
-                JSONArray dataArray = jsonObject.getJSONArray(JSON_FIELD_DATA);
-                if (dataArray != null) {
-                    for (int i = 0; i < dataArray.size(); i++) {
-                        JSONObject topicNode = dataArray.getJSONObject(i);
-                        String topicPath = topicNode.getString(JSON_FIELD_TOPIC);
-                        if (topicPath != null && !topicPath.trim().isEmpty()) {
-                            topicPaths.add(topicPath.trim());
-                        }
-                    }
-                }
-            } else {
-                JSONArray dataJson = jsonObject.getJSONArray(JSON_FIELD_DATA);
-                if (dataJson != null) {
-                    for (int i = 0; i < dataJson.size(); i++) {
-                        JSONObject topicNode = dataJson.getJSONObject(i);
-                        String topicPath = topicNode.getString(JSON_FIELD_TOPIC);
-                        if (topicPath != null && !topicPath.trim().isEmpty()) {
-                            topicPaths.add(topicPath.trim());
-                        }
-                    }
-                }
-                log.warn("EMQX API返回错误响应: {}", responseBody);
+            EmqxTopicListParser.ParseResult result = EmqxTopicListParser.parse(responseBody, sink);
+            if (!result.success()) {
+                log.warn("EMQX API返回错误响应: {}", new String(responseBody, StandardCharsets.UTF_8));
             }
-            
+            return new TopicPage(page, result.success(), result.topicCount(), result.count(), result.hasNext(),
+                    latencyMillis, responseBody.length);
         } catch (Exception e) {
-            log.error("解析Topic响应失败: {}", responseBody, e);
+            log.error("解析Topic响应失败: {}", new String(responseBody, StandardCharsets.UTF_8), e);
             throw new RuntimeException("解析Topic响应失败: ");
         }
-        
-        return topicPaths;
     }
 
     /**
@@ -549,15 +466,9 @@ public class EmqxService {
      */
     public boolean testConnection(EmqxSystem emqxSystem) {
         try {
-            // 先登录获取Bearer token
-            String bearerToken = loginToEmqx(emqxSystem);
-            
-            // 创建认证头
-            HttpHeaders headers = createBearerAuthHeaders(bearerToken);
-
-            // 测试连接
-            String apiUrl = emqxSystem.getUrl() + API_STATUS_PATH;
-            ResponseEntity<String> response = executeGetRequest(apiUrl, headers);
+            // 测试连接，token失效时自动重新登录
+            ResponseEntity<String> response = executeWithToken(emqxSystem,
+                    token -> executeGetRequest(emqxSystem, API_STATUS_PATH, createBearerAuthHeaders(token)));
 
             return response.getStatusCode().is2xxSuccessful();
         } catch (Exception e) {
@@ -574,15 +485,9 @@ public class EmqxService {
      */
     public String getSystemStatus(EmqxSystem emqxSystem) {
         try {
-            // 先登录获取Bearer token
-            String bearerToken = loginToEmqx(emqxSystem);
-            
-            // 创建认证头
-            HttpHeaders headers = createBearerAuthHeaders(bearerToken);
-
-            // 获取状态信息
-            String apiUrl = emqxSystem.getUrl() + "/api/v5/status";
-            ResponseEntity<String> response = executeGetRequest(apiUrl, headers);
+            // 获取状态信息，token失效时自动重新登录
+            ResponseEntity<String> response = executeWithToken(emqxSystem,
+                    token -> executeGetRequest(emqxSystem, API_STATUS_PATH, createBearerAuthHeaders(token)));
 
             if (response.getStatusCode().is2xxSuccessful()) {
                 return response.getBody();
@@ -603,15 +508,9 @@ public class EmqxService {
      */
     public String getSystemStats(EmqxSystem emqxSystem) {
         try {
-            // 先登录获取Bearer token
-            String bearerToken = loginToEmqx(emqxSystem);
-            
-            // 创建认证头
-            HttpHeaders headers = createBearerAuthHeaders(bearerToken);
-
-            // 获取统计信息
-            String apiUrl = emqxSystem.getUrl() + API_STATS_PATH;
-            ResponseEntity<String> response = executeGetRequest(apiUrl, headers);
+            // 获取统计信息，token失效时自动重新登录
+            ResponseEntity<String> response = executeWithToken(emqxSystem,
+                    token -> executeGetRequest(emqxSystem, API_STATS_PATH, createBearerAuthHeaders(token)));
 
             if (response.getStatusCode().is2xxSuccessful()) {
                 return response.getBody();
@@ -628,24 +527,21 @@ public class EmqxService {
      * 检查系统健康状态
      * 使用登录获取Bearer token的方式进行认证
      *
-     * @param system EMQX系统
+     * @param system  EMQX系统
+     * @param timeout 状态请求的超时时间，从请求发出时开始计算
      * @return 是否在线
      */
-    public boolean checkSystemHealth(EmqxSystem system) {
+    public boolean checkSystemHealth(EmqxSystem system, Duration timeout) {
         try {
             if (system.getUrl() == null || system.getUrl().isEmpty()) {
                 return false;
             }
             
-            // 先登录获取Bearer token
-            String bearerToken = loginToEmqx(system);
-            
-            // 创建认证头
-            HttpHeaders headers = createBearerAuthHeaders(bearerToken);
-            
-            // 调用EMQX API状态接口
-            String apiUrl = system.getUrl() + API_STATUS_PATH;
-            ResponseEntity<String> response = executeGetRequest(apiUrl, headers);
+            // 调用EMQX API状态接口，token失效时自动重新登录
+            ResponseEntity<String> response = executeWithToken(system,
+                    token -> emqxClient.get(system, API_STATUS_PATH, createBearerAuthHeaders(token))
+                            .timeout(timeout)
+                            .block());
             
             // 检查响应状态码
             return response.getStatusCode().is2xxSuccessful();
@@ -787,4 +683,38 @@ public class EmqxService {
         }
         return 0;
     }
-}
\ No newline at end of file
+
+    /**
+     * Topic分页结果
+     *
+     * @param page 页码
+     * @param success 响应是否为成功响应，错误响应（HTTP 200但带错误码）或空响应体为false
+     * @param topicCount 当前页的Topic数量
+     * @param count meta中的Topic总数，可能为空
+     * @param hasNext meta中的是否有下一页标记，可能为空
+     * @param latencyMillis 请求耗时
+     * @param bytes 响应体大小
+     */
+    private record TopicPage(int page, boolean success, int topicCount, Long count, Boolean hasNext, long latencyMillis, int bytes) {
+    }
+
+    /**
+     * 单次同步的分页统计，用于自适应调整分页大小
+     * 由Reactor串行回调更新，无需同步
+     */
+    private static class PageStats {
+        private int pages;
+        private int fullPages;
+        private long totalLatencyMillis;
+        private long totalBytes;
+
+        private void record(TopicPage topicPage, int limit) {
+            pages++;
+            totalLatencyMillis += topicPage.latencyMillis();
+            totalBytes += topicPage.bytes();
+            if (topicPage.topicCount() >= limit) {
+                fullPages++;
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.emqx.topichub.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.emqx.topichub.config.EmqxProperties;
+import com.emqx.topichub.dto.BrokerStatsSnapshot;
+import com.emqx.topichub.entity.EmqxSystem;
+import com.emqx.topichub.mapper.EmqxSystemMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * EMQX统计采集器
+ * 定时拉取各在线系统的/api/v5/stats并发布为不可变的内存快照，
+ * 系统列表和统计接口只读快照，不再在请求路径上访问EMQX。
+ * 采集在专用线程中执行，不占用共享的调度线程；每个系统采集完成后立即在锁内合并到快照，
+ * 采集期间被移除的系统（地址变更或删除）其结果被丢弃，不会以旧地址的数据覆盖
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmqxStatsCollector {
+
+    private static final String STATUS_ONLINE = "online";
+    private static final String FIELD_TOPICS = "topics.count";
+    private static final String FIELD_CONNECTIONS = "connections.count";
+
+    private final EmqxSystemMapper emqxSystemMapper;
+    private final EmqxService emqxService;
+    private final EmqxProperties emqxProperties;
+
+    /**
+     * 当前发布的快照，系统ID -> 统计快照
+     * 修改时在锁内复制后整体替换，读取方无需加锁
+     */
+    private volatile Map<Long, BrokerStatsSnapshot> snapshots = Map.of();
+
+    /**
+     * 采集轮次
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * 系统ID -> 移除次数，采集前后不一致说明采集期间系统被移除，结果不再发布
+     */
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+
+    /**
+     * 是否有一轮采集已分派且尚未结束
+     */
+    private final AtomicBoolean collecting = new AtomicBoolean();
+
+    private ThreadPoolTaskExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("emqx-stats-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * 定时分派一轮采集，上一轮尚未结束时跳过
+     * 采集可能阻塞到请求超时，在专用线程中执行，这里立即返回
+     */
+    @Scheduled(fixedDelayString = "#{@emqxProperties.stats.interval.toMillis()}")
+    public void collectAll() {
+        if (!collecting.compareAndSet(false, true)) {
+            log.debug("上一轮EMQX统计采集尚未结束，跳过本轮");
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    collectRound();
+                } finally {
+                    collecting.set(false);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            collecting.set(false);
+            log.warn("EMQX统计采集未能分派: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 采集所有在线系统的统计信息
+     * 单个系统采集失败时保留其上次成功的数据并记录错误，不影响其他系统
+     */
+    private void collectRound() {
+        List<EmqxSystem> onlineSystems = emqxSystemMapper.selectList(
+                new LambdaQueryWrapper<EmqxSystem>().eq(EmqxSystem::getStatus, STATUS_ONLINE));
+        long round = version.incrementAndGet();
+
+        Set<Long> onlineIds = new HashSet<>();
+        for (EmqxSystem system : onlineSystems) {
+            onlineIds.add(system.getId());
+            long generation = generation(system.getId());
+            publish(system.getId(), generation, collect(system, snapshots.get(system.getId()), round));
+        }
+
+        // 离线或已删除的系统不再保留快照，本轮开始后由collectNow采集的保留
+        synchronized (this) {
+            Map<Long, BrokerStatsSnapshot> next = new HashMap<>(snapshots);
+            next.entrySet().removeIf(entry -> !onlineIds.contains(entry.getKey())
+                    && entry.getValue().getVersion() < round);
+            snapshots = Map.copyOf(next);
+        }
+        log.debug("EMQX统计采集完成，轮次: {}, 系统数: {}", round, onlineIds.size());
+    }
+
+    /**
+     * 立即采集单个系统的统计信息并合并到当前快照
+     * 用于系统刚上线时不必等待下一轮采集
+     *
+     * @param system EMQX系统
+     */
+    public void collectNow(EmqxSystem system) {
+        long round = version.incrementAndGet();
+        long generation = generation(system.getId());
+        publish(system.getId(), generation, collect(system, snapshots.get(system.getId()), round));
+    }
+
+    /**
+     * 移除系统的快照，进行中的采集结果不再发布
+     * 系统地址变更或删除时调用
+     *
+     * @param systemId 系统ID
+     */
+    public synchronized void evict(Long systemId) {
+        generations.merge(systemId, 1L, Long::sum);
+        if (snapshots.containsKey(systemId)) {
+            Map<Long, BrokerStatsSnapshot> next = new HashMap<>(snapshots);
+            next.remove(systemId);
+            snapshots = Map.copyOf(next);
+        }
+    }
+
+    /**
+     * 获取系统的统计快照
+     *
+     * @param systemId 系统ID
+     * @return 统计快照，尚未采集时为空
+     */
+    public BrokerStatsSnapshot getSnapshot(Long systemId) {
+        return snapshots.get(systemId);
+    }
+
+    /**
+     * 获取当前发布的全部快照
+     *
+     * @return 系统ID -> 统计快照（不可修改）
+     */
+    public Map<Long, BrokerStatsSnapshot> getSnapshots() {
+        return snapshots;
+    }
+
+    /**
+     * 获取当前采集轮次
+     *
+     * @return 采集轮次，每次采集递增
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * 判断快照是否过期
+     *
+     * @param snapshot 统计快照
+     * @return 从未成功采集或超过过期时间未更新时返回true
+     */
+    public boolean isStale(BrokerStatsSnapshot snapshot) {
+        if (snapshot == null || snapshot.getCollectedAt() == null) {
+            return true;
+        }
+        return snapshot.getCollectedAt()
+                .plus(emqxProperties.getStats().getStaleAfter())
+                .isBefore(LocalDateTime.now());
+    }
+
+    private long generation(Long systemId) {
+        return generations.getOrDefault(systemId, 0L);
+    }
+
+    /**
+     * 合并单个系统的采集结果
+     * 采集期间系统被移除，或已有更新轮次的结果时丢弃
+     */
+    private synchronized void publish(Long systemId, long generation, BrokerStatsSnapshot snapshot) {
+        if (generation(systemId) != generation) {
+            log.debug("系统 {} 在采集期间被移除，丢弃本次结果", systemId);
+            return;
+        }
+        BrokerStatsSnapshot existing = snapshots.get(systemId);
+        if (existing != null && existing.getVersion() > snapshot.getVersion()) {
+            return;
+        }
+        Map<Long, BrokerStatsSnapshot> next = new HashMap<>(snapshots);
+        next.put(systemId, snapshot);
+        snapshots = Map.copyOf(next);
+    }
+
+    /**
+     * 采集单个系统
+     */
+    private BrokerStatsSnapshot collect(EmqxSystem system, BrokerStatsSnapshot previous, long round) {
+        try {
+            String responseBody = emqxService.getSystemStats(system);
+            long topicCount = emqxService.parseCountFromNode(responseBody, FIELD_TOPICS);
+            long connectionCount = emqxService.parseCountFromNode(responseBody, FIELD_CONNECTIONS);
+            return new BrokerStatsSnapshot(system.getId(), topicCount, connectionCount, LocalDateTime.now(), round,
+                    null, null);
+        } catch (Exception e) {
+            log.warn("采集系统 {} 的统计信息失败: {}", system.getName(), e.getMessage());
+            BrokerStatsSnapshot base = previous != null ? previous
+                    : new BrokerStatsSnapshot(system.getId(), 0L, 0L, null, round, null, null);
+            return base.withError(e.getMessage(), round);
+        }
+    }
+}
@@ -2,20 +2,25 @@ package com.emqx.topichub.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.emqx.topichub.common.CircuitBreaker;
 import com.emqx.topichub.dto.*;
 import com.emqx.topichub.entity.EmqxSystem;
+import com.emqx.topichub.event.EmqxCircuitStateChangedEvent;
 import com.emqx.topichub.mapper.EmqxSystemMapper;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.Base64;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 
@@ -39,12 +44,22 @@ public class EmqxSystemService extends ServiceImpl<EmqxSystemMapper, EmqxSystem>
     /** 默认值常量 */
     private static final String DEFAULT_UNKNOWN = "Unknown";
     private static final int DEFAULT_COUNT = 0;
-    private static final String FIELD_TOPICS = "topics.count";
-    private static final String FIELD_CONNECTIONS = "connections.count";
 
     @Resource
     private EmqxService emqxService;
 
+    @Resource
+    private EmqxStatsCollector emqxStatsCollector;
+
+    @Resource
+    private EmqxHealthChecker emqxHealthChecker;
+
+    @Resource
+    private EmqxCircuitBreakerRegistry emqxCircuitBreakerRegistry;
+
+    @Resource
+    private TopicIndexService topicIndexService;
+
     /**
      * 获取所有系统列表
      *
@@ -112,6 +127,9 @@ public class EmqxSystemService extends ServiceImpl<EmqxSystemMapper, EmqxSystem>
         }
 
         this.updateById(system);
+        // 地址或凭据可能已变更，释放旧的token和连接池
+        emqxService.releaseSystem(id);
+        emqxStatsCollector.evict(id);
         return convertToDTO(system);
     }
 
@@ -126,6 +144,9 @@ public class EmqxSystemService extends ServiceImpl<EmqxSystemMapper, EmqxSystem>
             throw new RuntimeException("系统不存在");
         }
         this.removeById(id);
+        emqxService.releaseSystem(id);
+        emqxStatsCollector.evict(id);
+        topicIndexService.evict(id);
     }
 
     /**
@@ -173,6 +194,9 @@ public class EmqxSystemService extends ServiceImpl<EmqxSystemMapper, EmqxSystem>
                 version = emqxService.parseVersionFromResponse(responseBody);
                 nodeInfo = emqxService.parseNodeInfoFromResponse(responseBody);
 
+                // 立即采集统计信息，新上线的系统不必等待下一轮采集
+                emqxStatsCollector.collectNow(system);
+
                 return ConnectionTestResult.success(id, system.getName(), responseTime, version, nodeInfo);
             } else {
                 return ConnectionTestResult.failure(id, system.getName(), "连接失败");
@@ -193,17 +217,13 @@ public class EmqxSystemService extends ServiceImpl<EmqxSystemMapper, EmqxSystem>
 
     /**
      * 刷新所有系统状态
+     * 所有系统并发检查，状态批量写回
      *
      * @return 更新后的系统列表
      */
     public List<SystemManagementDTO> refreshAllSystemStatus() {
-        List<EmqxSystem> systems = this.list();
-
-        for (EmqxSystem system : systems) {
-            testConnection(system.getId());
-        }
-
-        return getAllSystems();
+        List<EmqxSystem> systems = emqxHealthChecker.checkAll(this.list());
+        return systems.stream().map(this::convertToDTO).collect(Collectors.toList());
     }
 
     /**
@@ -218,92 +238,40 @@ public class EmqxSystemService extends ServiceImpl<EmqxSystemMapper, EmqxSystem>
         long offlineCount = systems.stream().filter(s -> STATUS_OFFLINE.equals(s.getStatus())).count();
         long totalSystems = systems.size();
 
-        // 计算总Topic数，从各个在线系统获取
-        long totalTopics = calculateTotalTopicsFromOnlineSystems();
-
-        SystemStatsDTO stats = new SystemStatsDTO(onlineCount, offlineCount, totalSystems, totalTopics);
-
-        // 获取实时主题和连接数统计
-        fetchRealTimeTopicAndConnectionCounts(stats);
-
-        return stats;
-    }
-
-
-
-
-
-    /**
-     * 计算在线系统的总主题数
-     *
-     * @return 总主题数
-     */
-    private long calculateTotalTopicsFromOnlineSystems() {
-        try {
-            // 获取所有在线的EMQX系统
-            LambdaQueryWrapper<EmqxSystem> wrapper = new LambdaQueryWrapper<>();
-            wrapper.eq(EmqxSystem::getStatus, STATUS_ONLINE);
-            List<EmqxSystem> onlineSystems = this.list(wrapper);
-
-            long totalTopics = 0L;
-
-            for (EmqxSystem system : onlineSystems) {
-                try {
-                    // 使用EmqxService获取统计信息
-                    String responseBody = emqxService.getSystemStats(system);
-                    long topicCount = emqxService.parseCountFromNode(responseBody,FIELD_TOPICS);
-                    totalTopics += topicCount;
-                } catch (Exception e) {
-                    log.warn("获取系统 {} 的主题数量失败: {}", system.getName(), e.getMessage());
-                }
-            }
+        // 总Topic数取自各在线系统的统计快照，不在请求路径上访问EMQX
+        long totalTopics = systems.stream()
+                .filter(s -> STATUS_ONLINE.equals(s.getStatus()))
+                .map(s -> emqxStatsCollector.getSnapshot(s.getId()))
+                .filter(Objects::nonNull)
+                .mapToLong(BrokerStatsSnapshot::getTopicCount)
+                .sum();
 
-            return totalTopics;
-        } catch (Exception e) {
-            log.error("计算在线系统总主题数时发生错误", e);
-            return DEFAULT_COUNT;
-        }
+        return new SystemStatsDTO(onlineCount, offlineCount, totalSystems, totalTopics);
     }
 
-
-
     /**
-     * 获取实时主题和连接数统计
+     * 熔断恢复关闭时将系统记为在线
+     * 熔断打开不记为离线：统计采集和自动同步只处理在线系统，记为离线后没有后台请求触发半开试探，
+     * 短暂故障会使系统一直离线；熔断期间请求被快速拒绝，熔断状态在系统列表中单独展示。
+     * 异步执行，避免在EMQX请求回调线程上访问数据库
      *
-     * @param stats 统计信息DTO
+     * @param event 熔断状态变化事件
      */
-    private void fetchRealTimeTopicAndConnectionCounts(SystemStatsDTO stats) {
-        try {
-            // 获取所有在线的EMQX系统
-            LambdaQueryWrapper<EmqxSystem> wrapper = new LambdaQueryWrapper<>();
-            wrapper.eq(EmqxSystem::getStatus, STATUS_ONLINE);
-            List<EmqxSystem> onlineSystems = this.list(wrapper);
-
-            long totalTopics = 0L;
-
-            for (EmqxSystem system : onlineSystems) {
-                try {
-                    // 使用EmqxService获取统计信息
-                    String responseBody = emqxService.getSystemStats(system);
-                    
-                    // 解析主题数
-                    long topicCount = emqxService.parseCountFromNode(responseBody,FIELD_TOPICS);
-                    totalTopics += topicCount;
-                } catch (Exception e) {
-                    log.warn("获取系统 {} 的实时统计信息失败: {}", system.getName(), e.getMessage());
-                }
-            }
-
-            // 更新总主题数
-            stats.setTotalTopics(totalTopics);
-
-        } catch (Exception e) {
-            log.error("获取实时主题和连接数统计时发生错误", e);
+    @Async
+    @EventListener
+    public void onCircuitStateChanged(EmqxCircuitStateChangedEvent event) {
+        if (event.getToState() != CircuitBreaker.State.CLOSED) {
+            log.info("系统 {} 熔断状态变为 {}", event.getSystemId(), event.getToState());
+            return;
         }
+        this.lambdaUpdate()
+                .eq(EmqxSystem::getId, event.getSystemId())
+                .set(EmqxSystem::getStatus, STATUS_ONLINE)
+                .set(EmqxSystem::getLastCheck, LocalDateTime.now())
+                .update();
+        log.info("系统 {} 熔断状态变为 {}，系统状态更新为 {}", event.getSystemId(), event.getToState(), STATUS_ONLINE);
     }
 
-
-
     /**
      * 转换实体为DTO
      *
@@ -316,28 +284,21 @@ public class EmqxSystemService extends ServiceImpl<EmqxSystemMapper, EmqxSystem>
 
         // 不返回密码信息
         dto.setTesting(false);
-
-        // 从EMQX API获取实时的Topic数和连接数
-        try {
-            if (STATUS_ONLINE.equals(system.getStatus())) {
-                // 使用EmqxService获取统计信息
-                String responseBody = emqxService.getSystemStats(system);
-
-                // 解析主题数和连接数
-                long topicCount = emqxService.parseCountFromNode(responseBody, FIELD_TOPICS);
-                long connectionCount = emqxService.parseCountFromNode(responseBody, FIELD_CONNECTIONS);
-
-                dto.setTopicCount((int) topicCount);
-                dto.setConnectionCount((int) connectionCount);
-            } else {
-                // 离线系统设置为0
-                dto.setTopicCount(DEFAULT_COUNT);
-                dto.setConnectionCount(DEFAULT_COUNT);
-            }
-        } catch (Exception e) {
-            log.warn("获取系统 {} 的实时统计信息失败: {}", system.getName(), e.getMessage());
+        dto.setCircuitState(emqxCircuitBreakerRegistry.getState(system.getId()).name());
+
+        // Topic数和连接数取自后台采集的统计快照
+        BrokerStatsSnapshot snapshot = emqxStatsCollector.getSnapshot(system.getId());
+        if (STATUS_ONLINE.equals(system.getStatus()) && snapshot != null) {
+            dto.setTopicCount((int) snapshot.getTopicCount());
+            dto.setConnectionCount((int) snapshot.getConnectionCount());
+            dto.setStatsUpdatedAt(snapshot.getCollectedAt());
+            dto.setStatsStale(emqxStatsCollector.isStale(snapshot));
+            dto.setStatsError(snapshot.getLastError());
+        } else {
+            // 离线或尚未采集的系统设置为0
             dto.setTopicCount(DEFAULT_COUNT);
             dto.setConnectionCount(DEFAULT_COUNT);
+            dto.setStatsStale(STATUS_ONLINE.equals(system.getStatus()));
         }
 
         return dto;
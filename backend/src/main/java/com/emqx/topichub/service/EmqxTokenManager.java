@@ -0,0 +1,335 @@
+package com.emqx.topichub.service;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.emqx.topichub.config.EmqxProperties;
+import com.emqx.topichub.entity.EmqxSystem;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Base64;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EMQX令牌管理器
+ * 两级缓存：进程内缓存按系统ID保存令牌及过期时间，未命中时读取Redis（emqx:token:{systemId}），
+ * 仍未命中才登录EMQX。同一系统的并发登录合并为一次请求，令牌在过期前由后台任务提前刷新。
+ * 提前刷新的登录在专用线程池中执行，定时任务只负责分派，不占用共享的调度线程
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmqxTokenManager {
+
+    /**
+     * EMQX登录API路径
+     */
+    private static final String API_LOGIN_PATH = "/api/v5/login";
+
+    /**
+     * Redis中EMQX令牌缓存的键前缀
+     * 格式: emqx:token:{systemId}
+     */
+    private static final String CACHE_KEY_PREFIX = "emqx:token:";
+
+    private static final String HEADER_CONTENT_TYPE = "Content-Type";
+    private static final String HEADER_REFERER = "Referer";
+    private static final String HEADER_USER_AGENT = "User-Agent";
+    private static final String CONTENT_TYPE_JSON = "application/json";
+    private static final String USER_AGENT_VALUE = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/139.0.0.0 Safari/537.36";
+
+    private static final String JSON_FIELD_TOKEN = "token";
+    private static final String JSON_FIELD_CODE = "code";
+
+    /**
+     * API调用成功的状态码
+     */
+    private static final int SUCCESS_CODE = 0;
+
+    /**
+     * 同时进行的提前刷新数量
+     */
+    private static final int REFRESH_CONCURRENCY = 4;
+
+    private final EmqxClient emqxClient;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final EmqxProperties emqxProperties;
+
+    /**
+     * 系统ID -> 进程内缓存的令牌
+     */
+    private final Map<Long, CachedToken> tokens = new ConcurrentHashMap<>();
+
+    /**
+     * 系统ID -> 进行中的令牌加载，用于合并并发登录
+     */
+    private final Map<Long, CompletableFuture<CachedToken>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 已分派提前刷新、尚未完成的系统ID，同一系统不重复分派
+     */
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolTaskExecutor refreshExecutor;
+
+    @PostConstruct
+    public void init() {
+        refreshExecutor = new ThreadPoolTaskExecutor();
+        refreshExecutor.setCorePoolSize(REFRESH_CONCURRENCY);
+        refreshExecutor.setMaxPoolSize(REFRESH_CONCURRENCY);
+        refreshExecutor.setAllowCoreThreadTimeOut(true);
+        refreshExecutor.setThreadNamePrefix("emqx-token-refresh-");
+        refreshExecutor.initialize();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        refreshExecutor.shutdown();
+    }
+
+    /**
+     * 获取系统的有效令牌
+     * 依次查找进程内缓存、Redis，均未命中时登录EMQX
+     *
+     * @param emqxSystem EMQX系统信息
+     * @return Bearer token
+     */
+    public String getToken(EmqxSystem emqxSystem) {
+        CachedToken cached = tokens.get(emqxSystem.getId());
+        if (cached != null && cached.isUsable(emqxSystem, System.currentTimeMillis())) {
+            return cached.token();
+        }
+        return load(emqxSystem, 0L).token();
+    }
+
+    /**
+     * 使令牌失效
+     * 仅当缓存中的令牌与失效令牌一致时才清除，避免误删其他线程或实例刚刷新的令牌
+     *
+     * @param systemId     系统ID
+     * @param invalidToken 已失效的令牌
+     */
+    public void invalidate(Long systemId, String invalidToken) {
+        tokens.computeIfPresent(systemId, (id, cached) -> cached.token().equals(invalidToken) ? null : cached);
+        String cacheKey = CACHE_KEY_PREFIX + systemId;
+        if (invalidToken.equals(stringRedisTemplate.opsForValue().get(cacheKey))) {
+            stringRedisTemplate.delete(cacheKey);
+        }
+        log.info("已清除系统 {} 失效的token", systemId);
+    }
+
+    /**
+     * 清除指定系统的令牌缓存
+     * 系统配置更新或删除时调用
+     *
+     * @param systemId 系统ID
+     */
+    public void evict(Long systemId) {
+        tokens.remove(systemId);
+        stringRedisTemplate.delete(CACHE_KEY_PREFIX + systemId);
+        log.info("已清除系统 {} 的token缓存", systemId);
+    }
+
+    /**
+     * 清除所有系统的令牌缓存
+     */
+    public void evictAll() {
+        tokens.clear();
+        Set<String> keys = stringRedisTemplate.keys(CACHE_KEY_PREFIX + "*");
+        if (keys != null && !keys.isEmpty()) {
+            stringRedisTemplate.delete(keys);
+            log.info("已清除所有系统的token缓存，共 {} 个", keys.size());
+        }
+    }
+
+    /**
+     * 提前刷新即将过期的令牌
+     * 只刷新进程内缓存中的系统，系统删除或修改后缓存已被清除，不会继续刷新。
+     * 登录可能阻塞到请求超时，这里只把刷新分派到专用线程池，立即返回
+     */
+    @Scheduled(fixedDelayString = "#{@emqxProperties.token.refreshCheckInterval.toMillis()}")
+    public void refreshExpiringTokens() {
+        long refreshAheadMillis = emqxProperties.getToken().getRefreshAhead().toMillis();
+        long now = System.currentTimeMillis();
+
+        for (CachedToken cached : tokens.values()) {
+            Long systemId = cached.system().getId();
+            if (cached.expiresAt() - now > refreshAheadMillis || !refreshing.add(systemId)) {
+                continue;
+            }
+            try {
+                refreshExecutor.execute(() -> refresh(cached.system(), refreshAheadMillis));
+            } catch (TaskRejectedException e) {
+                refreshing.remove(systemId);
+                log.warn("提前刷新token未能分派，系统: {}, 错误: {}", cached.system().getName(), e.getMessage());
+            }
+        }
+    }
+
+    private void refresh(EmqxSystem emqxSystem, long refreshAheadMillis) {
+        try {
+            load(emqxSystem, refreshAheadMillis);
+            log.debug("已提前刷新token，系统: {}", emqxSystem.getName());
+        } catch (Exception e) {
+            log.warn("提前刷新token失败，系统: {}, 错误: {}", emqxSystem.getName(), e.getMessage());
+        } finally {
+            refreshing.remove(emqxSystem.getId());
+        }
+    }
+
+    /**
+     * 加载令牌，同一系统同时只有一个线程执行加载，其余线程等待其结果
+     *
+     * @param emqxSystem         EMQX系统信息
+     * @param minRemainingMillis Redis中的令牌至少需要剩余的有效期，不足时重新登录
+     * @return 缓存的令牌
+     */
+    private CachedToken load(EmqxSystem emqxSystem, long minRemainingMillis) {
+        CompletableFuture<CachedToken> future = new CompletableFuture<>();
+        CompletableFuture<CachedToken> existing = inFlight.putIfAbsent(emqxSystem.getId(), future);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+
+        try {
+            CachedToken cached = loadFromRedisOrLogin(emqxSystem, minRemainingMillis);
+            tokens.put(emqxSystem.getId(), cached);
+            future.complete(cached);
+            return cached;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(emqxSystem.getId(), future);
+        }
+    }
+
+    /**
+     * 优先使用Redis中的令牌（可能由其他实例写入），剩余有效期不足时重新登录并写回Redis
+     */
+    private CachedToken loadFromRedisOrLogin(EmqxSystem emqxSystem, long minRemainingMillis) {
+        String cacheKey = CACHE_KEY_PREFIX + emqxSystem.getId();
+
+        String cachedToken = stringRedisTemplate.opsForValue().get(cacheKey);
+        if (cachedToken != null && !cachedToken.isEmpty()) {
+            Long ttlMillis = stringRedisTemplate.getExpire(cacheKey, TimeUnit.MILLISECONDS);
+            if (ttlMillis != null && ttlMillis > minRemainingMillis) {
+                log.debug("使用Redis缓存的token，系统: {}", emqxSystem.getName());
+                return new CachedToken(cachedToken, System.currentTimeMillis() + ttlMillis, emqxSystem);
+            }
+        }
+
+        try {
+            String newToken = performLogin(emqxSystem);
+            long ttlMillis = emqxProperties.getToken().getCacheTtl().toMillis();
+            stringRedisTemplate.opsForValue().set(cacheKey, newToken, ttlMillis, TimeUnit.MILLISECONDS);
+            log.info("获取新token并缓存，系统: {}", emqxSystem.getName());
+            return new CachedToken(newToken, System.currentTimeMillis() + ttlMillis, emqxSystem);
+        } catch (Exception e) {
+            log.error("登录EMQX系统失败，系统: {}", emqxSystem.getName(), e);
+            throw new RuntimeException("登录EMQX系统失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 执行实际的登录操作
+     *
+     * @param emqxSystem EMQX系统信息
+     * @return Bearer token
+     */
+    private String performLogin(EmqxSystem emqxSystem) {
+        // 解密密码
+        String password = new String(Base64.getDecoder().decode(emqxSystem.getPassword()));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HEADER_CONTENT_TYPE, CONTENT_TYPE_JSON);
+        headers.set(HEADER_REFERER, emqxSystem.getUrl() + "/");
+        headers.set(HEADER_USER_AGENT, USER_AGENT_VALUE);
+
+        String loginBody = String.format("{\"username\":\"%s\",\"password\":\"%s\"}",
+                emqxSystem.getUsername(), password);
+
+        ResponseEntity<String> loginResponse = emqxClient.post(emqxSystem, API_LOGIN_PATH, headers, loginBody).block();
+
+        if (loginResponse != null && loginResponse.getStatusCode().is2xxSuccessful() && loginResponse.getBody() != null) {
+            return parseTokenFromLoginResponse(loginResponse.getBody());
+        } else {
+            throw new RuntimeException("登录EMQX系统失败，状态码: "
+                    + (loginResponse != null ? loginResponse.getStatusCode() : null));
+        }
+    }
+
+    /**
+     * 从登录响应中解析Bearer token
+     *
+     * @param responseBody 登录响应体
+     * @return Bearer token
+     */
+    private String parseTokenFromLoginResponse(String responseBody) {
+        try {
+            JSONObject jsonObject = JSON.parseObject(responseBody);
+
+            // 直接检查是否有token字段
+            String token = jsonObject.getString(JSON_FIELD_TOKEN);
+            if (token != null && !token.trim().isEmpty()) {
+                return token;
+            }
+
+            // 如果有code字段，检查是否成功
+            Integer code = jsonObject.getInteger(JSON_FIELD_CODE);
+            if (code != null) {
+                if (code == SUCCESS_CODE && jsonObject.containsKey(JSON_FIELD_TOKEN)) {
+                    return jsonObject.getString(JSON_FIELD_TOKEN);
+                }
+                throw new RuntimeException("登录失败，错误码: " + code);
+            }
+
+            throw new RuntimeException("登录响应中未找到有效的token");
+
+        } catch (Exception e) {
+            log.error("解析登录响应失败: {}", responseBody, e);
+            throw new RuntimeException("解析登录响应失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 进程内缓存的令牌
+     *
+     * @param token     Bearer token
+     * @param expiresAt 缓存过期时间戳（毫秒）
+     * @param system    获取令牌时的系统信息，用于后台刷新
+     */
+    private record CachedToken(String token, long expiresAt, EmqxSystem system) {
+
+        /**
+         * 令牌未过期且系统地址和账号未变化时可直接使用
+         */
+        private boolean isUsable(EmqxSystem emqxSystem, long now) {
+            return now < expiresAt
+                    && Objects.equals(system.getUrl(), emqxSystem.getUrl())
+                    && Objects.equals(system.getUsername(), emqxSystem.getUsername());
+        }
+    }
+}
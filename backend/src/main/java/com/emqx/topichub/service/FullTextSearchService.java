@@ -0,0 +1,341 @@
+package com.emqx.topichub.service;
+
+import com.alibaba.fastjson2.JSON;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.emqx.topichub.common.FullTextIndex;
+import com.emqx.topichub.common.TransactionHooks;
+import com.emqx.topichub.dto.TopicSearchDocRow;
+import com.emqx.topichub.entity.PayloadTemplate;
+import com.emqx.topichub.mapper.PayloadTemplateMapper;
+import com.emqx.topichub.mapper.TopicMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 全文检索服务
+ * 在内存中为Topic（名称、路径各层级、Payload文档）和Payload模板（名称、描述、内容）各维护一个全文索引，
+ * 关键字搜索先在索引中按相关度取出全部命中的ID，由调用方与其他条件一起分批按主键过滤后在内存中分页。
+ * 索引在首次查询时从数据库加载，之后由写操作和同步在事务提交后增量维护；
+ * 每次变更追加到Redis中的变更日志（search:index:{index}），各实例查询前按版本号顺序重放其他写入方的变更，
+ * 重放按ID或路径从数据库重新读取文档，与Topic索引的维护方式相同
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FullTextSearchService {
+
+    /**
+     * 变更日志名前缀，格式: search:index:{index}
+     */
+    private static final String LOG_PREFIX = "search:index:";
+    private static final String INDEX_TOPIC = "topic";
+    private static final String INDEX_PAYLOAD_TEMPLATE = "payload_template";
+
+    /**
+     * 重放变更时每次按ID或路径重新读取的最大数量
+     */
+    private static final int REPLAY_CHUNK_SIZE = 1000;
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float PATH_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.5f;
+    private static final float DOC_WEIGHT = 1.0f;
+
+    private final TopicMapper topicMapper;
+    private final PayloadTemplateMapper payloadTemplateMapper;
+    private final IndexChangeLog indexChangeLog;
+
+    /**
+     * 索引名 -> 已加载的索引
+     */
+    private final Map<String, LoadedIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * 索引名 -> 加载索引用的锁
+     */
+    private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+
+    /**
+     * 按关键字搜索Topic
+     *
+     * @param keyword 关键字
+     * @return 全部命中的Topic ID，按相关度从高到低排列
+     */
+    public List<Long> searchTopics(String keyword) {
+        return toIds(getIndex(INDEX_TOPIC).index.search(keyword, Integer.MAX_VALUE));
+    }
+
+    /**
+     * 按关键字搜索Payload模板
+     *
+     * @param keyword 关键字
+     * @return 全部命中的模板ID，按相关度从高到低排列
+     */
+    public List<Long> searchTemplates(String keyword) {
+        return toIds(getIndex(INDEX_PAYLOAD_TEMPLATE).index.search(keyword, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Topic新增或名称、路径、Payload文档变更后更新索引，按ID重新读取，已删除的移出索引
+     *
+     * @param topicIds Topic ID
+     */
+    public void onTopicsChanged(Collection<Long> topicIds) {
+        if (topicIds.isEmpty()) {
+            return;
+        }
+        DocChange change = new DocChange(new ArrayList<>(topicIds), null, null);
+        TransactionHooks.afterCommit(() -> applyChange(INDEX_TOPIC, change));
+    }
+
+    /**
+     * 同步新增Topic后更新索引，按路径重新读取，索引未加载时不额外查询
+     *
+     * @param systemId 系统ID
+     * @param paths    新增的Topic路径
+     */
+    public void onTopicsAdded(Long systemId, Collection<String> paths) {
+        if (paths.isEmpty()) {
+            return;
+        }
+        DocChange change = new DocChange(null, systemId, new ArrayList<>(paths));
+        TransactionHooks.afterCommit(() -> applyChange(INDEX_TOPIC, change));
+    }
+
+    /**
+     * 删除或归档Topic后更新索引
+     *
+     * @param topicIds Topic ID
+     */
+    public void onTopicsRemoved(Collection<Long> topicIds) {
+        onTopicsChanged(topicIds);
+    }
+
+    /**
+     * 模板新增、变更或删除后更新索引，按ID重新读取，已删除的移出索引
+     *
+     * @param templateIds 模板ID
+     */
+    public void onTemplatesChanged(Collection<Long> templateIds) {
+        if (templateIds.isEmpty()) {
+            return;
+        }
+        DocChange change = new DocChange(new ArrayList<>(templateIds), null, null);
+        TransactionHooks.afterCommit(() -> applyChange(INDEX_PAYLOAD_TEMPLATE, change));
+    }
+
+    /**
+     * 取得最新的本地索引：首次查询时加载；Redis中的版本号领先时按顺序重放缺少的变更，
+     * 其他线程正在重放时直接使用本地索引，不等待
+     */
+    private LoadedIndex getIndex(String name) {
+        LoadedIndex loaded = indexes.get(name);
+        if (loaded == null) {
+            synchronized (loadLocks.computeIfAbsent(name, key -> new Object())) {
+                loaded = indexes.get(name);
+                if (loaded == null) {
+                    loaded = load(name);
+                    indexes.put(name, loaded);
+                }
+            }
+            return loaded;
+        }
+        Long version = indexChangeLog.readVersion(LOG_PREFIX + name);
+        if (version != null && version > loaded.version) {
+            catchUp(name, loaded, version, false);
+        }
+        return loaded;
+    }
+
+    /**
+     * 从数据库加载索引，先读版本号再加载数据，加载期间的变更之后按版本号重放，重放按ID重新读取，重复应用无影响
+     */
+    private LoadedIndex load(String name) {
+        Long version = indexChangeLog.readVersion(LOG_PREFIX + name);
+        long loadVersion = version != null ? version : 0L;
+        long startTime = System.currentTimeMillis();
+        FullTextIndex index = new FullTextIndex();
+        if (INDEX_TOPIC.equals(name)) {
+            topicMapper.scanSearchDocuments(context -> putTopic(index, context.getResultObject()));
+        } else {
+            payloadTemplateMapper.selectList(templateQuery()).forEach(template -> putTemplate(index, template));
+        }
+        log.info("加载全文索引: {}，文档数: {}，版本: {}，耗时: {}ms",
+                name, index.size(), loadVersion, System.currentTimeMillis() - startTime);
+        return new LoadedIndex(index, loadVersion);
+    }
+
+    /**
+     * 变更已提交到数据库后调用：追加到变更日志，本地索引已加载时重放到该变更为止
+     * Redis不可用时只更新本地索引
+     */
+    private void applyChange(String name, DocChange change) {
+        Long version = indexChangeLog.append(LOG_PREFIX + name, JSON.toJSONString(change));
+        LoadedIndex loaded = indexes.get(name);
+        if (loaded == null) {
+            return;
+        }
+        if (version != null) {
+            catchUp(name, loaded, version, true);
+            return;
+        }
+        loaded.lock.lock();
+        try {
+            apply(name, loaded.index, change);
+        } catch (Exception e) {
+            log.warn("更新全文索引失败: {}，错误: {}", name, e.getMessage());
+        } finally {
+            loaded.lock.unlock();
+        }
+    }
+
+    /**
+     * 按版本号顺序重放本地索引缺少的变更
+     * 日志已不包含所需的变更时在后台重新加载，期间继续使用本地索引；重放失败时保留版本号，下次查询时重试
+     *
+     * @param wait 其他线程正在重放时是否等待，写入方等待以保证读到自己的写入，查询方不等待
+     */
+    private void catchUp(String name, LoadedIndex loaded, long version, boolean wait) {
+        if (wait) {
+            loaded.lock.lock();
+        } else if (!loaded.lock.tryLock()) {
+            return;
+        }
+        try {
+            if (loaded.version >= version) {
+                return;
+            }
+            List<IndexChangeLog.Change> changes = indexChangeLog.readSince(LOG_PREFIX + name, loaded.version, version);
+            if (changes == null) {
+                log.info("全文索引变更日志无法补齐: {}，本地版本: {}，目标版本: {}，后台重新加载", name, loaded.version, version);
+                indexChangeLog.reloadInBackground(LOG_PREFIX + name, () -> indexes.put(name, load(name)));
+                return;
+            }
+            // 重放以数据库当前状态为准，与顺序无关，合并后按批重新读取
+            Set<Long> ids = new LinkedHashSet<>();
+            Map<Long, Set<String>> paths = new HashMap<>();
+            for (IndexChangeLog.Change change : changes) {
+                DocChange docChange = JSON.parseObject(change.change(), DocChange.class);
+                if (docChange.ids() != null) {
+                    ids.addAll(docChange.ids());
+                } else {
+                    paths.computeIfAbsent(docChange.systemId(), key -> new LinkedHashSet<>()).addAll(docChange.paths());
+                }
+            }
+            for (List<Long> chunk : chunks(ids)) {
+                apply(name, loaded.index, new DocChange(chunk, null, null));
+            }
+            for (Map.Entry<Long, Set<String>> entry : paths.entrySet()) {
+                for (List<String> chunk : chunks(entry.getValue())) {
+                    apply(name, loaded.index, new DocChange(null, entry.getKey(), chunk));
+                }
+            }
+            loaded.version = changes.get(changes.size() - 1).version();
+        } catch (Exception e) {
+            log.warn("重放全文索引变更失败: {}，下次查询时重试，错误: {}", name, e.getMessage());
+        } finally {
+            loaded.lock.unlock();
+        }
+    }
+
+    /**
+     * 应用一条变更：按ID或路径从数据库重新读取文档，按ID读取时已删除的移出索引
+     * 总是以数据库的当前状态为准，多个写入方的变更顺序与提交顺序不一致时结果也相同
+     */
+    private void apply(String name, FullTextIndex index, DocChange change) {
+        if (INDEX_PAYLOAD_TEMPLATE.equals(name)) {
+            Set<Long> missing = new HashSet<>(change.ids());
+            for (PayloadTemplate template : payloadTemplateMapper.selectList(templateQuery().in("id", change.ids()))) {
+                putTemplate(index, template);
+                missing.remove(template.getId());
+            }
+            missing.forEach(index::remove);
+        } else if (change.ids() != null) {
+            Set<Long> missing = new HashSet<>(change.ids());
+            for (TopicSearchDocRow row : topicMapper.selectSearchDocumentsByIds(change.ids())) {
+                putTopic(index, row);
+                missing.remove(row.getId());
+            }
+            missing.forEach(index::remove);
+        } else {
+            for (TopicSearchDocRow row : topicMapper.selectSearchDocumentsByPaths(change.systemId(), change.paths())) {
+                putTopic(index, row);
+            }
+        }
+    }
+
+    private static <T> List<List<T>> chunks(Collection<T> items) {
+        List<T> list = new ArrayList<>(items);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += REPLAY_CHUNK_SIZE) {
+            chunks.add(list.subList(from, Math.min(from + REPLAY_CHUNK_SIZE, list.size())));
+        }
+        return chunks;
+    }
+
+    private static void putTopic(FullTextIndex index, TopicSearchDocRow row) {
+        index.put(row.getId(),
+                new FullTextIndex.Field(row.getName(), NAME_WEIGHT),
+                new FullTextIndex.Field(row.getPath(), PATH_WEIGHT),
+                new FullTextIndex.Field(row.getPayloadDoc(), DOC_WEIGHT));
+    }
+
+    private static void putTemplate(FullTextIndex index, PayloadTemplate template) {
+        index.put(template.getId(),
+                new FullTextIndex.Field(template.getName(), NAME_WEIGHT),
+                new FullTextIndex.Field(template.getDescription(), DESCRIPTION_WEIGHT),
+                new FullTextIndex.Field(template.getContent(), DOC_WEIGHT));
+    }
+
+    private static QueryWrapper<PayloadTemplate> templateQuery() {
+        return new QueryWrapper<PayloadTemplate>().select("id", "name", "description", "content");
+    }
+
+    private static List<Long> toIds(List<FullTextIndex.Hit> hits) {
+        List<Long> ids = new ArrayList<>(hits.size());
+        for (FullTextIndex.Hit hit : hits) {
+            ids.add(hit.docId());
+        }
+        return ids;
+    }
+
+    /**
+     * 已加载的索引及其对应的版本号
+     */
+    private static final class LoadedIndex {
+
+        private final FullTextIndex index;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long version;
+
+        private LoadedIndex(FullTextIndex index, long version) {
+            this.index = index;
+            this.version = version;
+        }
+    }
+
+    /**
+     * 一条索引变更，按ID或按系统和路径标识变更的文档
+     *
+     * @param ids      文档ID
+     * @param systemId 按路径标识时的系统ID
+     * @param paths    按路径标识时的Topic路径
+     */
+    private record DocChange(List<Long> ids, Long systemId, List<String> paths) {
+    }
+}
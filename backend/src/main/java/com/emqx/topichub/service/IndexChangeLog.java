@@ -0,0 +1,190 @@
+package com.emqx.topichub.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 内存索引的变更日志
+ * 每个索引在Redis中有一个版本号（{name}:version）和一个按版本号排序的变更日志（{name}:log），
+ * 写入方提交后追加变更并取得新版本号，各实例查询前从本地版本号起按顺序重放缺少的变更，
+ * 多个写入方交错提交时不再丢弃本地索引。日志只保留最近的若干条，
+ * 本地版本号早于日志中最早的变更时无法补齐，此时在后台线程重新加载，请求线程继续使用本地索引
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndexChangeLog {
+
+    /**
+     * 每个索引保留的变更条数
+     */
+    private static final int MAX_LOG_ENTRIES = 1000;
+
+    /**
+     * 递增版本号并以新版本号为分数追加变更，超出保留条数的旧变更被删除，返回新版本号
+     */
+    private static final RedisScript<Long> APPEND_SCRIPT = new DefaultRedisScript<>(
+            "local version = redis.call('incr', KEYS[1]) "
+                    + "redis.call('zadd', KEYS[2], version, version .. ':' .. ARGV[1]) "
+                    + "redis.call('zremrangebyrank', KEYS[2], 0, -(tonumber(ARGV[2]) + 1)) "
+                    + "return version", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 正在后台重新加载的索引名
+     */
+    private final Set<String> reloading = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolTaskExecutor reloadExecutor;
+
+    @PostConstruct
+    public void init() {
+        reloadExecutor = new ThreadPoolTaskExecutor();
+        reloadExecutor.setCorePoolSize(1);
+        reloadExecutor.setMaxPoolSize(1);
+        reloadExecutor.setAllowCoreThreadTimeOut(true);
+        reloadExecutor.setThreadNamePrefix("index-reload-");
+        reloadExecutor.initialize();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        reloadExecutor.shutdown();
+    }
+
+    /**
+     * 追加一条变更
+     *
+     * @param name   索引名
+     * @param change 变更内容，由各索引自行编码
+     * @return 变更的版本号，Redis不可用时返回null
+     */
+    public Long append(String name, String change) {
+        try {
+            return stringRedisTemplate.execute(APPEND_SCRIPT, List.of(versionKey(name), logKey(name)),
+                    change, String.valueOf(MAX_LOG_ENTRIES));
+        } catch (Exception e) {
+            log.warn("追加索引变更失败: {}，错误: {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 读取索引的当前版本号
+     *
+     * @param name 索引名
+     * @return 版本号，尚无变更时为0，Redis不可用时返回null
+     */
+    public Long readVersion(String name) {
+        try {
+            String value = stringRedisTemplate.opsForValue().get(versionKey(name));
+            return value != null ? Long.valueOf(value) : 0L;
+        } catch (Exception e) {
+            log.warn("读取索引版本失败: {}，错误: {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 读取某一版本之后到目标版本为止的变更，按版本号从小到大排列
+     *
+     * @param name        索引名
+     * @param fromVersion 本地已应用的版本号，不含
+     * @param toVersion   目标版本号，含
+     * @return 连续的变更，日志已不包含fromVersion的下一条（无法补齐）或Redis不可用时返回null
+     */
+    public List<Change> readSince(String name, long fromVersion, long toVersion) {
+        Set<String> members;
+        try {
+            members = stringRedisTemplate.opsForZSet().rangeByScore(logKey(name), fromVersion + 1, toVersion);
+        } catch (Exception e) {
+            log.warn("读取索引变更失败: {}，错误: {}", name, e.getMessage());
+            return null;
+        }
+        List<Change> changes = new ArrayList<>();
+        long expected = fromVersion + 1;
+        for (String member : members != null ? members : Set.<String>of()) {
+            int separator = member.indexOf(':');
+            long version = Long.parseLong(member.substring(0, separator));
+            if (version != expected) {
+                return null;
+            }
+            changes.add(new Change(version, member.substring(separator + 1)));
+            expected++;
+        }
+        return expected == toVersion + 1 ? changes : null;
+    }
+
+    /**
+     * 删除索引的版本号和变更日志，如系统被删除时
+     *
+     * @param name 索引名
+     */
+    public void clear(String name) {
+        try {
+            stringRedisTemplate.delete(List.of(versionKey(name), logKey(name)));
+        } catch (Exception e) {
+            log.warn("删除索引变更日志失败: {}，错误: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * 在后台线程执行重新加载，同一索引已在重新加载时忽略
+     *
+     * @param name   索引名
+     * @param reload 重新加载并替换本地索引的操作
+     */
+    public void reloadInBackground(String name, Runnable reload) {
+        if (!reloading.add(name)) {
+            return;
+        }
+        try {
+            reloadExecutor.execute(() -> {
+                try {
+                    reload.run();
+                } catch (Exception e) {
+                    log.warn("后台重新加载索引失败: {}，错误: {}", name, e.getMessage());
+                } finally {
+                    reloading.remove(name);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            reloading.remove(name);
+            log.warn("后台重新加载索引未能分派: {}，错误: {}", name, e.getMessage());
+        }
+    }
+
+    private static String versionKey(String name) {
+        return name + ":version";
+    }
+
+    private static String logKey(String name) {
+        return name + ":log";
+    }
+
+    /**
+     * 一条变更
+     *
+     * @param version 版本号
+     * @param change  变更内容
+     */
+    public record Change(long version, String change) {
+    }
+}
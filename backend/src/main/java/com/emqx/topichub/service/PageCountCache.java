@@ -0,0 +1,115 @@
+package com.emqx.topichub.service;
+
+import com.alibaba.fastjson2.JSON;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * 分页总数缓存
+ * 按表和规范化后的筛选条件缓存COUNT结果，键中包含表的版本号（见 {@link TableVersions}）：
+ * page:count:{table}:{version}:{筛选条件摘要}。表有写入时版本号递增，旧版本的缓存不再命中并随TTL过期
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PageCountCache {
+
+    /**
+     * 总数模式：精确统计
+     */
+    public static final String COUNT_MODE_EXACT = "exact";
+
+    /**
+     * 总数模式：不统计，总数返回-1
+     */
+    public static final String COUNT_MODE_NONE = "none";
+
+    /**
+     * 总数模式：使用缓存的统计结果，可能滞后于最新写入最多一个TTL
+     */
+    public static final String COUNT_MODE_CACHED = "cached";
+
+    /**
+     * 不统计总数时返回的总数
+     */
+    public static final long UNKNOWN_TOTAL = -1L;
+
+    private static final String COUNT_KEY_PREFIX = "page:count:";
+    private static final Duration CACHE_TTL = Duration.ofSeconds(60);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final TableVersions tableVersions;
+
+    /**
+     * 按总数模式获取总数
+     *
+     * @param countMode 总数模式（exact/none/cached），为空或无法识别时按exact处理
+     * @param table     主表名
+     * @param filter    筛选条件，空值会被忽略，键按字母序排列后计算摘要
+     * @param counter   执行COUNT查询
+     * @return 总数，none模式返回-1
+     */
+    public long count(String countMode, String table, Map<String, Object> filter, Supplier<Long> counter) {
+        if (COUNT_MODE_NONE.equalsIgnoreCase(countMode)) {
+            return UNKNOWN_TOTAL;
+        }
+        if (!COUNT_MODE_CACHED.equalsIgnoreCase(countMode)) {
+            return counter.get();
+        }
+
+        String version = tableVersions.get(table);
+        if (version == null) {
+            return counter.get();
+        }
+        String key = COUNT_KEY_PREFIX + table + ":" + version + ":" + signature(filter);
+        try {
+            String cached = stringRedisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                return Long.parseLong(cached);
+            }
+        } catch (Exception e) {
+            log.warn("读取分页总数缓存失败，表: {}，错误: {}", table, e.getMessage());
+            return counter.get();
+        }
+
+        long total = counter.get();
+        try {
+            stringRedisTemplate.opsForValue().set(key, String.valueOf(total), CACHE_TTL);
+        } catch (Exception e) {
+            log.warn("写入分页总数缓存失败，表: {}，错误: {}", table, e.getMessage());
+        }
+        return total;
+    }
+
+    /**
+     * 是否需要由分页插件精确统计总数
+     *
+     * @param countMode 总数模式
+     * @return exact模式返回true
+     */
+    public static boolean isExact(String countMode) {
+        return !COUNT_MODE_NONE.equalsIgnoreCase(countMode) && !COUNT_MODE_CACHED.equalsIgnoreCase(countMode);
+    }
+
+    private String signature(Map<String, Object> filter) {
+        Map<String, Object> normalized = new TreeMap<>();
+        filter.forEach((name, value) -> {
+            if (value != null && !"".equals(value)) {
+                normalized.put(name, value);
+            }
+        });
+        return DigestUtils.md5DigestAsHex(JSON.toJSONString(normalized).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -4,6 +4,9 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.emqx.topichub.common.KeysetPaging;
+import com.emqx.topichub.common.RankedPaging;
+import com.emqx.topichub.dto.CursorPage;
 import com.emqx.topichub.dto.PayloadTemplateCreateRequest;
 import com.emqx.topichub.dto.PayloadTemplateDTO;
 import com.emqx.topichub.dto.PayloadTemplateSearchRequest;
@@ -34,57 +37,56 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class PayloadTemplateService extends ServiceImpl<PayloadTemplateMapper, PayloadTemplate> {
 
+    /**
+     * 游标分页允许的排序字段
+     */
+    private static final KeysetPaging<PayloadTemplate> KEYSET_PAGING = new KeysetPaging<>(PayloadTemplate::getId,
+            "createdAt",
+            new KeysetPaging.SortColumn<>("createdAt", "created_at", PayloadTemplate::getCreatedAt, LocalDateTime::parse),
+            new KeysetPaging.SortColumn<>("updatedAt", "updated_at", PayloadTemplate::getUpdatedAt, LocalDateTime::parse),
+            new KeysetPaging.SortColumn<>("name", "name", PayloadTemplate::getName, value -> value),
+            new KeysetPaging.SortColumn<>("usageCount", "usage_count", PayloadTemplate::getUsageCount, Integer::valueOf));
+
+    /**
+     * 按相关度排序的排序字段取值，仅在有关键字时生效
+     */
+    private static final String SORT_BY_RELEVANCE = "relevance";
+
     private final GroupService groupService;
+    private final PageCountCache pageCountCache;
+    private final FullTextSearchService fullTextSearchService;
 
     /**
      * 分页搜索模板
      */
     public IPage<PayloadTemplateDTO> searchTemplates(PayloadTemplateSearchRequest request) {
-        // 构建查询条件
-        QueryWrapper<PayloadTemplate> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("deleted", 0);
-
-        // 关键词搜索
         if (StringUtils.hasText(request.getKeyword())) {
-            queryWrapper.and(wrapper -> wrapper
-                    .like("name", request.getKeyword())
-                    .or()
-                    .like("description", request.getKeyword())
-                    .or()
-                    .like("payload", request.getKeyword())
-            );
-        }
-
-        // 业务分组过滤
-        if (request.getGroupId() != null) {
-            queryWrapper.eq("group_id", request.getGroupId());
-        }
-
-        // 模板类型过滤
-        if (StringUtils.hasText(request.getType())) {
-            queryWrapper.eq("type", request.getType());
+            return searchTemplatesByKeyword(request);
         }
 
-        // 收藏过滤
-        if (request.getOnlyFavorites() != null && request.getOnlyFavorites()) {
-            queryWrapper.eq("is_favorite", true);
-        }
+        // 构建查询条件
+        QueryWrapper<PayloadTemplate> queryWrapper = buildSearchWrapper(request);
 
         // 排序
         String sortBy = request.getSortBy();
-        if (StringUtils.hasText(request.getSortBy())) {
-            //驼峰转下划线
-            sortBy = sortBy.replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase();
-            queryWrapper.orderByAsc(sortBy);
+        if (SORT_BY_RELEVANCE.equals(sortBy)) {
+            // 没有关键字时相关度排序按更新时间倒序
+            queryWrapper.orderByDesc("updated_at");
         } else {
-            sortBy = "updated_at";
-        }
-        String sortOrder = StringUtils.hasText(request.getSortOrder()) ? request.getSortOrder() : "desc";
-        String asc = "asc";
-        if (asc.equalsIgnoreCase(sortOrder)) {
-            queryWrapper.orderByAsc(sortBy);
-        } else {
-            queryWrapper.orderByDesc(sortBy);
+            if (StringUtils.hasText(request.getSortBy())) {
+                //驼峰转下划线
+                sortBy = sortBy.replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase();
+                queryWrapper.orderByAsc(sortBy);
+            } else {
+                sortBy = "updated_at";
+            }
+            String sortOrder = StringUtils.hasText(request.getSortOrder()) ? request.getSortOrder() : "desc";
+            String asc = "asc";
+            if (asc.equalsIgnoreCase(sortOrder)) {
+                queryWrapper.orderByAsc(sortBy);
+            } else {
+                queryWrapper.orderByDesc(sortBy);
+            }
         }
 
         // 分页查询 - 优先使用page字段，兼容current字段
@@ -92,7 +94,12 @@ public class PayloadTemplateService extends ServiceImpl<PayloadTemplateMapper, P
                 (request.getCurrent() != null ? request.getCurrent() : 1);
         Page<PayloadTemplate> page = new Page<>(pageNum,
                 request.getSize() != null ? request.getSize() : 10);
+        page.setSearchCount(PageCountCache.isExact(request.getCountMode()));
         IPage<PayloadTemplate> templatePage = this.page(page, queryWrapper);
+        if (!page.searchCount()) {
+            templatePage.setTotal(pageCountCache.count(request.getCountMode(), TableVersions.TABLE_PAYLOAD_TEMPLATE,
+                    searchSignature(request), () -> this.count(buildSearchWrapper(request))));
+        }
 
         // 转换为DTO
         IPage<PayloadTemplateDTO> dtoPage = new Page<>();
@@ -105,6 +112,101 @@ public class PayloadTemplateService extends ServiceImpl<PayloadTemplateMapper, P
         return dtoPage;
     }
 
+    /**
+     * 按关键字分页搜索
+     * 全文索引给出全部命中的ID，其他筛选条件按批以主键过滤，按相关度或排序列在内存中排序分页，
+     * 只按本页的ID读取完整记录，总数为满足所有条件的命中数
+     */
+    private IPage<PayloadTemplateDTO> searchTemplatesByKeyword(PayloadTemplateSearchRequest request) {
+        List<Long> rankedIds = fullTextSearchService.searchTemplates(request.getKeyword());
+        List<Long> matchedIds;
+        String sortBy = request.getSortBy();
+        if (!StringUtils.hasText(sortBy) || SORT_BY_RELEVANCE.equals(sortBy)) {
+            matchedIds = RankedPaging.filter(rankedIds, chunk -> this.listObjs(
+                    buildSearchWrapper(request).select("id").in("id", chunk), id -> ((Number) id).longValue()));
+        } else {
+            String column = KEYSET_PAGING.column(sortBy);
+            List<PayloadTemplate> rows = new ArrayList<>();
+            for (List<Long> chunk : RankedPaging.chunks(rankedIds)) {
+                rows.addAll(this.list(buildSearchWrapper(request).select("id", column).in("id", chunk)));
+            }
+            String sortOrder = StringUtils.hasText(request.getSortOrder()) ? request.getSortOrder() : "desc";
+            rows.sort(KEYSET_PAGING.comparator(sortBy, sortOrder));
+            matchedIds = rows.stream().map(PayloadTemplate::getId).toList();
+        }
+
+        // 分页 - 优先使用page字段，兼容current字段
+        int pageNum = request.getPage() != null ? request.getPage() :
+                (request.getCurrent() != null ? request.getCurrent() : 1);
+        int size = request.getSize() != null ? request.getSize() : 10;
+        List<Long> pageIds = RankedPaging.page(matchedIds, pageNum, size);
+        List<PayloadTemplate> records = pageIds.isEmpty() ? List.of()
+                : RankedPaging.inOrder(pageIds, this.listByIds(pageIds), PayloadTemplate::getId);
+        IPage<PayloadTemplateDTO> dtoPage = new Page<>(pageNum, size, matchedIds.size());
+        dtoPage.setRecords(records.stream().map(this::convertToDTO).collect(Collectors.toList()));
+        return dtoPage;
+    }
+
+    /**
+     * 游标分页搜索模板
+     * 筛选条件与分页搜索相同，不统计总数，深度翻页的代价与第一页相同
+     */
+    public CursorPage<PayloadTemplateDTO> searchTemplatesByCursor(PayloadTemplateSearchRequest request) {
+        String sortOrder = StringUtils.hasText(request.getSortOrder()) ? request.getSortOrder() : "desc";
+        CursorPage<PayloadTemplate> templatePage;
+        if (StringUtils.hasText(request.getKeyword())) {
+            // 关键字命中的ID按批查询后合并，每条SQL最多携带一批ID
+            templatePage = KEYSET_PAGING.page(fullTextSearchService.searchTemplates(request.getKeyword()),
+                    chunk -> buildSearchWrapper(request).in("id", chunk), request.getSortBy(), sortOrder,
+                    request.getCursor(), request.getSize(), this::list);
+        } else {
+            templatePage = KEYSET_PAGING.page(buildSearchWrapper(request),
+                    request.getSortBy(), sortOrder, request.getCursor(), request.getSize(), this::list);
+        }
+        List<PayloadTemplateDTO> dtoList = templatePage.getRecords().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        return new CursorPage<>(dtoList, templatePage.getNextCursor(), templatePage.isHasMore());
+    }
+
+    /**
+     * 规范化的筛选条件，作为总数缓存的键，不含分页和排序参数
+     */
+    private Map<String, Object> searchSignature(PayloadTemplateSearchRequest request) {
+        Map<String, Object> filter = new HashMap<>();
+        filter.put("keyword", StringUtils.hasText(request.getKeyword()) ? request.getKeyword().trim() : null);
+        filter.put("groupId", request.getGroupId());
+        filter.put("type", StringUtils.hasText(request.getType()) ? request.getType() : null);
+        filter.put("onlyFavorites", Boolean.TRUE.equals(request.getOnlyFavorites()) ? true : null);
+        return filter;
+    }
+
+    /**
+     * 根据搜索请求构建查询条件（不含关键词和排序）
+     * 关键词（名称、描述及模板内容）在全文索引中匹配，由调用方按批限定ID范围
+     */
+    private QueryWrapper<PayloadTemplate> buildSearchWrapper(PayloadTemplateSearchRequest request) {
+        QueryWrapper<PayloadTemplate> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("deleted", 0);
+
+        // 业务分组过滤
+        if (request.getGroupId() != null) {
+            queryWrapper.eq("group_id", request.getGroupId());
+        }
+
+        // 模板类型过滤
+        if (StringUtils.hasText(request.getType())) {
+            queryWrapper.eq("type", request.getType());
+        }
+
+        // 收藏过滤
+        if (request.getOnlyFavorites() != null && request.getOnlyFavorites()) {
+            queryWrapper.eq("is_favorite", true);
+        }
+
+        return queryWrapper;
+    }
+
     /**
      * 根据ID获取模板DTO
      */
@@ -141,6 +243,7 @@ public class PayloadTemplateService extends ServiceImpl<PayloadTemplateMapper, P
         template.setContent(request.getPayload());
 
         if (this.save(template)) {
+            fullTextSearchService.onTemplatesChanged(List.of(template.getId()));
             return convertToDTO(template);
         } else {
             throw new RuntimeException("创建模板失败");
@@ -172,6 +275,7 @@ public class PayloadTemplateService extends ServiceImpl<PayloadTemplateMapper, P
         existingTemplate.setUpdatedAt(LocalDateTime.now());
 
         if (this.updateById(existingTemplate)) {
+            fullTextSearchService.onTemplatesChanged(List.of(id));
             return convertToDTO(existingTemplate);
         } else {
             throw new RuntimeException("更新模板失败");
@@ -195,6 +299,7 @@ public class PayloadTemplateService extends ServiceImpl<PayloadTemplateMapper, P
         if (!this.updateById(template)) {
             throw new RuntimeException("删除模板失败");
         }
+        fullTextSearchService.onTemplatesChanged(List.of(id));
     }
 
     /**
@@ -255,6 +360,7 @@ public class PayloadTemplateService extends ServiceImpl<PayloadTemplateMapper, P
         }
 
         if (this.save(copyTemplate)) {
+            fullTextSearchService.onTemplatesChanged(List.of(copyTemplate.getId()));
             return convertToDTO(copyTemplate);
         } else {
             throw new RuntimeException("复制模板失败");
@@ -378,6 +484,7 @@ public class PayloadTemplateService extends ServiceImpl<PayloadTemplateMapper, P
         if (!this.updateBatchById(templates)) {
             throw new RuntimeException("批量删除模板失败");
         }
+        fullTextSearchService.onTemplatesChanged(templates.stream().map(PayloadTemplate::getId).toList());
     }
 
     // ========== 私有辅助方法 ==========
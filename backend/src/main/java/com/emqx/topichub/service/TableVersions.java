@@ -0,0 +1,99 @@
+package com.emqx.topichub.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 表版本号
+ * 每张表在Redis中维护一个变更计数（table:version:{table}），由表变更拦截器在写操作提交后递增，
+ * 分页总数缓存和读接口的ETag都以此判断表的数据是否变化。
+ * 计数不存在时以当前时间毫秒数初始化，Redis数据丢失后重新建立的计数不会回到之前发出过的版本号
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TableVersions {
+
+    public static final String TABLE_TOPIC = "topic";
+    public static final String TABLE_PAYLOAD_TEMPLATE = "payload_template";
+    public static final String TABLE_TAG = "tag";
+    public static final String TABLE_GROUP = "topic_group";
+
+    private static final String VERSION_KEY_PREFIX = "table:version:";
+
+    /**
+     * 计数不存在时先以ARGV[1]初始化，再递增并返回
+     */
+    private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[1]) == 0 then "
+                    + "redis.call('set', KEYS[1], ARGV[1]) "
+                    + "end "
+                    + "return redis.call('incr', KEYS[1])", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 读取表的当前版本号，计数不存在时初始化
+     *
+     * @param table 表名
+     * @return 版本号，Redis不可用时返回null
+     */
+    public String get(String table) {
+        String key = VERSION_KEY_PREFIX + table;
+        try {
+            String version = stringRedisTemplate.opsForValue().get(key);
+            if (version != null) {
+                return version;
+            }
+            stringRedisTemplate.opsForValue().setIfAbsent(key, String.valueOf(System.currentTimeMillis()));
+            return stringRedisTemplate.opsForValue().get(key);
+        } catch (Exception e) {
+            log.warn("读取表版本号失败，表: {}，错误: {}", table, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 表有写入，递增版本号
+     *
+     * @param table 表名
+     */
+    public void increment(String table) {
+        try {
+            stringRedisTemplate.execute(INCREMENT_SCRIPT, List.of(VERSION_KEY_PREFIX + table),
+                    String.valueOf(System.currentTimeMillis()));
+        } catch (Exception e) {
+            log.warn("递增表版本号失败，表: {}，错误: {}", table, e.getMessage());
+        }
+    }
+
+    /**
+     * 由一张或多张表的版本号组成的ETag
+     *
+     * @param tables 响应内容依赖的表
+     * @return ETag，任一版本号读取失败时返回null，即不做条件请求处理
+     */
+    public String etag(String... tables) {
+        StringBuilder etag = new StringBuilder();
+        for (String table : tables) {
+            String version = get(table);
+            if (version == null) {
+                return null;
+            }
+            if (etag.length() > 0) {
+                etag.append('-');
+            }
+            etag.append(table).append('.').append(version);
+        }
+        return etag.toString();
+    }
+}
@@ -0,0 +1,103 @@
+package com.emqx.topichub.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.emqx.topichub.config.EmqxProperties;
+import com.emqx.topichub.entity.EmqxSystem;
+import com.emqx.topichub.mapper.EmqxSystemMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Topic自动同步调度器
+ * 每个在线系统按带抖动的间隔提交同步任务，到期最久的系统优先提交；
+ * 任务在同步任务线程池上并行执行，每个系统同时最多一个任务。
+ * 其他实例刚同步过的系统（Redis中的最近同步时间未超过间隔）顺延，不重复访问EMQX
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TopicAutoSyncScheduler {
+
+    private static final String STATUS_ONLINE = "online";
+
+    private final EmqxSystemMapper emqxSystemMapper;
+    private final TopicSyncJobService topicSyncJobService;
+    private final TopicSyncLeaseManager topicSyncLeaseManager;
+    private final EmqxProperties emqxProperties;
+
+    /**
+     * 系统ID -> 下次自动同步的时间戳（毫秒）
+     */
+    private final Map<Long, Long> nextRunAt = new ConcurrentHashMap<>();
+
+    /**
+     * 定时检查并提交到期系统的同步任务
+     */
+    @Scheduled(fixedDelayString = "#{@emqxProperties.autoSync.checkInterval.toMillis()}")
+    public void syncDueSystems() {
+        EmqxProperties.AutoSync config = emqxProperties.getAutoSync();
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        List<EmqxSystem> onlineSystems = emqxSystemMapper.selectList(
+                new LambdaQueryWrapper<EmqxSystem>().eq(EmqxSystem::getStatus, STATUS_ONLINE));
+        Set<Long> onlineIds = onlineSystems.stream().map(EmqxSystem::getId).collect(Collectors.toSet());
+        nextRunAt.keySet().retainAll(onlineIds);
+
+        long now = System.currentTimeMillis();
+        long intervalMillis = config.getInterval().toMillis();
+        List<EmqxSystem> dueSystems = new ArrayList<>();
+        for (EmqxSystem system : onlineSystems) {
+            // 新上线的系统在一个间隔内随机分布首次同步时间
+            long due = nextRunAt.computeIfAbsent(system.getId(),
+                    id -> now + ThreadLocalRandom.current().nextLong(intervalMillis + 1));
+            if (due <= now && !topicSyncJobService.isActive(system.getId())) {
+                dueSystems.add(system);
+            }
+        }
+        dueSystems.sort(Comparator.comparingLong(system -> nextRunAt.get(system.getId())));
+
+        int submitted = 0;
+        for (EmqxSystem system : dueSystems) {
+            Long lastSync = topicSyncLeaseManager.getLastSyncCompleted(system.getId());
+            if (lastSync != null && now - lastSync < intervalMillis * (1 - config.getJitter())) {
+                nextRunAt.put(system.getId(), lastSync + jitteredInterval(config));
+                continue;
+            }
+            nextRunAt.put(system.getId(), now + jitteredInterval(config));
+            try {
+                topicSyncJobService.submit(system);
+                submitted++;
+            } catch (RuntimeException e) {
+                log.warn("提交系统 {} 的自动同步任务失败: {}", system.getName(), e.getMessage());
+            }
+        }
+
+        if (submitted > 0) {
+            log.info("自动同步提交 {} 个系统的同步任务，在线系统 {} 个", submitted, onlineSystems.size());
+        }
+    }
+
+    /**
+     * 同步间隔叠加 ±jitter 的随机抖动
+     */
+    private long jitteredInterval(EmqxProperties.AutoSync config) {
+        double jitter = 1 + (ThreadLocalRandom.current().nextDouble() * 2 - 1) * config.getJitter();
+        return (long) (config.getInterval().toMillis() * jitter);
+    }
+}
@@ -0,0 +1,116 @@
+package com.emqx.topichub.service;
+
+import com.emqx.topichub.dto.TagDTO;
+import com.emqx.topichub.dto.TopicDTO;
+import com.emqx.topichub.dto.TopicTagRow;
+import com.emqx.topichub.entity.Group;
+import com.emqx.topichub.entity.Topic;
+import com.emqx.topichub.mapper.TopicTagMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TopicDTO批量组装器
+ * 一页Topic的分组和标签各用一条查询加载，再在内存中拼装DTO，
+ * 查询次数与页大小无关
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class TopicDtoAssembler {
+
+    private final GroupService groupService;
+    private final TopicTagMapper topicTagMapper;
+
+    /**
+     * 转换单个Topic
+     *
+     * @param topic Topic实体
+     * @return TopicDTO
+     */
+    public TopicDTO toDTO(Topic topic) {
+        return toDTOs(List.of(topic)).get(0);
+    }
+
+    /**
+     * 批量转换Topic，保持输入顺序
+     *
+     * @param topics Topic实体列表
+     * @return TopicDTO列表
+     */
+    public List<TopicDTO> toDTOs(List<Topic> topics) {
+        if (topics.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Long> topicIds = new HashSet<>();
+        Set<Long> groupIds = new HashSet<>();
+        for (Topic topic : topics) {
+            topicIds.add(topic.getId());
+            if (topic.getGroupId() != null) {
+                groupIds.add(topic.getGroupId());
+            }
+        }
+
+        // 1. 分组名称（逻辑删除的分组不会被查出）
+        Map<Long, String> groupNames = new HashMap<>();
+        if (!groupIds.isEmpty()) {
+            for (Group group : groupService.listByIds(groupIds)) {
+                groupNames.put(group.getId(), group.getName());
+            }
+        }
+
+        // 2. 标签
+        Map<Long, List<TagDTO>> tagsByTopic = loadTags(topicIds);
+
+        // 3. 拼装
+        List<TopicDTO> result = new ArrayList<>(topics.size());
+        for (Topic topic : topics) {
+            TopicDTO dto = new TopicDTO();
+            BeanUtils.copyProperties(topic, dto);
+            if (topic.getGroupId() != null) {
+                dto.setGroupName(groupNames.get(topic.getGroupId()));
+            }
+            dto.setTags(tagsByTopic.getOrDefault(topic.getId(), new ArrayList<>()));
+            dto.setStatus(topic.getDeleted() != null && topic.getDeleted() != 0 ? "disabled" : "enabled");
+            result.add(dto);
+        }
+        return result;
+    }
+
+    /**
+     * 查询单个Topic的标签
+     *
+     * @param topicId Topic ID
+     * @return 标签列表
+     */
+    public List<TagDTO> getTags(Long topicId) {
+        return loadTags(List.of(topicId)).getOrDefault(topicId, new ArrayList<>());
+    }
+
+    private Map<Long, List<TagDTO>> loadTags(Collection<Long> topicIds) {
+        Map<Long, List<TagDTO>> tagsByTopic = new HashMap<>();
+        for (TopicTagRow row : topicTagMapper.selectTagsByTopicIds(topicIds)) {
+            TagDTO tag = new TagDTO();
+            tag.setId(row.getTagId());
+            tag.setName(row.getName());
+            tag.setColor(row.getColor());
+            tag.setUsageCount(row.getUsageCount());
+            tag.setCreatedAt(row.getCreatedAt());
+            tag.setUpdatedAt(row.getUpdatedAt());
+            tagsByTopic.computeIfAbsent(row.getTopicId(), id -> new ArrayList<>()).add(tag);
+        }
+        return tagsByTopic;
+    }
+}
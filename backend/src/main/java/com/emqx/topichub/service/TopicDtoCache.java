@@ -0,0 +1,240 @@
+package com.emqx.topichub.service;
+
+import com.alibaba.fastjson2.JSON;
+import com.emqx.topichub.common.TransactionHooks;
+import com.emqx.topichub.dto.TagDTO;
+import com.emqx.topichub.dto.TopicDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Topic详情缓存
+ * 按Topic ID缓存组装好的TopicDTO（topic:dto:{id}），条目中记录组装时Topic、所属分组和各标签的版本号
+ * （topic:dto:version:{topic|group|tag}:{id}）。读取时比对版本号，任一不一致即视为未命中并重新加载；
+ * Topic、分组或标签变更提交后递增对应的版本号，只有依赖它的条目失效。
+ * 标签使用次数的变化不递增版本号，缓存中的使用次数最多滞后一个TTL。
+ * 条目的版本号同时用作详情接口的ETag，命中缓存时无需组装即可判断客户端缓存是否有效
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TopicDtoCache {
+
+    private static final String ENTRY_KEY_PREFIX = "topic:dto:";
+    private static final String VERSION_KEY_PREFIX = "topic:dto:version:";
+    private static final String SCOPE_TOPIC = "topic:";
+    private static final String SCOPE_GROUP = "group:";
+    private static final String SCOPE_TAG = "tag:";
+    private static final String ZERO_VERSION = "0";
+
+    private static final Duration ENTRY_TTL = Duration.ofMinutes(10);
+
+    /**
+     * 版本号的有效期，每次递增时刷新。必须长于条目的有效期，
+     * 否则版本号过期后读到的0可能与递增前写入的条目一致，使其重新生效
+     */
+    private static final Duration VERSION_TTL = ENTRY_TTL.multipliedBy(3);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 读取Topic详情，未命中或已失效时加载并写入缓存
+     * Redis不可用时直接加载；加载抛出的异常不缓存，原样抛出
+     *
+     * @param topicId Topic ID
+     * @param loader  从数据库加载Topic详情
+     * @return Topic详情
+     */
+    public TopicDTO get(Long topicId, Function<Long, TopicDTO> loader) {
+        return getVersioned(topicId, loader).topic();
+    }
+
+    /**
+     * 读取Topic详情及其版本标识，未命中或已失效时加载并写入缓存
+     *
+     * @param topicId Topic ID
+     * @param loader  从数据库加载Topic详情
+     * @return Topic详情及版本标识，Redis不可用时版本标识为空
+     */
+    public VersionedTopic getVersioned(Long topicId, Function<Long, TopicDTO> loader) {
+        String entryKey = ENTRY_KEY_PREFIX + topicId;
+        String topicVersionKey = versionKey(SCOPE_TOPIC, topicId);
+        String topicVersion;
+        try {
+            String cached = stringRedisTemplate.opsForValue().get(entryKey);
+            if (cached != null) {
+                CachedTopic entry = JSON.parseObject(cached, CachedTopic.class);
+                if (isCurrent(entry.versions())) {
+                    return new VersionedTopic(entry.topic(), etag(entry));
+                }
+            }
+            // 先读Topic版本号再加载，加载期间提交的变更会使版本号前进，写入的条目随即失效
+            topicVersion = normalize(stringRedisTemplate.opsForValue().get(topicVersionKey));
+        } catch (Exception e) {
+            log.warn("读取Topic详情缓存失败，Topic ID: {}，错误: {}", topicId, e.getMessage());
+            return new VersionedTopic(loader.apply(topicId), null);
+        }
+
+        TopicDTO topic = loader.apply(topicId);
+        try {
+            // 分组和标签要加载后才能确定，其版本号在加载后读取
+            Map<String, String> versions = new LinkedHashMap<>();
+            versions.put(topicVersionKey, topicVersion);
+            List<String> dependencyKeys = dependencyKeys(topic);
+            if (!dependencyKeys.isEmpty()) {
+                List<String> values = stringRedisTemplate.opsForValue().multiGet(dependencyKeys);
+                for (int i = 0; i < dependencyKeys.size(); i++) {
+                    versions.put(dependencyKeys.get(i), normalize(values != null ? values.get(i) : null));
+                }
+            }
+            CachedTopic entry = new CachedTopic(topic, versions);
+            stringRedisTemplate.opsForValue().set(entryKey, JSON.toJSONString(entry), ENTRY_TTL);
+            return new VersionedTopic(topic, etag(entry));
+        } catch (Exception e) {
+            log.warn("写入Topic详情缓存失败，Topic ID: {}，错误: {}", topicId, e.getMessage());
+            return new VersionedTopic(topic, null);
+        }
+    }
+
+    /**
+     * Topic变更后使其缓存失效，在事务中时等提交后执行
+     *
+     * @param topicIds Topic ID
+     */
+    public void evictTopics(Collection<Long> topicIds) {
+        if (topicIds == null || topicIds.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(topicIds.size());
+        for (Long topicId : topicIds) {
+            keys.add(versionKey(SCOPE_TOPIC, topicId));
+        }
+        TransactionHooks.afterCommit(() -> incrementVersions(keys));
+    }
+
+    /**
+     * 分组改名或删除后使所属Topic的缓存失效
+     *
+     * @param groupId 分组ID
+     */
+    public void evictGroup(Long groupId) {
+        if (groupId == null) {
+            return;
+        }
+        List<String> keys = List.of(versionKey(SCOPE_GROUP, groupId));
+        TransactionHooks.afterCommit(() -> incrementVersions(keys));
+    }
+
+    /**
+     * 标签改名、改色或删除后使带有该标签的Topic的缓存失效
+     *
+     * @param tagId 标签ID
+     */
+    public void evictTag(Long tagId) {
+        if (tagId == null) {
+            return;
+        }
+        List<String> keys = List.of(versionKey(SCOPE_TAG, tagId));
+        TransactionHooks.afterCommit(() -> incrementVersions(keys));
+    }
+
+    private boolean isCurrent(Map<String, String> versions) {
+        if (versions == null || versions.isEmpty()) {
+            return false;
+        }
+        List<String> keys = new ArrayList<>(versions.keySet());
+        List<String> values = stringRedisTemplate.opsForValue().multiGet(keys);
+        if (values == null) {
+            return false;
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            if (!Objects.equals(versions.get(keys.get(i)), normalize(values.get(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 由依赖的版本号和Topic的更新时间、最后活动时间计算版本标识，
+     * 时间字段使Redis数据丢失后从0重新开始的版本号不会与之前发出的标识重复
+     */
+    private static String etag(CachedTopic entry) {
+        TopicDTO topic = entry.topic();
+        String source = entry.versions() + "|" + topic.getUpdatedAt() + "|" + topic.getLastActivity();
+        return DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> dependencyKeys(TopicDTO topic) {
+        List<String> keys = new ArrayList<>();
+        if (topic.getGroupId() != null) {
+            keys.add(versionKey(SCOPE_GROUP, topic.getGroupId()));
+        }
+        if (topic.getTags() != null) {
+            for (TagDTO tag : topic.getTags()) {
+                keys.add(versionKey(SCOPE_TAG, tag.getId()));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 在一次管道中递增版本号并刷新其有效期
+     */
+    private void incrementVersions(List<String> keys) {
+        long ttlSeconds = VERSION_TTL.toSeconds();
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                for (String key : keys) {
+                    redis.incr(key);
+                    redis.expire(key, ttlSeconds);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("递增Topic详情缓存版本失败，键数: {}，错误: {}", keys.size(), e.getMessage());
+        }
+    }
+
+    private static String versionKey(String scope, Long id) {
+        return VERSION_KEY_PREFIX + scope + id;
+    }
+
+    private static String normalize(String version) {
+        return version != null ? version : ZERO_VERSION;
+    }
+
+    /**
+     * Topic详情及其版本标识
+     *
+     * @param topic Topic详情
+     * @param etag  版本标识，无法确定时为空
+     */
+    public record VersionedTopic(TopicDTO topic, String etag) {
+    }
+
+    /**
+     * 缓存条目：Topic详情及组装时各依赖的版本号
+     */
+    private record CachedTopic(TopicDTO topic, Map<String, String> versions) {
+    }
+}
@@ -0,0 +1,322 @@
+package com.emqx.topichub.service;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONWriter;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.emqx.topichub.common.BusinessException;
+import com.emqx.topichub.dto.TopicExportRequest;
+import com.emqx.topichub.dto.TopicExportRow;
+import com.emqx.topichub.entity.Group;
+import com.emqx.topichub.entity.Tag;
+import com.emqx.topichub.mapper.GroupMapper;
+import com.emqx.topichub.mapper.TagMapper;
+import com.emqx.topichub.mapper.TopicMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Topic目录导出器
+ * 按主键顺序流式读取满足筛选条件的Topic，逐行写为NDJSON或CSV，内存占用与Topic总数无关。
+ * 业务和标签名称在导出开始时一次性加载到内存中对照，不按行查询。
+ * 导出的列与导入接受的列一致，导出的文件可直接导入到其他系统。
+ * 每个导出在整个下载期间占用一个数据库连接（流式结果集），同时进行的导出数量受限，超出时拒绝；
+ * 客户端读取缓慢时MySQL等待写出的时长受net_write_timeout限制，数据源连接参数中已将其调大。
+ * 响应头和输出流在读到第一行后才打开，读取前的失败仍可按普通错误响应返回。
+ * CSV中以 = + - @ 等开头的值前加单引号，避免在电子表格中被当作公式执行，导入时还原
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TopicExporter {
+
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_CSV = "csv";
+
+    /**
+     * CSV中多个标签名称之间的分隔符
+     */
+    public static final String CSV_TAG_SEPARATOR = "|";
+
+    /**
+     * 导出的列，NDJSON的字段名与之相同
+     */
+    public static final List<String> COLUMNS = List.of("id", "systemId", "path", "name", "groupName", "tags",
+            "payloadDoc", "syncState", "lastActivity", "createdAt", "updatedAt");
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * UTF-8 BOM，使Excel按UTF-8打开CSV
+     */
+    private static final char BOM = '\uFEFF';
+
+    /**
+     * 同时进行的导出数量上限，每个导出在下载期间占用一个数据库连接
+     */
+    private static final int MAX_CONCURRENT_EXPORTS = 4;
+
+    /**
+     * 电子表格会当作公式执行的起始字符
+     */
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    /**
+     * CSV中防止公式执行所加的前缀
+     */
+    private static final char FORMULA_ESCAPE = '\'';
+
+    private final Semaphore exportPermits = new Semaphore(MAX_CONCURRENT_EXPORTS);
+
+    private final TopicMapper topicMapper;
+    private final GroupMapper groupMapper;
+    private final TagMapper tagMapper;
+
+    /**
+     * 校验并规范化导出格式，在开始写入响应之前调用
+     *
+     * @param format 导出格式，为空时为ndjson
+     * @return 规范化的导出格式
+     */
+    public static String resolveFormat(String format) {
+        if (!StringUtils.hasText(format) || FORMAT_NDJSON.equalsIgnoreCase(format)) {
+            return FORMAT_NDJSON;
+        }
+        if (FORMAT_CSV.equalsIgnoreCase(format)) {
+            return FORMAT_CSV;
+        }
+        throw new BusinessException(400, "不支持的导出格式: " + format);
+    }
+
+    /**
+     * 将满足条件的Topic写入输出流
+     * 输出流在读到第一行（没有数据时在查询结束）后才打开，之前的失败不会写出任何内容；
+     * 导出结束后关闭输出流。写入过程中出错时已写出的内容无法撤回，异常原样抛出
+     *
+     * @param request 导出条件
+     * @param output  打开输出流，如设置响应头后取得响应的输出流
+     * @return 导出的Topic数量
+     * @throws IOException 写入失败，如客户端断开
+     * @throws BusinessException 同时进行的导出过多
+     */
+    public long export(TopicExportRequest request, ExportOutput output) throws IOException {
+        if (!exportPermits.tryAcquire()) {
+            throw new BusinessException(429, "同时进行的导出过多，请稍后重试");
+        }
+        try {
+            return doExport(request, output);
+        } finally {
+            exportPermits.release();
+        }
+    }
+
+    private long doExport(TopicExportRequest request, ExportOutput output) throws IOException {
+        String format = resolveFormat(request.getFormat());
+        List<Long> tagIds = request.getTagIds() == null ? List.of()
+                : request.getTagIds().stream().filter(Objects::nonNull).distinct().toList();
+        boolean matchAll = "all".equalsIgnoreCase(request.getTagMatch());
+        long startTime = System.currentTimeMillis();
+
+        Map<Long, String> groupNames = new HashMap<>();
+        groupMapper.selectList(new QueryWrapper<Group>().select("id", "name"))
+                .forEach(group -> groupNames.put(group.getId(), group.getName()));
+        Map<Long, String> tagNames = new HashMap<>();
+        tagMapper.selectList(new QueryWrapper<Tag>().select("id", "name"))
+                .forEach(tag -> tagNames.put(tag.getId(), tag.getName()));
+
+        boolean csv = FORMAT_CSV.equals(format);
+        Writer[] holder = {null};
+        long[] count = {0};
+        try {
+            topicMapper.scanExportRows(request.getSystemId(), request.getGroupId(), tagIds, matchAll, context -> {
+                TopicExportRow row = context.getResultObject();
+                List<String> tags = resolveTagNames(row.getTagIds(), tagNames);
+                try {
+                    if (holder[0] == null) {
+                        holder[0] = open(output, csv);
+                    }
+                    Writer writer = holder[0];
+                    if (csv) {
+                        writeCsvLine(writer, toCsvValues(row, groupNames.get(row.getGroupId()), tags));
+                    } else {
+                        writer.write(JSON.toJSONString(toDocument(row, groupNames.get(row.getGroupId()), tags),
+                                JSONWriter.Feature.WriteNulls));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    // 客户端断开等写入失败时停止读取，释放数据库连接
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            log.warn("导出Topic中断，已写出: {}，错误: {}", count[0], e.getCause().getMessage());
+            throw e.getCause();
+        }
+        Writer writer = holder[0] != null ? holder[0] : open(output, csv);
+        writer.close();
+
+        log.info("导出Topic完成，格式: {}，数量: {}，耗时: {}ms", format, count[0], System.currentTimeMillis() - startTime);
+        return count[0];
+    }
+
+    /**
+     * 打开输出流，CSV先写出BOM和表头
+     */
+    private static Writer open(ExportOutput output, boolean csv) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output.open(), StandardCharsets.UTF_8),
+                WRITE_BUFFER_SIZE);
+        if (csv) {
+            writer.write(BOM);
+            writeCsvLine(writer, COLUMNS);
+        }
+        return writer;
+    }
+
+    /**
+     * CSV值以公式起始字符开头时（含已转义过的值）前加单引号
+     *
+     * @param value 原始值
+     * @return 写入CSV的值
+     */
+    public static String escapeFormula(String value) {
+        return startsWithFormula(value) ? FORMULA_ESCAPE + value : value;
+    }
+
+    /**
+     * 还原escapeFormula转义过的CSV值
+     *
+     * @param value CSV中的值
+     * @return 原始值
+     */
+    public static String unescapeFormula(String value) {
+        return value != null && !value.isEmpty() && value.charAt(0) == FORMULA_ESCAPE
+                && startsWithFormula(value.substring(1)) ? value.substring(1) : value;
+    }
+
+    /**
+     * 去掉开头的单引号后以公式起始字符开头，使转义可逆
+     */
+    private static boolean startsWithFormula(String value) {
+        if (value == null) {
+            return false;
+        }
+        int i = 0;
+        while (i < value.length() && value.charAt(i) == FORMULA_ESCAPE) {
+            i++;
+        }
+        return i < value.length() && FORMULA_PREFIXES.indexOf(value.charAt(i)) >= 0;
+    }
+
+    private static List<String> resolveTagNames(String tagIds, Map<Long, String> tagNames) {
+        if (!StringUtils.hasText(tagIds)) {
+            return List.of();
+        }
+        List<String> names = new ArrayList<>();
+        for (String tagId : tagIds.split(",")) {
+            // 已删除的标签不在对照表中，跳过
+            String name = tagNames.get(Long.valueOf(tagId));
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    private static Map<String, Object> toDocument(TopicExportRow row, String groupName, List<String> tags) {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("id", row.getId());
+        document.put("systemId", row.getSystemId());
+        document.put("path", row.getPath());
+        document.put("name", row.getName());
+        document.put("groupName", groupName);
+        document.put("tags", tags);
+        document.put("payloadDoc", row.getPayloadDoc());
+        document.put("syncState", row.getSyncState());
+        document.put("lastActivity", formatTime(row.getLastActivity()));
+        document.put("createdAt", formatTime(row.getCreatedAt()));
+        document.put("updatedAt", formatTime(row.getUpdatedAt()));
+        return document;
+    }
+
+    private static List<String> toCsvValues(TopicExportRow row, String groupName, List<String> tags) {
+        List<String> values = new ArrayList<>(COLUMNS.size());
+        values.add(String.valueOf(row.getId()));
+        values.add(row.getSystemId() != null ? String.valueOf(row.getSystemId()) : null);
+        values.add(escapeFormula(row.getPath()));
+        values.add(escapeFormula(row.getName()));
+        values.add(escapeFormula(groupName));
+        values.add(escapeFormula(String.join(CSV_TAG_SEPARATOR, tags)));
+        values.add(escapeFormula(row.getPayloadDoc()));
+        values.add(row.getSyncState());
+        values.add(formatTime(row.getLastActivity()));
+        values.add(formatTime(row.getCreatedAt()));
+        values.add(formatTime(row.getUpdatedAt()));
+        return values;
+    }
+
+    /**
+     * 按RFC 4180写一行CSV：含逗号、引号或换行的值用引号包裹，值中的引号写为两个引号
+     */
+    private static void writeCsvLine(Writer writer, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values.get(i);
+            if (value == null || value.isEmpty()) {
+                continue;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                continue;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+        writer.write("\r\n");
+    }
+
+    private static String formatTime(LocalDateTime time) {
+        return time != null ? TIME_FORMATTER.format(time) : null;
+    }
+
+    /**
+     * 导出的输出目标，在写出第一行之前打开
+     */
+    @FunctionalInterface
+    public interface ExportOutput {
+
+        /**
+         * 打开输出流，如设置响应头后取得响应的输出流
+         *
+         * @return 输出流，由导出器关闭
+         * @throws IOException 打开失败
+         */
+        OutputStream open() throws IOException;
+    }
+}
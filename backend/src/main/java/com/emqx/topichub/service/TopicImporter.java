@@ -0,0 +1,578 @@
+package com.emqx.topichub.service;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONException;
+import com.alibaba.fastjson2.JSONObject;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.emqx.topichub.common.BusinessException;
+import com.emqx.topichub.common.CsvReader;
+import com.emqx.topichub.common.TopicTrie;
+import com.emqx.topichub.dto.TopicImportError;
+import com.emqx.topichub.dto.TopicImportResult;
+import com.emqx.topichub.dto.TopicImportState;
+import com.emqx.topichub.dto.TopicPathRow;
+import com.emqx.topichub.dto.TopicTagRow;
+import com.emqx.topichub.entity.Group;
+import com.emqx.topichub.entity.Tag;
+import com.emqx.topichub.entity.Topic;
+import com.emqx.topichub.entity.TopicTag;
+import com.emqx.topichub.mapper.EmqxSystemMapper;
+import com.emqx.topichub.mapper.GroupMapper;
+import com.emqx.topichub.mapper.TagMapper;
+import com.emqx.topichub.mapper.TopicMapper;
+import com.emqx.topichub.mapper.TopicTagMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Topic批量导入器
+ * 逐条流式解析CSV或NDJSON，内存中只保留当前批次，与文件大小无关。
+ * 业务和标签名称在导入开始时一次性加载到内存中对照为ID，不按行查询；
+ * 校验通过的行按批多行插入或更新，每批单独提交事务，失败的行及原因在结果中逐行返回。
+ * 已存在的Topic更新名称，业务和Payload文档为空时保留原值，标签只追加不移除；已删除的Topic被恢复
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TopicImporter {
+
+    public static final String FORMAT_NDJSON = TopicExporter.FORMAT_NDJSON;
+    public static final String FORMAT_CSV = TopicExporter.FORMAT_CSV;
+
+    private static final int CHUNK_SIZE = 500;
+
+    /**
+     * 每批Payload文档的字符数上限，避免单条SQL过大
+     */
+    private static final int CHUNK_PAYLOAD_CHARS = 4 * 1024 * 1024;
+
+    /**
+     * 单条记录的字符数上限，超过时视为文件格式错误
+     */
+    private static final int MAX_RECORD_LENGTH = 1024 * 1024;
+
+    /**
+     * 结果中返回的错误行数上限，超过的只计数
+     */
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final int MAX_PATH_LENGTH = 500;
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_PAYLOAD_DOC_LENGTH = 10000;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final char BOM = '\uFEFF';
+
+    private final TopicMapper topicMapper;
+    private final TopicTagMapper topicTagMapper;
+    private final GroupMapper groupMapper;
+    private final TagMapper tagMapper;
+    private final EmqxSystemMapper emqxSystemMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TopicIndexService topicIndexService;
+    private final FullTextSearchService fullTextSearchService;
+    private final TopicDtoCache topicDtoCache;
+    private final UsageCounterBuffer usageCounterBuffer;
+
+    /**
+     * 校验并规范化导入格式
+     *
+     * @param format 导入格式，为空时为ndjson
+     * @return 规范化的导入格式
+     */
+    public static String resolveFormat(String format) {
+        if (!StringUtils.hasText(format) || FORMAT_NDJSON.equalsIgnoreCase(format)) {
+            return FORMAT_NDJSON;
+        }
+        if (FORMAT_CSV.equalsIgnoreCase(format)) {
+            return FORMAT_CSV;
+        }
+        throw new BusinessException(400, "不支持的导入格式: " + format);
+    }
+
+    /**
+     * 从输入流导入Topic
+     * CSV首行为表头，path列必填，可选name、groupName（或group）、tags（多个标签以|分隔）、payloadDoc，其他列忽略；
+     * NDJSON每行一个对象，字段名相同，tags可为数组或以|分隔的字符串。导出的文件可直接导入。
+     * 输入流由调用方关闭；某批写入失败时该批的行记为错误，其余批次继续
+     *
+     * @param systemId 系统ID
+     * @param format   导入格式
+     * @param dryRun   为true时只校验并统计新增和更新数量，不写入
+     * @param in       输入流
+     * @return 导入结果
+     * @throws IOException 读取失败，如客户端断开
+     */
+    public TopicImportResult importTopics(Long systemId, String format, boolean dryRun, InputStream in)
+            throws IOException {
+        if (systemId == null || emqxSystemMapper.selectById(systemId) == null) {
+            throw new BusinessException(400, "系统不存在");
+        }
+        String resolvedFormat = resolveFormat(format);
+        long startTime = System.currentTimeMillis();
+
+        Map<String, Long> groupIds = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        groupMapper.selectList(new QueryWrapper<Group>().select("id", "name"))
+                .forEach(group -> groupIds.putIfAbsent(group.getName(), group.getId()));
+        Map<String, Long> tagIds = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        tagMapper.selectList(new QueryWrapper<Tag>().select("id", "name"))
+                .forEach(tag -> tagIds.putIfAbsent(tag.getName(), tag.getId()));
+
+        TopicImportResult result = new TopicImportResult();
+        result.setDryRun(dryRun);
+        ImportContext context = new ImportContext(systemId, dryRun, groupIds, tagIds, result);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8),
+                READ_BUFFER_SIZE);
+        if (FORMAT_CSV.equals(resolvedFormat)) {
+            readCsv(reader, context);
+        } else {
+            readNdjson(reader, context);
+        }
+        flushChunk(context);
+
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        log.info("导入Topic完成，系统ID: {}，格式: {}，试运行: {}，行数: {}，新增: {}，更新: {}，错误: {}，耗时: {}ms",
+                systemId, resolvedFormat, dryRun, result.getTotalRows(), result.getCreatedCount(),
+                result.getUpdatedCount(), result.getErrorCount(), result.getElapsedMillis());
+        return result;
+    }
+
+    private void readCsv(BufferedReader reader, ImportContext context) throws IOException {
+        CsvReader csv = new CsvReader(reader, MAX_RECORD_LENGTH);
+        List<String> header = nextRecord(csv, context);
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).trim().toLowerCase(), i);
+        }
+        Integer pathColumn = columns.get("path");
+        if (pathColumn == null) {
+            throw new BusinessException(400, "CSV表头缺少path列");
+        }
+        Integer nameColumn = columns.get("name");
+        Integer groupColumn = columns.containsKey("groupname") ? columns.get("groupname") : columns.get("group");
+        Integer tagsColumn = columns.get("tags");
+        Integer payloadDocColumn = columns.get("payloaddoc");
+
+        List<String> record;
+        while ((record = nextRecord(csv, context)) != null) {
+            // 导出时为防止公式执行加的单引号在这里还原
+            acceptRow(context, new ImportRow(csv.getRecordLine(), csvColumn(record, pathColumn),
+                    csvColumn(record, nameColumn), csvColumn(record, groupColumn),
+                    splitTags(csvColumn(record, tagsColumn)), csvColumn(record, payloadDocColumn)));
+        }
+    }
+
+    /**
+     * 读取下一条CSV记录，引号未闭合等错误使之后的内容无法划分记录，记为错误并结束读取
+     */
+    private static List<String> nextRecord(CsvReader csv, ImportContext context) throws IOException {
+        try {
+            return csv.next();
+        } catch (IllegalArgumentException e) {
+            context.result().setTotalRows(context.result().getTotalRows() + 1);
+            addError(context.result(), csv.getRecordLine(), null, e.getMessage());
+            return null;
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportContext context) throws IOException {
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == BOM) {
+                line = line.substring(1);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            if (line.length() > MAX_RECORD_LENGTH) {
+                context.result().setTotalRows(context.result().getTotalRows() + 1);
+                addError(context.result(), lineNumber, null, "记录超过 " + MAX_RECORD_LENGTH + " 个字符");
+                continue;
+            }
+
+            JSONObject document;
+            try {
+                document = JSON.parseObject(line);
+            } catch (JSONException e) {
+                context.result().setTotalRows(context.result().getTotalRows() + 1);
+                addError(context.result(), lineNumber, null, "JSON格式错误: " + e.getMessage());
+                continue;
+            }
+            String groupName = document.containsKey("groupName")
+                    ? document.getString("groupName") : document.getString("group");
+            acceptRow(context, new ImportRow(lineNumber, document.getString("path"), document.getString("name"),
+                    groupName, toTagNames(document.get("tags")), document.getString("payloadDoc")));
+        }
+    }
+
+    /**
+     * 校验一行并加入当前批次，批次已满或出现重复路径时先写入当前批次
+     */
+    private void acceptRow(ImportContext context, ImportRow row) {
+        TopicImportResult result = context.result();
+        result.setTotalRows(result.getTotalRows() + 1);
+
+        String path = row.path() != null ? row.path().trim() : null;
+        String error = validate(context, row, path);
+        if (error != null) {
+            addError(result, row.line(), path, error);
+            return;
+        }
+
+        Topic topic = new Topic();
+        topic.setPath(path);
+        topic.setName(StringUtils.hasText(row.name()) ? row.name().trim() : null);
+        topic.setGroupId(StringUtils.hasText(row.groupName()) ? context.groupIds().get(row.groupName().trim()) : null);
+        topic.setPayloadDoc(StringUtils.hasLength(row.payloadDoc()) ? row.payloadDoc() : null);
+        Set<Long> rowTagIds = new LinkedHashSet<>();
+        for (String tagName : row.tags()) {
+            rowTagIds.add(context.tagIds().get(tagName));
+        }
+
+        // 同一批中路径重复时多行插入的结果取决于顺序，先写入之前的行
+        int payloadChars = topic.getPayloadDoc() != null ? topic.getPayloadDoc().length() : 0;
+        if (context.chunkPaths().contains(path)
+                || context.chunkPayloadChars() + payloadChars > CHUNK_PAYLOAD_CHARS) {
+            flushChunk(context);
+        }
+        context.chunk().add(new PendingRow(row.line(), topic, rowTagIds));
+        context.chunkPaths().add(path);
+        context.addChunkPayloadChars(payloadChars);
+        if (context.chunk().size() >= CHUNK_SIZE) {
+            flushChunk(context);
+        }
+    }
+
+    private String validate(ImportContext context, ImportRow row, String path) {
+        if (!StringUtils.hasText(path)) {
+            return "Topic路径不能为空";
+        }
+        if (path.length() > MAX_PATH_LENGTH) {
+            return "Topic路径长度不能超过" + MAX_PATH_LENGTH + "个字符";
+        }
+        try {
+            TopicTrie.validateTopicName(path);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        if (row.name() != null && row.name().trim().length() > MAX_NAME_LENGTH) {
+            return "Topic名称长度不能超过" + MAX_NAME_LENGTH + "个字符";
+        }
+        if (StringUtils.hasText(row.groupName()) && !context.groupIds().containsKey(row.groupName().trim())) {
+            return "业务不存在: " + row.groupName().trim();
+        }
+        for (String tagName : row.tags()) {
+            if (!context.tagIds().containsKey(tagName)) {
+                return "标签不存在: " + tagName;
+            }
+        }
+        if (row.payloadDoc() != null && row.payloadDoc().length() > MAX_PAYLOAD_DOC_LENGTH) {
+            return "Payload说明文档长度不能超过" + MAX_PAYLOAD_DOC_LENGTH + "个字符";
+        }
+        return null;
+    }
+
+    /**
+     * 写入当前批次并清空，写入失败时该批的行全部记为错误
+     */
+    private void flushChunk(ImportContext context) {
+        List<PendingRow> chunk = context.chunk();
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<PendingRow> rows = new ArrayList<>(chunk);
+        context.clearChunk();
+        TopicImportResult result = context.result();
+        Long systemId = context.systemId();
+
+        if (context.dryRun()) {
+            Map<String, TopicImportState> states = selectStates(systemId, rows);
+            for (PendingRow row : rows) {
+                if (isAdded(states.get(row.topic().getPath()))) {
+                    result.setCreatedCount(result.getCreatedCount() + 1);
+                } else {
+                    result.setUpdatedCount(result.getUpdatedCount() + 1);
+                }
+            }
+            return;
+        }
+
+        ChunkOutcome outcome;
+        try {
+            outcome = transactionTemplate.execute(status -> writeChunk(systemId, rows));
+        } catch (RuntimeException e) {
+            log.warn("导入Topic批次写入失败，系统ID: {}，行数: {}，错误: {}", systemId, rows.size(), e.getMessage());
+            for (PendingRow row : rows) {
+                addError(result, row.line(), row.topic().getPath(), "写入失败: " + e.getMessage());
+            }
+            return;
+        }
+        result.setChunkCount(result.getChunkCount() + 1);
+        result.setCreatedCount(result.getCreatedCount() + outcome.addedTopics().size());
+        result.setUpdatedCount(result.getUpdatedCount() + rows.size() - outcome.addedTopics().size());
+
+        fullTextSearchService.onTopicsChanged(outcome.topicIds());
+        topicDtoCache.evictTopics(outcome.topicIds());
+        topicIndexService.onTopicsAdded(systemId,
+                outcome.addedTopics().stream().map(TopicPathRow::getPath).toList());
+    }
+
+    /**
+     * 在事务中写入一批：插入或更新Topic，追加缺少的标签关联，记录分组和标签计数的变化
+     */
+    private ChunkOutcome writeChunk(Long systemId, List<PendingRow> rows) {
+        Map<String, TopicImportState> states = selectStates(systemId, rows);
+        List<Topic> topics = new ArrayList<>(rows.size());
+        for (PendingRow row : rows) {
+            Topic topic = row.topic();
+            if (topic.getName() == null) {
+                TopicImportState state = states.get(topic.getPath());
+                topic.setName(state != null ? state.getName() : TopicSyncWriter.generateTopicName(topic.getPath()));
+            }
+            topics.add(topic);
+        }
+        topicMapper.batchUpsertImportedTopics(systemId, topics, LocalDateTime.now());
+
+        Map<String, Long> ids = new HashMap<>(rows.size() * 4 / 3 + 1);
+        for (TopicPathRow pathRow : topicMapper.selectTopicPathsByPaths(systemId, pathsOf(rows))) {
+            ids.put(pathRow.getPath(), pathRow.getId());
+        }
+
+        // 分组计数：新增或恢复的Topic计入最终所属分组，已有Topic更换分组时从原分组移出
+        Map<Long, Long> groupDeltas = new HashMap<>();
+        List<TopicPathRow> addedTopics = new ArrayList<>();
+        for (PendingRow row : rows) {
+            Topic topic = row.topic();
+            TopicImportState state = states.get(topic.getPath());
+            Long groupId = topic.getGroupId() != null ? topic.getGroupId() : state != null ? state.getGroupId() : null;
+            if (isAdded(state)) {
+                TopicPathRow added = new TopicPathRow();
+                added.setId(ids.get(topic.getPath()));
+                added.setPath(topic.getPath());
+                addedTopics.add(added);
+                addDelta(groupDeltas, groupId, 1);
+            } else if (!Objects.equals(state.getGroupId(), groupId)) {
+                addDelta(groupDeltas, state.getGroupId(), -1);
+                addDelta(groupDeltas, groupId, 1);
+            }
+        }
+        groupDeltas.forEach(usageCounterBuffer::addGroupTopics);
+
+        // 标签只追加，已有的关联不重复计数
+        List<Long> taggedIds = new ArrayList<>();
+        for (PendingRow row : rows) {
+            if (!row.tagIds().isEmpty()) {
+                taggedIds.add(ids.get(row.topic().getPath()));
+            }
+        }
+        if (!taggedIds.isEmpty()) {
+            Set<String> existingLinks = new HashSet<>();
+            for (TopicTagRow link : topicTagMapper.selectTagsByTopicIds(taggedIds)) {
+                existingLinks.add(link.getTopicId() + ":" + link.getTagId());
+            }
+            List<TopicTag> links = new ArrayList<>();
+            Map<Long, Long> tagDeltas = new HashMap<>();
+            for (PendingRow row : rows) {
+                Long topicId = ids.get(row.topic().getPath());
+                for (Long tagId : row.tagIds()) {
+                    if (existingLinks.add(topicId + ":" + tagId)) {
+                        TopicTag link = new TopicTag();
+                        link.setTopicId(topicId);
+                        link.setTagId(tagId);
+                        links.add(link);
+                        addDelta(tagDeltas, tagId, 1);
+                    }
+                }
+            }
+            if (!links.isEmpty()) {
+                topicTagMapper.insertOrReviveLinks(links);
+            }
+            tagDeltas.forEach(usageCounterBuffer::addTagUsages);
+        }
+        return new ChunkOutcome(new ArrayList<>(ids.values()), addedTopics);
+    }
+
+    private Map<String, TopicImportState> selectStates(Long systemId, List<PendingRow> rows) {
+        Map<String, TopicImportState> states = new HashMap<>(rows.size() * 4 / 3 + 1);
+        for (TopicImportState state : topicMapper.selectImportStates(systemId, pathsOf(rows))) {
+            states.put(state.getPath(), state);
+        }
+        return states;
+    }
+
+    private static List<String> pathsOf(List<PendingRow> rows) {
+        List<String> paths = new ArrayList<>(rows.size());
+        for (PendingRow row : rows) {
+            paths.add(row.topic().getPath());
+        }
+        return paths;
+    }
+
+    /**
+     * 不存在或已删除的Topic导入后计为新增
+     */
+    private static boolean isAdded(TopicImportState state) {
+        return state == null || (state.getDeleted() != null && state.getDeleted() != 0);
+    }
+
+    private static void addDelta(Map<Long, Long> deltas, Long id, long delta) {
+        if (id != null) {
+            deltas.merge(id, delta, Long::sum);
+        }
+    }
+
+    private static void addError(TopicImportResult result, long line, String path, String message) {
+        result.setErrorCount(result.getErrorCount() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new TopicImportError(line, path, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private static String csvColumn(List<String> record, Integer index) {
+        return index != null && index < record.size() ? TopicExporter.unescapeFormula(record.get(index)) : null;
+    }
+
+    private static List<String> toTagNames(Object tags) {
+        if (tags instanceof Collection<?> values) {
+            List<String> names = new ArrayList<>();
+            for (Object value : values) {
+                if (value != null && StringUtils.hasText(value.toString())) {
+                    names.add(value.toString().trim());
+                }
+            }
+            return names;
+        }
+        return splitTags(tags != null ? tags.toString() : null);
+    }
+
+    private static List<String> splitTags(String tags) {
+        if (!StringUtils.hasText(tags)) {
+            return List.of();
+        }
+        List<String> names = new ArrayList<>();
+        for (String name : tags.split("\\|")) {
+            if (StringUtils.hasText(name)) {
+                names.add(name.trim());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 从文件中解析出的一行，尚未校验
+     */
+    private record ImportRow(long line, String path, String name, String groupName, List<String> tags,
+                             String payloadDoc) {
+    }
+
+    /**
+     * 校验通过、等待写入的一行
+     */
+    private record PendingRow(long line, Topic topic, Set<Long> tagIds) {
+    }
+
+    /**
+     * 一批写入的结果
+     *
+     * @param topicIds    本批所有Topic的ID
+     * @param addedTopics 新增或恢复的Topic
+     */
+    private record ChunkOutcome(List<Long> topicIds, List<TopicPathRow> addedTopics) {
+    }
+
+    /**
+     * 一次导入的状态：名称对照表、当前批次和累计结果
+     */
+    private static final class ImportContext {
+
+        private final Long systemId;
+        private final boolean dryRun;
+        private final Map<String, Long> groupIds;
+        private final Map<String, Long> tagIds;
+        private final TopicImportResult result;
+        private final List<PendingRow> chunk = new ArrayList<>();
+        private final Set<String> chunkPaths = new HashSet<>();
+        private long chunkPayloadChars;
+
+        private ImportContext(Long systemId, boolean dryRun, Map<String, Long> groupIds, Map<String, Long> tagIds,
+                              TopicImportResult result) {
+            this.systemId = systemId;
+            this.dryRun = dryRun;
+            this.groupIds = groupIds;
+            this.tagIds = tagIds;
+            this.result = result;
+        }
+
+        Long systemId() {
+            return systemId;
+        }
+
+        boolean dryRun() {
+            return dryRun;
+        }
+
+        Map<String, Long> groupIds() {
+            return groupIds;
+        }
+
+        Map<String, Long> tagIds() {
+            return tagIds;
+        }
+
+        TopicImportResult result() {
+            return result;
+        }
+
+        List<PendingRow> chunk() {
+            return chunk;
+        }
+
+        Set<String> chunkPaths() {
+            return chunkPaths;
+        }
+
+        long chunkPayloadChars() {
+            return chunkPayloadChars;
+        }
+
+        void addChunkPayloadChars(int chars) {
+            chunkPayloadChars += chars;
+        }
+
+        void clearChunk() {
+            chunk.clear();
+            chunkPaths.clear();
+            chunkPayloadChars = 0;
+        }
+    }
+}
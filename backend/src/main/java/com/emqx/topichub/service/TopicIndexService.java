@@ -0,0 +1,312 @@
+package com.emqx.topichub.service;
+
+import com.alibaba.fastjson2.JSON;
+import com.emqx.topichub.common.TopicTrie;
+import com.emqx.topichub.common.TransactionHooks;
+import com.emqx.topichub.dto.TopicPathRow;
+import com.emqx.topichub.dto.TopicTreeDTO;
+import com.emqx.topichub.dto.TopicTreeNodeDTO;
+import com.emqx.topichub.mapper.TopicMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Topic索引服务
+ * 每个EMQX系统在内存中维护一棵按层级划分的Topic前缀树，用于按MQTT订阅过滤器查询Topic和按层级浏览。
+ * 索引在首次查询时从数据库加载，之后由Topic的增删改和同步在事务提交后增量维护。
+ * 每次变更追加到Redis中系统的变更日志（topic:index:{systemId}），各实例查询前按版本号顺序重放其他写入方的变更，
+ * 并发的同步批次、导入和编辑交错提交时不再丢弃本地索引
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TopicIndexService {
+
+    /**
+     * 变更日志名前缀，格式: topic:index:{systemId}
+     */
+    private static final String LOG_PREFIX = "topic:index:";
+
+    /**
+     * 重放变更时每次按路径读取的最大数量
+     */
+    private static final int REPLAY_CHUNK_SIZE = 1000;
+
+    private final TopicMapper topicMapper;
+    private final IndexChangeLog indexChangeLog;
+
+    /**
+     * 系统ID -> 已加载的索引
+     */
+    private final Map<Long, LoadedIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * 系统ID -> 加载索引用的锁，同一系统的并发查询只加载一次
+     */
+    private final Map<Long, Object> loadLocks = new ConcurrentHashMap<>();
+
+    /**
+     * 按MQTT订阅过滤器匹配系统下的Topic
+     *
+     * @param systemId 系统ID
+     * @param filter   订阅过滤器，如 factory/+/line/#
+     * @param limit    最多返回的数量
+     * @return 命中的Topic ID
+     */
+    public List<Long> match(Long systemId, String filter, int limit) {
+        TopicTrie.validateFilter(filter);
+        return getIndex(systemId).trie.match(filter, limit);
+    }
+
+    /**
+     * 查询某一层级前缀下的汇总信息及直接子节点
+     * 节点的Topic数量由索引在写入时维护，查询不遍历子树
+     *
+     * @param systemId 系统ID
+     * @param prefix   层级前缀，为空时返回第一层
+     * @param limit    最多返回的子节点数量
+     * @return 层级信息，前缀不存在时各数量为0
+     */
+    public TopicTreeDTO browse(Long systemId, String prefix, int limit) {
+        TopicTrie trie = getIndex(systemId).trie;
+        TopicTreeDTO tree = new TopicTreeDTO();
+        tree.setSystemId(systemId);
+        tree.setPrefix(prefix == null ? "" : prefix);
+
+        TopicTrie.LevelNode current = trie.describe(prefix);
+        if (current == null) {
+            tree.setChildren(new ArrayList<>());
+            return tree;
+        }
+        tree.setTopicCount(current.topicCount());
+        tree.setChildCount(current.childCount());
+
+        List<TopicTreeNodeDTO> children = new ArrayList<>();
+        for (TopicTrie.LevelNode node : trie.children(prefix, limit)) {
+            TopicTreeNodeDTO dto = new TopicTreeNodeDTO();
+            dto.setName(node.name());
+            dto.setPath(node.path());
+            dto.setTopicId(node.topicId());
+            dto.setTopicCount(node.topicCount());
+            dto.setChildCount(node.childCount());
+            children.add(dto);
+        }
+        tree.setChildren(children);
+        tree.setTruncated(current.childCount() > children.size());
+        return tree;
+    }
+
+    /**
+     * Topic新增或路径变更后更新索引
+     *
+     * @param systemId 系统ID
+     * @param topicId  Topic ID
+     * @param oldPath  原路径，新增时为空
+     * @param newPath  新路径
+     */
+    public void onTopicSaved(Long systemId, Long topicId, String oldPath, String newPath) {
+        Map<String, Long> removed = oldPath != null ? Map.of(oldPath, topicId) : Map.of();
+        TrieChange change = new TrieChange(List.of(newPath), removed);
+        TransactionHooks.afterCommit(() -> applyChange(systemId, change));
+    }
+
+    /**
+     * 批量新增Topic后更新索引，按路径重新读取ID，索引未加载时不额外查询
+     *
+     * @param systemId 系统ID
+     * @param paths    新增的Topic路径
+     */
+    public void onTopicsAdded(Long systemId, Collection<String> paths) {
+        if (paths.isEmpty()) {
+            return;
+        }
+        TrieChange change = new TrieChange(new ArrayList<>(paths), Map.of());
+        TransactionHooks.afterCommit(() -> applyChange(systemId, change));
+    }
+
+    /**
+     * 删除或归档Topic后更新索引
+     *
+     * @param systemId 系统ID
+     * @param topics   被移除的Topic，Topic ID -> 路径
+     */
+    public void onTopicsRemoved(Long systemId, Map<Long, String> topics) {
+        if (topics.isEmpty()) {
+            return;
+        }
+        Map<String, Long> removed = new HashMap<>();
+        topics.forEach((id, path) -> removed.put(path, id));
+        TrieChange change = new TrieChange(List.of(), removed);
+        TransactionHooks.afterCommit(() -> applyChange(systemId, change));
+    }
+
+    /**
+     * 丢弃系统的索引及其变更日志，如系统被删除时
+     *
+     * @param systemId 系统ID
+     */
+    public void evict(Long systemId) {
+        indexes.remove(systemId);
+        loadLocks.remove(systemId);
+        indexChangeLog.clear(LOG_PREFIX + systemId);
+    }
+
+    /**
+     * 取得系统最新的本地索引：首次查询时加载；Redis中的版本号领先时按顺序重放缺少的变更，
+     * 其他线程正在重放时直接使用本地索引，不等待
+     */
+    private LoadedIndex getIndex(Long systemId) {
+        LoadedIndex index = indexes.get(systemId);
+        if (index == null) {
+            synchronized (loadLocks.computeIfAbsent(systemId, id -> new Object())) {
+                index = indexes.get(systemId);
+                if (index == null) {
+                    index = load(systemId);
+                    indexes.put(systemId, index);
+                }
+            }
+            return index;
+        }
+        Long version = indexChangeLog.readVersion(LOG_PREFIX + systemId);
+        if (version != null && version > index.version) {
+            catchUp(systemId, index, version, false);
+        }
+        return index;
+    }
+
+    /**
+     * 从数据库加载索引，先读版本号再加载数据，加载期间的变更之后按版本号重放，重复应用无影响
+     */
+    private LoadedIndex load(Long systemId) {
+        Long version = indexChangeLog.readVersion(LOG_PREFIX + systemId);
+        long loadVersion = version != null ? version : 0L;
+        long startTime = System.currentTimeMillis();
+        TopicTrie trie = new TopicTrie();
+        for (TopicPathRow row : topicMapper.selectTopicPaths(systemId)) {
+            trie.put(row.getPath(), row.getId());
+        }
+        log.info("加载Topic索引，系统ID: {}，Topic数: {}，版本: {}，耗时: {}ms",
+                systemId, trie.size(), loadVersion, System.currentTimeMillis() - startTime);
+        return new LoadedIndex(trie, loadVersion);
+    }
+
+    /**
+     * 变更已提交到数据库后调用：追加到变更日志，本地索引已加载时重放到该变更为止
+     * Redis不可用时只更新本地索引
+     */
+    private void applyChange(Long systemId, TrieChange change) {
+        Long version = indexChangeLog.append(LOG_PREFIX + systemId, JSON.toJSONString(change));
+        LoadedIndex index = indexes.get(systemId);
+        if (index == null) {
+            return;
+        }
+        if (version != null) {
+            catchUp(systemId, index, version, true);
+            return;
+        }
+        index.lock.lock();
+        try {
+            apply(systemId, index.trie, change.removed(), change.paths());
+        } catch (Exception e) {
+            log.warn("更新Topic索引失败，系统ID: {}，错误: {}", systemId, e.getMessage());
+        } finally {
+            index.lock.unlock();
+        }
+    }
+
+    /**
+     * 按版本号顺序重放本地索引缺少的变更
+     * 日志已不包含所需的变更时在后台重新加载，期间继续使用本地索引；重放失败时保留版本号，下次查询时重试
+     *
+     * @param wait 其他线程正在重放时是否等待，写入方等待以保证读到自己的写入，查询方不等待
+     */
+    private void catchUp(Long systemId, LoadedIndex index, long version, boolean wait) {
+        if (wait) {
+            index.lock.lock();
+        } else if (!index.lock.tryLock()) {
+            return;
+        }
+        try {
+            if (index.version >= version) {
+                return;
+            }
+            List<IndexChangeLog.Change> changes = indexChangeLog.readSince(LOG_PREFIX + systemId, index.version, version);
+            if (changes == null) {
+                log.info("Topic索引变更日志无法补齐，系统ID: {}，本地版本: {}，目标版本: {}，后台重新加载",
+                        systemId, index.version, version);
+                indexChangeLog.reloadInBackground(LOG_PREFIX + systemId, () -> {
+                    LoadedIndex reloaded = load(systemId);
+                    indexes.computeIfPresent(systemId, (id, current) -> reloaded);
+                });
+                return;
+            }
+            // 删除只在路径上仍是该ID时生效，新增按路径从数据库重新读取，与顺序无关，合并后按批应用
+            Map<String, Long> removed = new LinkedHashMap<>();
+            Set<String> paths = new LinkedHashSet<>();
+            for (IndexChangeLog.Change change : changes) {
+                TrieChange trieChange = JSON.parseObject(change.change(), TrieChange.class);
+                removed.putAll(trieChange.removed());
+                paths.addAll(trieChange.paths());
+            }
+            apply(systemId, index.trie, removed, paths);
+            index.version = changes.get(changes.size() - 1).version();
+        } catch (Exception e) {
+            log.warn("重放Topic索引变更失败，系统ID: {}，下次查询时重试，错误: {}", systemId, e.getMessage());
+        } finally {
+            index.lock.unlock();
+        }
+    }
+
+    /**
+     * 应用变更：先按路径和ID移除，再按路径从数据库读取仍存在的Topic加入索引
+     */
+    private void apply(Long systemId, TopicTrie trie, Map<String, Long> removed, Collection<String> paths) {
+        removed.forEach(trie::remove);
+        List<String> list = new ArrayList<>(paths);
+        for (int from = 0; from < list.size(); from += REPLAY_CHUNK_SIZE) {
+            List<String> chunk = list.subList(from, Math.min(from + REPLAY_CHUNK_SIZE, list.size()));
+            for (TopicPathRow row : topicMapper.selectTopicPathsByPaths(systemId, chunk)) {
+                trie.put(row.getPath(), row.getId());
+            }
+        }
+    }
+
+    /**
+     * 已加载的索引及其对应的版本号
+     */
+    private static final class LoadedIndex {
+
+        private final TopicTrie trie;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long version;
+
+        private LoadedIndex(TopicTrie trie, long version) {
+            this.trie = trie;
+            this.version = version;
+        }
+    }
+
+    /**
+     * 一条索引变更
+     *
+     * @param paths   新增或路径变更后的Topic路径，重放时从数据库读取ID
+     * @param removed 移除的Topic，路径 -> Topic ID
+     */
+    private record TrieChange(List<String> paths, Map<String, Long> removed) {
+    }
+}
@@ -1,25 +1,35 @@
 package com.emqx.topichub.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.emqx.topichub.common.BusinessException;
+import com.emqx.topichub.common.KeysetPaging;
+import com.emqx.topichub.common.RankedPaging;
 import com.emqx.topichub.dto.*;
 import com.emqx.topichub.entity.*;
 import com.emqx.topichub.mapper.TopicMapper;
+import com.emqx.topichub.mapper.TopicTagMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * @author EMQX Topic Hub Team
@@ -29,12 +39,48 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class TopicService extends ServiceImpl<TopicMapper, Topic> {
 
-    private final GroupService groupService;
-    private final TagService tagService;
+    /**
+     * 按Topic过滤器搜索时最多匹配的Topic数量
+     */
+    private static final int MAX_FILTER_MATCHES = 10000;
+
+    /**
+     * 按相关度排序的排序字段取值，仅在有关键字时生效
+     */
+    private static final String SORT_BY_RELEVANCE = "relevance";
+
+    /**
+     * 批量增删标签时每条SQL最多涉及的Topic标签关联数量
+     */
+    private static final int TAG_LINK_CHUNK_SIZE = 1000;
+
+    /**
+     * 按筛选条件批量操作时每批处理的Topic数量，每批单独提交事务
+     */
+    private static final int FILTER_BATCH_CHUNK_SIZE = 500;
+
+    /**
+     * 游标分页允许的排序字段
+     */
+    private static final KeysetPaging<Topic> KEYSET_PAGING = new KeysetPaging<>(Topic::getId, "createdAt",
+            new KeysetPaging.SortColumn<>("createdAt", "created_at", Topic::getCreatedAt, LocalDateTime::parse),
+            new KeysetPaging.SortColumn<>("updatedAt", "updated_at", Topic::getUpdatedAt, LocalDateTime::parse),
+            new KeysetPaging.SortColumn<>("name", "name", Topic::getName, value -> value),
+            new KeysetPaging.SortColumn<>("path", "path", Topic::getPath, value -> value));
+
     private final TopicTagService topicTagService;
+    private final TopicTagMapper topicTagMapper;
     private final EmqxSystemService emqxSystemService;
     private final EmqxService emqxService;
     private final PayloadTemplateService payloadTemplateService;
+    private final TopicSyncWriter topicSyncWriter;
+    private final TopicDtoAssembler topicDtoAssembler;
+    private final TopicIndexService topicIndexService;
+    private final PageCountCache pageCountCache;
+    private final UsageCounterBuffer usageCounterBuffer;
+    private final TransactionTemplate transactionTemplate;
+    private final FullTextSearchService fullTextSearchService;
+    private final TopicDtoCache topicDtoCache;
 
     /**
      * 分页搜索Topic列表
@@ -43,30 +89,17 @@ public class TopicService extends ServiceImpl<TopicMapper, Topic> {
      * @return 分页Topic列表
      */
     public IPage<TopicDTO> searchTopics(TopicSearchRequest request) {
-        // 构建查询条件
-        QueryWrapper<Topic> queryWrapper = new QueryWrapper<>();
-        queryWrapper.lambda().eq(Topic::getDeleted, false);
-
-        // 关键字搜索（Topic名称或路径）
         if (StringUtils.hasText(request.getKeyword())) {
-            queryWrapper.lambda()
-                    .like(Topic::getName, request.getKeyword())
-                    .or()
-                    .like(Topic::getPath, request.getKeyword());
+            return searchTopicsByKeyword(request);
         }
 
-        // 业务筛选
-        if (request.getGroupId() != null) {
-            queryWrapper.lambda().eq(Topic::getGroupId, request.getGroupId());
-        }
-
-        // 系统筛选
-        if (request.getSystemId() != null) {
-            queryWrapper.lambda().eq(Topic::getSystemId, request.getSystemId());
-        }
+        // 构建查询条件
+        QueryWrapper<Topic> queryWrapper = buildSearchWrapper(request);
 
-        // 排序
-        if (StringUtils.hasText(request.getSortBy())) {
+        // 排序，没有关键字时相关度排序按创建时间倒序
+        if (SORT_BY_RELEVANCE.equals(request.getSortBy())) {
+            queryWrapper.orderByDesc("created_at");
+        } else if (StringUtils.hasText(request.getSortBy())) {
             String sortBy = request.getSortBy();
             //驼峰转下划线
             String asc = "asc";
@@ -78,39 +111,222 @@ public class TopicService extends ServiceImpl<TopicMapper, Topic> {
             }
         }
 
-        // 分页查询
+        // 分页查询，非精确模式下不由分页插件执行COUNT
         Page<Topic> page = new Page<>(request.getPage(), request.getSize());
+        page.setSearchCount(PageCountCache.isExact(request.getCountMode()));
         IPage<Topic> topicPage = this.page(page, queryWrapper);
+        long total = page.searchCount() ? topicPage.getTotal()
+                : pageCountCache.count(request.getCountMode(), TableVersions.TABLE_TOPIC,
+                searchSignature(request), () -> this.count(buildSearchWrapper(request)));
 
         // 转换为DTO
-        List<TopicDTO> topicDtoList = topicPage.getRecords().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-
-        // 如果有标签筛选，需要进一步过滤
-        if (request.getTagIds() != null && !request.getTagIds().isEmpty()) {
-            topicDtoList = topicDtoList.stream()
-                    .filter(topic -> topic.getTags().stream()
-                            .anyMatch(tag -> request.getTagIds().contains(tag.getId())))
-                    .collect(Collectors.toList());
-        }
+        List<TopicDTO> topicDtoList = topicDtoAssembler.toDTOs(topicPage.getRecords());
 
         // 构建返回结果
         Page<TopicDTO> resultPage = new Page<>(request.getPage(), request.getSize());
         resultPage.setRecords(topicDtoList);
-        resultPage.setTotal(topicPage.getTotal());
+        resultPage.setTotal(total);
         resultPage.setPages(topicPage.getPages());
 
         return resultPage;
     }
 
     /**
-     * 根据ID获取Topic详情
+     * 按关键字分页搜索
+     * 全文索引给出全部命中的ID，其他筛选条件按批以主键过滤，按相关度或排序列在内存中排序分页，
+     * 只按本页的ID读取完整记录，总数为满足所有条件的命中数
+     */
+    private IPage<TopicDTO> searchTopicsByKeyword(TopicSearchRequest request) {
+        List<Long> rankedIds = fullTextSearchService.searchTopics(request.getKeyword());
+        List<Long> matchedIds;
+        String sortBy = request.getSortBy();
+        if (!StringUtils.hasText(sortBy) || SORT_BY_RELEVANCE.equals(sortBy)) {
+            // 没有其他筛选条件时索引中的命中即为结果，无需查询数据库
+            matchedIds = hasFilters(request) ? RankedPaging.filter(rankedIds, chunk -> this.listObjs(
+                    buildSearchWrapper(request).select("id").in("id", chunk), id -> ((Number) id).longValue()))
+                    : rankedIds;
+        } else {
+            String column = KEYSET_PAGING.column(sortBy);
+            List<Topic> rows = new ArrayList<>();
+            for (List<Long> chunk : RankedPaging.chunks(rankedIds)) {
+                rows.addAll(this.list(buildSearchWrapper(request).select("id", column).in("id", chunk)));
+            }
+            rows.sort(KEYSET_PAGING.comparator(sortBy, request.getSortDir()));
+            matchedIds = rows.stream().map(Topic::getId).toList();
+        }
+
+        List<Long> pageIds = RankedPaging.page(matchedIds, request.getPage(), request.getSize());
+        List<Topic> records = pageIds.isEmpty() ? List.of()
+                : RankedPaging.inOrder(pageIds, this.listByIds(pageIds), Topic::getId);
+        Page<TopicDTO> resultPage = new Page<>(request.getPage(), request.getSize(), matchedIds.size());
+        resultPage.setRecords(topicDtoAssembler.toDTOs(records));
+        return resultPage;
+    }
+
+    /**
+     * 除关键字外是否还有其他筛选条件
+     */
+    private static boolean hasFilters(TopicSearchRequest request) {
+        return request.getSystemId() != null || request.getGroupId() != null
+                || (request.getTagIds() != null && !request.getTagIds().isEmpty())
+                || StringUtils.hasText(request.getTopicFilter());
+    }
+
+    /**
+     * 规范化的筛选条件，作为总数缓存的键，不含分页和排序参数
+     */
+    private Map<String, Object> searchSignature(TopicSearchRequest request) {
+        Map<String, Object> filter = new HashMap<>();
+        filter.put("systemId", request.getSystemId());
+        filter.put("groupId", request.getGroupId());
+        filter.put("keyword", StringUtils.hasText(request.getKeyword()) ? request.getKeyword().trim() : null);
+        filter.put("topicFilter", request.getTopicFilter());
+        if (request.getTagIds() != null && !request.getTagIds().isEmpty()) {
+            filter.put("tagIds", request.getTagIds().stream().filter(Objects::nonNull).distinct().sorted().toList());
+            filter.put("tagMatch", "all".equalsIgnoreCase(request.getTagMatch()) ? "all" : "any");
+        }
+        return filter;
+    }
+
+    /**
+     * 游标分页搜索Topic列表
+     * 筛选条件与分页搜索相同，不统计总数，深度翻页的代价与第一页相同
+     *
+     * @param request 搜索请求参数，cursor为上一页返回的游标
+     * @return 一页Topic及下一页游标
+     */
+    public CursorPage<TopicDTO> searchTopicsByCursor(TopicSearchRequest request) {
+        CursorPage<Topic> topicPage;
+        if (StringUtils.hasText(request.getKeyword())) {
+            // 关键字命中的ID按批查询后合并，每条SQL最多携带一批ID
+            topicPage = KEYSET_PAGING.page(fullTextSearchService.searchTopics(request.getKeyword()),
+                    chunk -> buildSearchWrapper(request).in("id", chunk), request.getSortBy(),
+                    request.getSortDir(), request.getCursor(), request.getSize(), this::list);
+        } else {
+            topicPage = KEYSET_PAGING.page(buildSearchWrapper(request), request.getSortBy(),
+                    request.getSortDir(), request.getCursor(), request.getSize(), this::list);
+        }
+        return new CursorPage<>(topicDtoAssembler.toDTOs(topicPage.getRecords()),
+                topicPage.getNextCursor(), topicPage.isHasMore());
+    }
+
+    /**
+     * 根据搜索请求构建查询条件（不含关键字和排序）
+     * 标签筛选在SQL中完成，分页和总数只统计满足标签条件的Topic；
+     * 关键字（Topic名称、路径及Payload文档）在全文索引中匹配，由调用方按批限定ID范围
+     *
+     * @param request 搜索请求参数
+     * @return 查询条件
+     */
+    private QueryWrapper<Topic> buildSearchWrapper(TopicSearchRequest request) {
+        QueryWrapper<Topic> queryWrapper = new QueryWrapper<>();
+        queryWrapper.lambda().eq(Topic::getDeleted, false);
+
+        // 业务筛选
+        if (request.getGroupId() != null) {
+            queryWrapper.lambda().eq(Topic::getGroupId, request.getGroupId());
+        }
+
+        // 系统筛选
+        if (request.getSystemId() != null) {
+            queryWrapper.lambda().eq(Topic::getSystemId, request.getSystemId());
+        }
+
+        // 标签筛选
+        if (request.getTagIds() != null && !request.getTagIds().isEmpty()) {
+            applyTagFilter(queryWrapper, request.getTagIds(), request.getTagMatch());
+        }
+
+        // MQTT订阅过滤器筛选
+        if (StringUtils.hasText(request.getTopicFilter())) {
+            applyTopicFilter(queryWrapper, request.getSystemId(), request.getTopicFilter());
+        }
+
+        return queryWrapper;
+    }
+
+    /**
+     * 追加MQTT订阅过滤器筛选条件
+     * 先在内存索引中匹配出Topic ID，再与其他条件一起按主键查询
+     *
+     * @param queryWrapper 查询条件
+     * @param systemId     系统ID
+     * @param topicFilter  订阅过滤器
+     */
+    private void applyTopicFilter(QueryWrapper<Topic> queryWrapper, Long systemId, String topicFilter) {
+        if (systemId == null) {
+            throw new BusinessException(400, "按Topic过滤器搜索时必须指定EMQX系统");
+        }
+        List<Long> topicIds;
+        try {
+            topicIds = topicIndexService.match(systemId, topicFilter, MAX_FILTER_MATCHES + 1);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(400, e.getMessage());
+        }
+        if (topicIds.size() > MAX_FILTER_MATCHES) {
+            throw new BusinessException(400, "匹配的Topic超过 " + MAX_FILTER_MATCHES + " 个，请缩小过滤范围");
+        }
+        if (topicIds.isEmpty()) {
+            queryWrapper.apply("1 = 0");
+        } else {
+            queryWrapper.lambda().in(Topic::getId, topicIds);
+        }
+    }
+
+    /**
+     * 追加标签筛选条件
+     * any：EXISTS半连接，命中topic_tag唯一索引(topic_id, tag_id)；
+     * all：按Topic分组统计命中的不同标签数，走(tag_id, deleted, topic_id)覆盖索引
+     *
+     * @param queryWrapper 查询条件
+     * @param tagIds       标签ID列表
+     * @param tagMatch     匹配方式（any/all）
+     */
+    private void applyTagFilter(QueryWrapper<Topic> queryWrapper, List<Long> tagIds, String tagMatch) {
+        List<Long> distinctTagIds = tagIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctTagIds.isEmpty()) {
+            return;
+        }
+        String placeholders = IntStream.range(0, distinctTagIds.size())
+                .mapToObj(i -> "{" + i + "}")
+                .collect(Collectors.joining(","));
+        Object[] params = distinctTagIds.toArray();
+
+        String all = "all";
+        if (all.equalsIgnoreCase(tagMatch)) {
+            queryWrapper.apply("id IN (SELECT tt.topic_id FROM topic_tag tt"
+                    + " WHERE tt.deleted = 0 AND tt.tag_id IN (" + placeholders + ")"
+                    + " GROUP BY tt.topic_id HAVING COUNT(DISTINCT tt.tag_id) = " + distinctTagIds.size() + ")", params);
+        } else {
+            queryWrapper.exists("SELECT 1 FROM topic_tag tt WHERE tt.topic_id = topic.id"
+                    + " AND tt.deleted = 0 AND tt.tag_id IN (" + placeholders + ")", params);
+        }
+    }
+
+    /**
+     * 根据ID获取Topic详情，优先从缓存读取
      *
      * @param id Topic ID
      * @return Topic详情
      */
     public TopicDTO getTopicDtoById(Long id) {
+        return topicDtoCache.get(id, this::loadTopicDto);
+    }
+
+    /**
+     * 根据ID获取Topic详情及其版本标识，用于详情接口的条件请求
+     *
+     * @param id Topic ID
+     * @return Topic详情及版本标识
+     */
+    public TopicDtoCache.VersionedTopic getVersionedTopicDto(Long id) {
+        return topicDtoCache.getVersioned(id, this::loadTopicDto);
+    }
+
+    /**
+     * 从数据库加载Topic详情
+     */
+    private TopicDTO loadTopicDto(Long id) {
         Topic topic = this.getById(id);
         if (topic == null || topic.getDeleted() != 0) {
             throw new RuntimeException("Topic不存在");
@@ -143,15 +359,18 @@ public class TopicService extends ServiceImpl<TopicMapper, Topic> {
         topic.setDeleted(0);
 
         if (this.save(topic)) {
+            topicIndexService.onTopicSaved(topic.getSystemId(), topic.getId(), null, topic.getPath());
+            fullTextSearchService.onTopicsChanged(List.of(topic.getId()));
+
             // 处理标签关联
             if (request.getTagIds() != null && !request.getTagIds().isEmpty()) {
                 saveTopicTags(topic.getId(), request.getTagIds());
                 // 更新标签使用次数统计
-                updateTagsUsageCount(request.getTagIds());
+                usageCounterBuffer.addTagUsages(request.getTagIds(), 1);
             }
 
             // 更新分组Topic数量统计
-            updateGroupTopicCount(topic.getGroupId());
+            usageCounterBuffer.addGroupTopics(topic.getGroupId(), 1);
 
             return convertToDTO(topic);
         } else {
@@ -186,31 +405,34 @@ public class TopicService extends ServiceImpl<TopicMapper, Topic> {
         }
 
         // 更新Topic
+        String oldPath = existingTopic.getPath();
+        Long oldGroupId = existingTopic.getGroupId();
         BeanUtils.copyProperties(request, existingTopic);
         existingTopic.setUpdatedAt(LocalDateTime.now());
 
         if (this.updateById(existingTopic)) {
+            if (!oldPath.equals(existingTopic.getPath())) {
+                topicIndexService.onTopicSaved(existingTopic.getSystemId(), id, oldPath, existingTopic.getPath());
+            }
+            fullTextSearchService.onTopicsChanged(List.of(id));
+            topicDtoCache.evictTopics(List.of(id));
+
             // 获取原有标签ID列表
             List<Long> oldTagIds = getTagsByTopicId(id).stream()
                     .map(TagDTO::getId)
                     .collect(Collectors.toList());
 
-            // 获取原有分组ID
-            Long oldGroupId = existingTopic.getGroupId();
-
             // 更新标签关联
             updateTopicTags(id, request.getTagIds());
 
             // 更新标签使用次数统计（包括新旧标签）
-            updateTagsUsageCount(oldTagIds);
-            if (request.getTagIds() != null && !request.getTagIds().isEmpty()) {
-                updateTagsUsageCount(request.getTagIds());
-            }
+            usageCounterBuffer.addTagUsages(oldTagIds, -1);
+            usageCounterBuffer.addTagUsages(request.getTagIds(), 1);
 
             // 如果分组发生变更，更新相关分组的Topic数量统计
-            if (!oldGroupId.equals(request.getGroupId())) {
-                updateGroupTopicCount(oldGroupId);
-                updateGroupTopicCount(request.getGroupId());
+            if (!Objects.equals(oldGroupId, existingTopic.getGroupId())) {
+                usageCounterBuffer.addGroupTopics(oldGroupId, -1);
+                usageCounterBuffer.addGroupTopics(existingTopic.getGroupId(), 1);
             }
 
             return convertToDTO(existingTopic);
@@ -235,6 +457,10 @@ public class TopicService extends ServiceImpl<TopicMapper, Topic> {
         topic.setUpdatedAt(LocalDateTime.now());
 
         if (this.updateById(topic)) {
+            topicIndexService.onTopicsRemoved(topic.getSystemId(), Map.of(id, topic.getPath()));
+            fullTextSearchService.onTopicsRemoved(List.of(id));
+            topicDtoCache.evictTopics(List.of(id));
+
             // 获取要删除的标签ID列表
             List<Long> tagIds = getTagsByTopicId(id).stream()
                     .map(TagDTO::getId)
@@ -250,10 +476,10 @@ public class TopicService extends ServiceImpl<TopicMapper, Topic> {
             topicTagService.updateBatchById(topicTags);
 
             // 更新标签使用次数统计
-            updateTagsUsageCount(tagIds);
+            usageCounterBuffer.addTagUsages(tagIds, -1);
 
             // 更新分组Topic数量统计
-            updateGroupTopicCount(topic.getGroupId());
+            usageCounterBuffer.addGroupTopics(topic.getGroupId(), -1);
         } else {
             throw new RuntimeException("删除Topic失败");
         }
@@ -281,6 +507,116 @@ public class TopicService extends ServiceImpl<TopicMapper, Topic> {
         }
     }
 
+    /**
+     * 按筛选条件批量操作Topic
+     * 按主键顺序逐批取出命中的Topic（只查询ID和分组），每批在单独的事务中执行操作，
+     * 内存占用与命中数量无关；有关键字时全文索引的全部命中按主键排序后分批，每批与其他条件一起查询。
+     * 批次之间不是原子的，中途失败时之前的批次已生效，所有操作都是幂等的，可用相同条件重新执行
+     *
+     * @param request 批量操作请求
+     * @return 操作结果
+     */
+    public TopicBatchResult batchOperationByFilter(TopicFilterBatchRequest request) {
+        long startTime = System.currentTimeMillis();
+        TopicSearchRequest filter = request.getFilter();
+        TopicBatchResult result = new TopicBatchResult();
+        result.setAction(request.getAction());
+        result.setDryRun(Boolean.TRUE.equals(request.getDryRun()));
+
+        // 先校验操作参数，试运行时也能发现参数错误
+        Consumer<List<Topic>> action = resolveBatchAction(request, result.isDryRun());
+        List<Long> keywordIds = null;
+        if (StringUtils.hasText(filter.getKeyword())) {
+            keywordIds = new ArrayList<>(fullTextSearchService.searchTopics(filter.getKeyword()));
+            keywordIds.sort(null);
+        }
+        if (result.isDryRun()) {
+            result.setMatchedCount(keywordIds == null ? this.count(buildSearchWrapper(filter))
+                    : RankedPaging.filter(keywordIds, ids -> this.listObjs(buildSearchWrapper(filter).select("id")
+                    .in("id", ids), id -> ((Number) id).longValue())).size());
+            result.setElapsedMillis(System.currentTimeMillis() - startTime);
+            return result;
+        }
+
+        if (keywordIds != null) {
+            for (int from = 0; from < keywordIds.size(); from += FILTER_BATCH_CHUNK_SIZE) {
+                List<Long> ids = keywordIds.subList(from, Math.min(from + FILTER_BATCH_CHUNK_SIZE, keywordIds.size()));
+                QueryWrapper<Topic> queryWrapper = buildSearchWrapper(filter);
+                queryWrapper.select("id", "group_id").in("id", ids).orderByAsc("id");
+                runBatchChunk(this.list(queryWrapper), action, request, result);
+            }
+        } else {
+            Long lastId = null;
+            while (true) {
+                QueryWrapper<Topic> queryWrapper = buildSearchWrapper(filter);
+                queryWrapper.select("id", "group_id");
+                if (lastId != null) {
+                    queryWrapper.gt("id", lastId);
+                }
+                queryWrapper.orderByAsc("id").last("LIMIT " + FILTER_BATCH_CHUNK_SIZE);
+                List<Topic> chunk = this.list(queryWrapper);
+                runBatchChunk(chunk, action, request, result);
+                if (chunk.size() < FILTER_BATCH_CHUNK_SIZE) {
+                    break;
+                }
+                lastId = chunk.get(chunk.size() - 1).getId();
+            }
+        }
+
+        result.setMatchedCount(result.getProcessedCount());
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        log.info("按筛选条件批量操作完成，操作: {}，Topic数: {}，批次: {}，耗时: {}ms", request.getAction(),
+                result.getProcessedCount(), result.getChunkCount(), result.getElapsedMillis());
+        return result;
+    }
+
+    /**
+     * 在单独的事务中对一批Topic执行操作并累计结果，空批次直接跳过
+     */
+    private void runBatchChunk(List<Topic> chunk, Consumer<List<Topic>> action, TopicFilterBatchRequest request,
+                               TopicBatchResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> action.accept(chunk));
+        } catch (RuntimeException e) {
+            log.error("按筛选条件批量操作失败，操作: {}，已处理: {}", request.getAction(), result.getProcessedCount(), e);
+            throw new RuntimeException("批量操作失败，已处理 " + result.getProcessedCount() + " 个Topic: " + e.getMessage());
+        }
+        result.setProcessedCount(result.getProcessedCount() + chunk.size());
+        result.setChunkCount(result.getChunkCount() + 1);
+    }
+
+    /**
+     * 校验操作参数并返回对一批Topic执行的操作
+     */
+    private Consumer<List<Topic>> resolveBatchAction(TopicFilterBatchRequest request, boolean dryRun) {
+        return switch (request.getAction()) {
+            case "assignGroup" -> chunk -> assignGroup(chunk, request.getGroupId());
+            case "addTags" -> {
+                requireTagIds(request.getTagIds());
+                yield chunk -> batchAddTags(chunk.stream().map(Topic::getId).toList(), request.getTagIds());
+            }
+            case "removeTags" -> {
+                requireTagIds(request.getTagIds());
+                yield chunk -> batchRemoveTags(chunk.stream().map(Topic::getId).toList(), request.getTagIds());
+            }
+            case "updatePayload" -> {
+                // 模板只读取一次，试运行不计入模板使用次数
+                String payloadDoc = dryRun ? null : resolvePayloadDoc(request.getTemplateId(), request.getPayloadDoc());
+                yield chunk -> updatePayload(chunk.stream().map(Topic::getId).toList(), payloadDoc);
+            }
+            default -> throw new RuntimeException("不支持的操作类型");
+        };
+    }
+
+    private static void requireTagIds(List<Long> tagIds) {
+        if (tagIds == null || tagIds.isEmpty()) {
+            throw new RuntimeException("标签ID列表不能为空");
+        }
+    }
+
     /**
      * 获取Topic的标签列表
      *
@@ -320,8 +656,9 @@ public class TopicService extends ServiceImpl<TopicMapper, Topic> {
 
         if (!newTagIds.isEmpty()) {
             saveTopicTags(id, newTagIds);
+            topicDtoCache.evictTopics(List.of(id));
             // 更新标签使用次数统计
-            updateTagsUsageCount(newTagIds);
+            usageCounterBuffer.addTagUsages(newTagIds, 1);
         }
     }
 
@@ -349,9 +686,12 @@ public class TopicService extends ServiceImpl<TopicMapper, Topic> {
         });
 
         topicTagService.updateBatchById(topicTags);
+        if (!topicTags.isEmpty()) {
+            topicDtoCache.evictTopics(List.of(id));
+        }
 
         // 更新标签使用次数统计
-        updateTagsUsageCount(tagIds);
+        usageCounterBuffer.addTagUsages(topicTags.stream().map(TopicTag::getTagId).toList(), -1);
     }
 
     // ========== 私有辅助方法 ==========
@@ -360,73 +700,22 @@ public class TopicService extends ServiceImpl<TopicMapper, Topic> {
      * 转换Topic实体为DTO
      */
     private TopicDTO convertToDTO(Topic topic) {
-        TopicDTO dto = new TopicDTO();
-        BeanUtils.copyProperties(topic, dto);
-
-        // 设置业务名称
-        if (topic.getGroupId() != null) {
-            Group group = groupService.getById(topic.getGroupId());
-            if (group != null && group.getDeleted() == 0) {
-                dto.setGroupName(group.getName());
-            }
-        }
-
-        // 设置标签列表
-        dto.setTags(getTagsByTopicId(topic.getId()));
-
-        // 设置状态
-        dto.setStatus(topic.getDeleted() != 0 ? "disabled" : "enabled");
-
-        return dto;
+        return topicDtoAssembler.toDTO(topic);
     }
 
     /**
      * 根据Topic ID获取标签列表
      */
     private List<TagDTO> getTagsByTopicId(Long topicId) {
-        QueryWrapper<TopicTag> queryWrapper = new QueryWrapper<>();
-        queryWrapper.lambda().eq(TopicTag::getTopicId, topicId).eq(TopicTag::getDeleted, false);
-        List<TopicTag> topicTags = topicTagService.list(queryWrapper);
-
-        if (topicTags.isEmpty()) {
-            return new ArrayList<>();
-        }
-
-        List<Long> tagIds = topicTags.stream()
-                .map(TopicTag::getTagId)
-                .collect(Collectors.toList());
-
-        List<Tag> tags = tagService.listByIds(tagIds);
-        return tags.stream()
-                .filter(tag -> tag.getDeleted() == 0)
-                .map(this::convertTagToDTO)
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * 转换Tag实体为DTO
-     */
-    private TagDTO convertTagToDTO(Tag tag) {
-        TagDTO dto = new TagDTO();
-        BeanUtils.copyProperties(tag, dto);
-        return dto;
+        return topicDtoAssembler.getTags(topicId);
     }
 
     /**
      * 保存Topic标签关联
      */
     private void saveTopicTags(Long topicId, List<Long> tagIds) {
-        List<TopicTag> topicTags = tagIds.stream()
-                .map(tagId -> {
-                    TopicTag topicTag = new TopicTag();
-                    topicTag.setTopicId(topicId);
-                    topicTag.setTagId(tagId);
-                    topicTag.setCreatedAt(LocalDateTime.now());
-                    topicTag.setDeleted(0);
-                    return topicTag;
-                })
-                .collect(Collectors.toList());
-        topicTagService.saveBatch(topicTags);
+        // 曾经删除过的关联直接恢复，避免与唯一键 uk_topic_tag 冲突
+        topicTagMapper.insertOrRevive(List.of(topicId), tagIds.stream().distinct().toList());
     }
 
     /**
@@ -453,70 +742,104 @@ public class TopicService extends ServiceImpl<TopicMapper, Topic> {
      */
     @Transactional(rollbackFor = Exception.class)
     public void batchAssignGroup(List<Long> topicIds, Long groupId) {
-        List<Topic> topics = this.listByIds(topicIds);
-
-        // 收集所有涉及的分组ID（包括原分组和新分组）
-        Set<Long> affectedGroupIds = topics.stream()
-                .map(Topic::getGroupId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-        affectedGroupIds.add(groupId);
-
-        topics.forEach(topic -> {
-            topic.setGroupId(groupId);
-            topic.setUpdatedAt(LocalDateTime.now());
-        });
-        this.updateBatchById(topics);
+        assignGroup(this.listByIds(topicIds), groupId);
+    }
 
-        // 更新所有涉及分组的Topic数量统计
-        for (Long affectedGroupId : affectedGroupIds) {
-            updateGroupTopicCount(affectedGroupId);
+    /**
+     * 将一批Topic分配到业务，只更新分组发生变化的Topic
+     */
+    private void assignGroup(List<Topic> topics, Long groupId) {
+        List<Long> changedIds = new ArrayList<>();
+        for (Topic topic : topics) {
+            if (!Objects.equals(topic.getGroupId(), groupId)) {
+                // 更新原分组和新分组的Topic数量统计
+                usageCounterBuffer.addGroupTopics(topic.getGroupId(), -1);
+                usageCounterBuffer.addGroupTopics(groupId, 1);
+                changedIds.add(topic.getId());
+            }
         }
+        if (changedIds.isEmpty()) {
+            return;
+        }
+        this.update(new LambdaUpdateWrapper<Topic>()
+                .in(Topic::getId, changedIds)
+                .set(Topic::getGroupId, groupId)
+                .set(Topic::getUpdatedAt, LocalDateTime.now()));
+        topicDtoCache.evictTopics(changedIds);
     }
 
     /**
      * 批量添加标签
      */
     private void batchAddTags(List<Long> topicIds, List<Long> tagIds) {
-        for (Long topicId : topicIds) {
-            // 获取现有标签
-            List<Long> existingTagIds = getTagsByTopicId(topicId).stream()
-                    .map(TagDTO::getId)
-                    .toList();
-
-            // 过滤出新标签
-            List<Long> newTagIds = tagIds.stream()
-                    .filter(tagId -> !existingTagIds.contains(tagId))
-                    .collect(Collectors.toList());
+        List<Long> distinctTagIds = distinctIds(tagIds);
+        if (distinctTagIds.isEmpty()) {
+            return;
+        }
+        // 每批先按标签统计已有关联，插入或恢复后每个标签在这批Topic上都有关联，差值即新增数量
+        for (List<Long> chunk : tagLinkChunks(topicIds, distinctTagIds.size())) {
+            Map<Long, Long> existing = countActiveLinks(chunk, distinctTagIds);
+            topicTagMapper.insertOrRevive(chunk, distinctTagIds);
+            topicDtoCache.evictTopics(chunk);
 
-            if (!newTagIds.isEmpty()) {
-                saveTopicTags(topicId, newTagIds);
+            // 更新标签使用次数统计
+            for (Long tagId : distinctTagIds) {
+                usageCounterBuffer.addTagUsages(tagId, chunk.size() - existing.getOrDefault(tagId, 0L));
             }
         }
-
-        // 更新标签使用次数统计
-        updateTagsUsageCount(tagIds);
     }
 
     /**
      * 批量移除标签
      */
     private void batchRemoveTags(List<Long> topicIds, List<Long> tagIds) {
-        for (Long topicId : topicIds) {
-            QueryWrapper<TopicTag> queryWrapper = new QueryWrapper<>();
-            queryWrapper.lambda().eq(TopicTag::getTopicId, topicId)
-                    .in(TopicTag::getTagId, tagIds)
-                    .eq(TopicTag::getDeleted, false);
+        List<Long> distinctTagIds = distinctIds(tagIds);
+        if (distinctTagIds.isEmpty()) {
+            return;
+        }
+        // 每批先按标签统计已有关联，即将被删除的数量
+        for (List<Long> chunk : tagLinkChunks(topicIds, distinctTagIds.size())) {
+            Map<Long, Long> existing = countActiveLinks(chunk, distinctTagIds);
+            if (existing.isEmpty()) {
+                continue;
+            }
+            topicTagMapper.softDeleteLinks(chunk, distinctTagIds);
+            topicDtoCache.evictTopics(chunk);
 
-            List<TopicTag> topicTags = topicTagService.list(queryWrapper);
-            topicTags.forEach(topicTag -> {
-                topicTag.setDeleted(1);
-            });
-            topicTagService.updateBatchById(topicTags);
+            // 更新标签使用次数统计
+            existing.forEach((tagId, count) -> usageCounterBuffer.addTagUsages(tagId, -count));
         }
+    }
 
-        // 更新标签使用次数统计
-        updateTagsUsageCount(tagIds);
+    /**
+     * 去重并去掉空值
+     */
+    private static List<Long> distinctIds(List<Long> ids) {
+        return ids == null ? List.of() : ids.stream().filter(Objects::nonNull).distinct().toList();
+    }
+
+    /**
+     * 将Topic ID去重后分批，每批Topic数 × 标签数不超过 TAG_LINK_CHUNK_SIZE
+     */
+    private static List<List<Long>> tagLinkChunks(List<Long> topicIds, int tagCount) {
+        List<Long> distinctTopicIds = distinctIds(topicIds);
+        int chunkSize = Math.max(1, TAG_LINK_CHUNK_SIZE / tagCount);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinctTopicIds.size(); from += chunkSize) {
+            chunks.add(distinctTopicIds.subList(from, Math.min(from + chunkSize, distinctTopicIds.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * 标签ID -> 在这批Topic上的未删除关联数量
+     */
+    private Map<Long, Long> countActiveLinks(List<Long> topicIds, List<Long> tagIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (TagLinkCountRow row : topicTagMapper.countActiveLinks(topicIds, tagIds)) {
+            counts.put(row.getTagId(), row.getLinkCount());
+        }
+        return counts;
     }
 
     /**
@@ -524,30 +847,40 @@ public class TopicService extends ServiceImpl<TopicMapper, Topic> {
      */
     @Transactional(rollbackFor = Exception.class)
     public void batchUpdatePayload(List<Long> topicIds, Long templateId, String payloadDoc) {
-        List<Topic> topics = this.listByIds(topicIds);
-
-        String finalPayloadDoc = payloadDoc;
-
-        // 如果提供了模板ID，则从模板获取内容
-        if (templateId != null) {
-            try {
-                PayloadTemplateDTO template = payloadTemplateService.getTemplateDtoById(templateId);
-                finalPayloadDoc = template.getPayload();
+        updatePayload(topicIds, resolvePayloadDoc(templateId, payloadDoc));
+    }
 
-                // 增加模板使用次数
-                payloadTemplateService.useTemplate(templateId);
-            } catch (Exception e) {
-                throw new RuntimeException("获取Payload模板失败: " + e.getMessage());
-            }
+    /**
+     * 确定要写入的Payload，提供了模板ID时从模板获取内容并增加模板使用次数
+     */
+    private String resolvePayloadDoc(Long templateId, String payloadDoc) {
+        if (templateId == null) {
+            return payloadDoc;
         }
+        try {
+            PayloadTemplateDTO template = payloadTemplateService.getTemplateDtoById(templateId);
 
-        // 批量更新Topic的payloadDoc字段
-        for (Topic topic : topics) {
-            topic.setPayloadDoc(finalPayloadDoc);
-            topic.setUpdatedAt(LocalDateTime.now());
+            // 增加模板使用次数
+            payloadTemplateService.useTemplate(templateId);
+            return template.getPayload();
+        } catch (Exception e) {
+            throw new RuntimeException("获取Payload模板失败: " + e.getMessage());
         }
+    }
 
-        this.updateBatchById(topics);
+    /**
+     * 用一条UPDATE批量更新Topic的payloadDoc字段
+     */
+    private void updatePayload(List<Long> topicIds, String payloadDoc) {
+        if (topicIds.isEmpty()) {
+            return;
+        }
+        this.update(new LambdaUpdateWrapper<Topic>()
+                .in(Topic::getId, topicIds)
+                .set(Topic::getPayloadDoc, payloadDoc)
+                .set(Topic::getUpdatedAt, LocalDateTime.now()));
+        fullTextSearchService.onTopicsChanged(topicIds);
+        topicDtoCache.evictTopics(topicIds);
     }
 
     /**
@@ -556,8 +889,18 @@ public class TopicService extends ServiceImpl<TopicMapper, Topic> {
      * @param systemId EMQX系统ID
      * @return 同步结果
      */
-    @Transactional(rollbackFor = Exception.class)
     public TopicSyncResult syncTopicsFromEmqx(Long systemId) {
+        return syncTopicsFromEmqx(systemId, TopicSyncProgress.NONE);
+    }
+
+    /**
+     * 从EMQX系统同步Topic数据，拉取和写入过程中回调进度
+     *
+     * @param systemId EMQX系统ID
+     * @param progress 进度回调，已取消时抛出CancellationException
+     * @return 同步结果
+     */
+    public TopicSyncResult syncTopicsFromEmqx(Long systemId, TopicSyncProgress progress) {
         try {
             // 1. 获取EMQX系统信息
             EmqxSystem emqxSystem = emqxSystemService.getById(systemId);
@@ -570,151 +913,22 @@ public class TopicService extends ServiceImpl<TopicMapper, Topic> {
             }
 
             // 2. 调用EMQX API获取订阅信息
-            Set<String> topicPaths = emqxService.fetchTopicsFromEmqx(emqxSystem);
+            TopicFetchResult fetchResult = emqxService.fetchTopicsFromEmqx(emqxSystem, progress);
 
-            if (topicPaths.isEmpty()) {
+            // 空结果更可能是EMQX异常，不据此将所有Topic判定为消失
+            if (fetchResult.getTopicPaths().isEmpty()) {
                 return TopicSyncResult.success(0, 0);
             }
 
-            // 3. 同步到数据库
-            return syncTopicsToDatabase(topicPaths, systemId);
+            // 3. 与数据库比对，分批写入差异
+            return topicSyncWriter.write(systemId, fetchResult, progress);
 
+        } catch (CancellationException e) {
+            log.info("同步EMQX系统Topic已取消，systemId: {}", systemId);
+            throw e;
         } catch (Exception e) {
             log.error("同步EMQX系统Topic失败，systemId: {}", systemId, e);
             throw new RuntimeException("同步失败: " + e.getMessage());
         }
     }
-
-
-    /**
-     * 将Topic数据同步到数据库
-     *
-     * @param topicPaths Topic路径集合
-     * @param systemId   系统ID
-     * @return 同步结果
-     */
-    private TopicSyncResult syncTopicsToDatabase(Set<String> topicPaths, Long systemId) {
-        int syncedCount = 0;
-        int updatedCount = 0;
-
-        for (String topicPath : topicPaths) {
-            try {
-                // 检查Topic是否已存在
-                QueryWrapper<Topic> queryWrapper = new QueryWrapper<>();
-                queryWrapper.lambda().eq(Topic::getPath, topicPath)
-                        .eq(Topic::getSystemId, systemId)
-                        .eq(Topic::getDeleted, false);
-
-                Topic existingTopic = this.getOne(queryWrapper);
-
-                if (existingTopic != null) {
-                    // 更新现有Topic
-                    existingTopic.setLastActivity(LocalDateTime.now());
-                    existingTopic.setUpdatedAt(LocalDateTime.now());
-                    this.updateById(existingTopic);
-                    updatedCount++;
-                } else {
-                    // 创建新Topic
-                    Topic newTopic = new Topic();
-                    newTopic.setName(generateTopicName(topicPath));
-                    newTopic.setPath(topicPath);
-                    newTopic.setSystemId(systemId);
-                    newTopic.setLastActivity(LocalDateTime.now());
-                    newTopic.setCreatedAt(LocalDateTime.now());
-                    newTopic.setUpdatedAt(LocalDateTime.now());
-                    newTopic.setDeleted(0);
-
-                    this.save(newTopic);
-                    syncedCount++;
-                }
-
-            } catch (Exception e) {
-                log.error("同步Topic到数据库失败，path: {}", topicPath, e);
-            }
-        }
-
-        log.info("Topic同步完成，新增: {}，更新: {}", syncedCount, updatedCount);
-
-        return TopicSyncResult.success(syncedCount, updatedCount);
-    }
-
-    /**
-     * 根据Topic路径生成Topic名称
-     *
-     * @param topicPath Topic路径
-     * @return Topic名称
-     */
-    private String generateTopicName(String topicPath) {
-        // 取路径的最后一段作为名称
-        String[] parts = topicPath.split("/");
-        if (parts.length > 0) {
-            return parts[parts.length - 1];
-        }
-        return topicPath;
-    }
-
-    /**
-     * 更新分组的Topic数量统计
-     *
-     * @param groupId 分组ID
-     */
-    private void updateGroupTopicCount(Long groupId) {
-        if (groupId == null) {
-            return;
-        }
-
-        try {
-            QueryWrapper<Topic> queryWrapper = new QueryWrapper<>();
-            queryWrapper.lambda().eq(Topic::getGroupId, groupId).eq(Topic::getDeleted, false);
-            long topicCount = this.count(queryWrapper);
-
-            Group group = groupService.getById(groupId);
-            if (group != null) {
-                group.setTopicCount((int) topicCount);
-                groupService.updateById(group);
-            }
-        } catch (Exception e) {
-            log.warn("更新分组Topic数量统计失败，groupId: {}", groupId, e);
-        }
-    }
-
-    /**
-     * 更新标签的使用次数统计
-     *
-     * @param tagId 标签ID
-     */
-    private void updateTagUsageCount(Long tagId) {
-        if (tagId == null) {
-            return;
-        }
-
-        try {
-            QueryWrapper<TopicTag> queryWrapper = new QueryWrapper<>();
-            queryWrapper.lambda().eq(TopicTag::getTagId, tagId).eq(TopicTag::getDeleted, false);
-            long usageCount = topicTagService.count(queryWrapper);
-
-            Tag tag = tagService.getById(tagId);
-            if (tag != null) {
-                tag.setUsageCount((int) usageCount);
-                tagService.updateById(tag);
-            }
-        } catch (Exception e) {
-            log.warn("更新标签使用次数统计失败，tagId: {}", tagId, e);
-        }
-    }
-
-    /**
-     * 批量更新标签的使用次数统计
-     *
-     * @param tagIds 标签ID列表
-     */
-    private void updateTagsUsageCount(List<Long> tagIds) {
-        if (tagIds == null || tagIds.isEmpty()) {
-            return;
-        }
-
-        for (Long tagId : tagIds) {
-            updateTagUsageCount(tagId);
-        }
-    }
 }
\ No newline at end of file
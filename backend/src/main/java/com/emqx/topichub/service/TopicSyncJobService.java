@@ -0,0 +1,366 @@
+package com.emqx.topichub.service;
+
+import com.emqx.topichub.config.EmqxProperties;
+import com.emqx.topichub.dto.TopicSyncJobDTO;
+import com.emqx.topichub.dto.TopicSyncResult;
+import com.emqx.topichub.entity.EmqxSystem;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Topic同步任务服务
+ * 同步请求只登记任务并立即返回任务ID，实际同步在有界线程池上执行，
+ * 调用方通过任务ID轮询阶段和进度，或在页与批之间取消任务。
+ * 同一系统同时只运行一个同步任务，重复提交返回正在运行的任务。
+ * 任务开始前获取该系统的Redis同步租约，多实例部署时同一系统只在一个实例上同步，
+ * 运行期间定时续期，每拉取一页、写入一批前校验租约，失去租约即停止
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TopicSyncJobService {
+
+    private static final String STATUS_ONLINE = "online";
+
+    private final TopicService topicService;
+    private final EmqxSystemService emqxSystemService;
+    private final EmqxProperties emqxProperties;
+    private final TopicSyncLeaseManager topicSyncLeaseManager;
+
+    /**
+     * 所有未过期的任务，任务ID -> 任务
+     */
+    private final Map<String, SyncJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * 各系统正在排队或运行的任务，系统ID -> 任务
+     */
+    private final Map<Long, SyncJob> activeJobs = new ConcurrentHashMap<>();
+
+    private ThreadPoolTaskExecutor executor;
+
+    /**
+     * 续期同步租约的专用调度线程，不与其他定时任务共用默认调度线程，
+     * 避免统计采集等任务阻塞超过租约有效期导致租约过期
+     */
+    private ThreadPoolTaskScheduler leaseScheduler;
+
+    @PostConstruct
+    public void init() {
+        int concurrency = emqxProperties.getSync().getJobConcurrency();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("topic-sync-");
+        executor.initialize();
+
+        leaseScheduler = new ThreadPoolTaskScheduler();
+        leaseScheduler.setPoolSize(1);
+        leaseScheduler.setThreadNamePrefix("topic-sync-lease-");
+        leaseScheduler.initialize();
+        Duration renewInterval = emqxProperties.getSync().getLeaseTtl().dividedBy(3);
+        leaseScheduler.scheduleWithFixedDelay(this::renewLeases, renewInterval);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        activeJobs.values().forEach(job -> job.cancelled = true);
+        executor.shutdown();
+        leaseScheduler.shutdown();
+    }
+
+    /**
+     * 提交同步任务
+     *
+     * @param systemId EMQX系统ID
+     * @return 新提交的任务，该系统已有任务在运行时返回该任务
+     */
+    public TopicSyncJobDTO submit(Long systemId) {
+        EmqxSystem emqxSystem = emqxSystemService.getById(systemId);
+        if (emqxSystem == null) {
+            throw new RuntimeException("EMQX系统不存在，ID: " + systemId);
+        }
+        return submit(emqxSystem);
+    }
+
+    /**
+     * 提交同步任务
+     *
+     * @param emqxSystem EMQX系统
+     * @return 新提交的任务，该系统已有任务在运行时返回该任务
+     */
+    public TopicSyncJobDTO submit(EmqxSystem emqxSystem) {
+        if (!STATUS_ONLINE.equals(emqxSystem.getStatus())) {
+            throw new RuntimeException("EMQX系统离线，无法同步数据: " + emqxSystem.getName());
+        }
+
+        Long systemId = emqxSystem.getId();
+        SyncJob created = new SyncJob(systemId);
+        SyncJob job = activeJobs.putIfAbsent(systemId, created);
+        if (job != null) {
+            log.info("系统 {} 已有同步任务在运行: {}", systemId, job.jobId);
+            return job.toDTO();
+        }
+
+        jobs.put(created.jobId, created);
+        try {
+            executor.execute(() -> run(created));
+        } catch (RejectedExecutionException e) {
+            created.finish(Phase.FAILED, null, "同步任务提交失败");
+            activeJobs.remove(systemId, created);
+            throw new RuntimeException("同步任务提交失败");
+        }
+        log.info("提交同步任务: {}，系统ID: {}", created.jobId, systemId);
+        return created.toDTO();
+    }
+
+    /**
+     * 查询同步任务
+     *
+     * @param jobId 任务ID
+     * @return 任务阶段和进度
+     */
+    public TopicSyncJobDTO getJob(String jobId) {
+        return requireJob(jobId).toDTO();
+    }
+
+    /**
+     * 取消同步任务
+     * 正在执行的页请求和写入批次完成后停止，已提交的批次保留
+     *
+     * @param jobId 任务ID
+     * @return 任务阶段和进度
+     */
+    public TopicSyncJobDTO cancel(String jobId) {
+        SyncJob job = requireJob(jobId);
+        if (!job.isFinished()) {
+            job.cancelled = true;
+            log.info("取消同步任务: {}，系统ID: {}", jobId, job.systemId);
+        }
+        return job.toDTO();
+    }
+
+    /**
+     * 本实例是否有该系统的同步任务在排队或运行
+     *
+     * @param systemId EMQX系统ID
+     * @return 有任务时返回true
+     */
+    public boolean isActive(Long systemId) {
+        return activeJobs.containsKey(systemId);
+    }
+
+    /**
+     * 定时续期运行中任务的同步租约，续期失败的任务在下一页或下一批前停止
+     */
+    void renewLeases() {
+        for (SyncJob job : activeJobs.values()) {
+            TopicSyncLeaseManager.SyncLease lease = job.lease;
+            try {
+                if (lease != null && !job.isFinished() && !topicSyncLeaseManager.renew(lease)) {
+                    job.leaseLost = true;
+                    log.warn("同步任务 {} 失去系统 {} 的同步租约，围栏令牌: {}", job.jobId, job.systemId, lease.fencingToken());
+                }
+            } catch (RuntimeException e) {
+                // 异常会终止后续的周期执行，这里只记录，下一轮重试
+                log.warn("续期同步任务 {} 的租约失败: {}", job.jobId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 定时清理超过保留时长的已结束任务
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void removeExpiredJobs() {
+        long expireBefore = System.currentTimeMillis() - emqxProperties.getSync().getJobRetention().toMillis();
+        jobs.values().removeIf(job -> job.isFinished() && job.finishedMillis < expireBefore);
+    }
+
+    private SyncJob requireJob(String jobId) {
+        SyncJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("同步任务不存在或已过期: " + jobId);
+        }
+        return job;
+    }
+
+    private void run(SyncJob job) {
+        try {
+            if (job.cancelled) {
+                job.finish(Phase.CANCELLED, null, null);
+                return;
+            }
+            job.lease = topicSyncLeaseManager.tryAcquire(job.systemId);
+            if (job.lease == null) {
+                log.info("系统 {} 正在其他实例上同步，任务 {} 不执行", job.systemId, job.jobId);
+                job.finish(Phase.FAILED, null, "该系统正在其他实例上同步");
+                return;
+            }
+            job.startedMillis = System.currentTimeMillis();
+            job.startedAt = LocalDateTime.now();
+            TopicSyncResult result = topicService.syncTopicsFromEmqx(job.systemId, job);
+            topicSyncLeaseManager.recordSyncCompleted(job.systemId);
+            job.finish(Phase.COMPLETED, result, null);
+            log.info("同步任务完成: {}，系统ID: {}，耗时: {}ms",
+                    job.jobId, job.systemId, job.finishedMillis - job.startedMillis);
+        } catch (CancellationException e) {
+            job.finish(Phase.CANCELLED, null, null);
+        } catch (Exception e) {
+            log.error("同步任务失败: {}，系统ID: {}", job.jobId, job.systemId, e);
+            job.finish(Phase.FAILED, null, e.getMessage());
+        } finally {
+            if (job.lease != null) {
+                topicSyncLeaseManager.release(job.lease);
+            }
+            activeJobs.remove(job.systemId, job);
+        }
+    }
+
+    /**
+     * 任务阶段
+     */
+    private enum Phase {
+        PENDING, FETCHING, WRITING, COMPLETED, FAILED, CANCELLED
+    }
+
+    /**
+     * 同步任务，同时作为同步过程的进度回调
+     * 由同步线程写入、查询线程读取，字段均为volatile或原子类型
+     */
+    private class SyncJob implements TopicSyncProgress {
+
+        private final String jobId = UUID.randomUUID().toString().replace("-", "");
+        private final Long systemId;
+
+        private volatile Phase phase = Phase.PENDING;
+        private volatile boolean cancelled;
+        private volatile TopicSyncLeaseManager.SyncLease lease;
+        private volatile boolean leaseLost;
+
+        private final AtomicInteger pagesFetched = new AtomicInteger();
+        private volatile Integer totalPages;
+        private final AtomicLong topicsFetched = new AtomicLong();
+        private volatile Integer totalRows;
+        private final AtomicLong rowsWritten = new AtomicLong();
+
+        private volatile long startedMillis;
+        private volatile long writeStartedMillis;
+        private volatile long finishedMillis;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+        private volatile TopicSyncResult result;
+
+        SyncJob(Long systemId) {
+            this.systemId = systemId;
+        }
+
+        @Override
+        public void onFetchStarted() {
+            // token失效重试时会从第一页重新拉取
+            phase = Phase.FETCHING;
+            pagesFetched.set(0);
+            topicsFetched.set(0);
+        }
+
+        @Override
+        public void onPageFetched(Integer totalPages, int topicCount) {
+            this.totalPages = totalPages;
+            pagesFetched.incrementAndGet();
+            topicsFetched.addAndGet(topicCount);
+        }
+
+        @Override
+        public void onWriteStarted(int totalRows) {
+            this.totalRows = totalRows;
+            this.writeStartedMillis = System.currentTimeMillis();
+            this.phase = Phase.WRITING;
+        }
+
+        @Override
+        public void onRowsWritten(int rows) {
+            rowsWritten.addAndGet(rows);
+        }
+
+        @Override
+        public Long getFencingToken() {
+            TopicSyncLeaseManager.SyncLease current = lease;
+            return current != null ? current.fencingToken() : null;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled || leaseLost;
+        }
+
+        /**
+         * 除检查取消外，每次都向Redis校验租约仍由本任务持有，避免租约过期后与新持有者并发写入
+         */
+        @Override
+        public void checkCancelled() {
+            if (cancelled) {
+                throw new CancellationException("同步已取消");
+            }
+            if (lease != null && (leaseLost || !topicSyncLeaseManager.renew(lease))) {
+                leaseLost = true;
+                throw new RuntimeException("同步租约已失效，停止同步");
+            }
+        }
+
+        boolean isFinished() {
+            return finishedMillis > 0;
+        }
+
+        void finish(Phase phase, TopicSyncResult result, String error) {
+            this.result = result;
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.finishedMillis = System.currentTimeMillis();
+            this.phase = phase;
+        }
+
+        TopicSyncJobDTO toDTO() {
+            long now = isFinished() ? finishedMillis : System.currentTimeMillis();
+            TopicSyncJobDTO dto = new TopicSyncJobDTO();
+            dto.setJobId(jobId);
+            dto.setSystemId(systemId);
+            dto.setPhase(phase.name());
+            dto.setFencingToken(lease != null ? lease.fencingToken() : null);
+            dto.setPagesFetched(pagesFetched.get());
+            dto.setTotalPages(totalPages);
+            dto.setTopicsFetched(topicsFetched.get());
+            dto.setTotalRows(totalRows);
+            dto.setRowsWritten(rowsWritten.get());
+            if (writeStartedMillis > 0) {
+                dto.setThroughput(rowsWritten.get() * 1000.0 / Math.max(1, now - writeStartedMillis));
+            }
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            dto.setElapsedMillis(startedMillis > 0 ? now - startedMillis : 0);
+            dto.setError(error);
+            dto.setResult(result);
+            return dto;
+        }
+    }
+}
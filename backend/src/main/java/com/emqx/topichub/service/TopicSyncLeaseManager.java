@@ -0,0 +1,194 @@
+package com.emqx.topichub.service;
+
+import com.emqx.topichub.config.EmqxProperties;
+import com.emqx.topichub.mapper.TopicSyncFenceMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Topic同步租约管理器
+ * 基于Redis的按系统互斥租约，保证多实例部署时同一EMQX系统同时只在一个实例上同步。
+ * 续期、校验和释放都比较完整的租约值，租约过期后被其他实例取得时，原持有者的下一次校验即失败。
+ * 获取租约后在数据库中递增该系统的围栏令牌（topic_sync_fence），同步写入的每批事务先加锁读取令牌，
+ * 与自己持有的不一致即回滚。原持有者停顿（如GC）期间租约被取得时，恢复后提交的批次也会被拒绝
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TopicSyncLeaseManager {
+
+    /**
+     * 租约键前缀，格式: emqx:sync:lease:{systemId}，值为 {实例ID}:{随机串}
+     */
+    private static final String LEASE_KEY_PREFIX = "emqx:sync:lease:";
+
+    /**
+     * 最近一次同步完成时间键前缀，格式: emqx:sync:last:{systemId}
+     */
+    private static final String LAST_SYNC_KEY_PREFIX = "emqx:sync:last:";
+
+    /**
+     * 租约值一致时续期
+     */
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('pexpire', KEYS[1], ARGV[2]) "
+                    + "end "
+                    + "return 0", Long.class);
+
+    /**
+     * 租约值一致时删除
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('del', KEYS[1]) "
+                    + "end "
+                    + "return 0", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final EmqxProperties emqxProperties;
+    private final TopicSyncFenceMapper topicSyncFenceMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 当前实例标识
+     */
+    private final String instanceId = ManagementFactory.getRuntimeMXBean().getName() + ":"
+            + UUID.randomUUID().toString().substring(0, 8);
+
+    /**
+     * 尝试获取系统的同步租约，获取成功后在数据库中递增围栏令牌
+     *
+     * @param systemId 系统ID
+     * @return 获取成功时返回租约，已被其他实例或任务持有时返回null
+     */
+    public SyncLease tryAcquire(Long systemId) {
+        String value = instanceId + ":" + UUID.randomUUID().toString().substring(0, 8);
+        Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(LEASE_KEY_PREFIX + systemId, value,
+                Duration.ofMillis(leaseTtlMillis()));
+        if (!Boolean.TRUE.equals(acquired)) {
+            return null;
+        }
+
+        Long token;
+        try {
+            // 递增时等待原持有者进行中的批次提交，之后原持有者的批次都会被拒绝
+            token = transactionTemplate.execute(status -> {
+                topicSyncFenceMapper.advance(systemId);
+                return topicSyncFenceMapper.selectTokenForUpdate(systemId);
+            });
+        } catch (RuntimeException e) {
+            release(new SyncLease(systemId, value, 0L));
+            throw e;
+        }
+        log.debug("获取同步租约，系统ID: {}，围栏令牌: {}", systemId, token);
+        return new SyncLease(systemId, value, token != null ? token : 0L);
+    }
+
+    /**
+     * 校验围栏令牌仍是系统当前的令牌，必须在写入批次的事务中调用
+     * 查询对围栏行加锁直到事务结束，新持有者递增令牌需等待本批提交或回滚
+     *
+     * @param systemId     系统ID
+     * @param fencingToken 本任务持有的围栏令牌
+     * @throws IllegalStateException 令牌已被新的持有者取代
+     */
+    public void checkFence(Long systemId, long fencingToken) {
+        Long current = topicSyncFenceMapper.selectTokenForUpdate(systemId);
+        if (!Objects.equals(current, fencingToken)) {
+            throw new IllegalStateException("同步租约已被其他任务取得，围栏令牌: " + fencingToken + "，当前令牌: " + current);
+        }
+    }
+
+    /**
+     * 续期租约，同时校验租约仍由自己持有
+     *
+     * @param lease 租约
+     * @return 仍持有租约时返回true
+     */
+    public boolean renew(SyncLease lease) {
+        try {
+            Long renewed = stringRedisTemplate.execute(RENEW_SCRIPT,
+                    List.of(LEASE_KEY_PREFIX + lease.systemId()),
+                    lease.value(), String.valueOf(leaseTtlMillis()));
+            return renewed != null && renewed == 1L;
+        } catch (Exception e) {
+            // 无法确认时按失去租约处理，宁可中止同步也不并发写入
+            log.warn("续期同步租约失败，系统ID: {}，错误: {}", lease.systemId(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 释放租约，租约已过期或被其他实例取得时不做任何操作
+     *
+     * @param lease 租约
+     */
+    public void release(SyncLease lease) {
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT,
+                    List.of(LEASE_KEY_PREFIX + lease.systemId()), lease.value());
+        } catch (Exception e) {
+            log.warn("释放同步租约失败，系统ID: {}，错误: {}", lease.systemId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 记录系统同步完成时间，供各实例判断是否需要再次自动同步
+     *
+     * @param systemId 系统ID
+     */
+    public void recordSyncCompleted(Long systemId) {
+        try {
+            stringRedisTemplate.opsForValue().set(LAST_SYNC_KEY_PREFIX + systemId,
+                    String.valueOf(System.currentTimeMillis()),
+                    emqxProperties.getAutoSync().getInterval().multipliedBy(2));
+        } catch (Exception e) {
+            log.warn("记录同步完成时间失败，系统ID: {}，错误: {}", systemId, e.getMessage());
+        }
+    }
+
+    /**
+     * 获取系统最近一次同步完成的时间戳（毫秒）
+     *
+     * @param systemId 系统ID
+     * @return 时间戳，没有记录或读取失败时为null
+     */
+    public Long getLastSyncCompleted(Long systemId) {
+        try {
+            String value = stringRedisTemplate.opsForValue().get(LAST_SYNC_KEY_PREFIX + systemId);
+            return value != null ? Long.valueOf(value) : null;
+        } catch (Exception e) {
+            log.warn("读取同步完成时间失败，系统ID: {}，错误: {}", systemId, e.getMessage());
+            return null;
+        }
+    }
+
+    private long leaseTtlMillis() {
+        return emqxProperties.getSync().getLeaseTtl().toMillis();
+    }
+
+    /**
+     * 同步租约
+     *
+     * @param systemId     系统ID
+     * @param value        Redis中的租约值
+     * @param fencingToken 围栏令牌，同一系统每次获取租约单调递增，由数据库分配
+     */
+    public record SyncLease(Long systemId, String value, long fencingToken) {
+    }
+}
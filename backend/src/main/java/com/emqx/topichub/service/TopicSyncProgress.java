@@ -0,0 +1,79 @@
+package com.emqx.topichub.service;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Topic同步进度回调
+ * 同步过程在拉取每一页和写入每一批后回调，并在这些位置检查是否已取消
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+public interface TopicSyncProgress {
+
+    /**
+     * 不关心进度的同步使用的空实现
+     */
+    TopicSyncProgress NONE = new TopicSyncProgress() {
+    };
+
+    /**
+     * 开始拉取Topic列表
+     */
+    default void onFetchStarted() {
+    }
+
+    /**
+     * 拉取完一页Topic
+     *
+     * @param totalPages 预计总页数，未知时为空
+     * @param topicCount 本页的Topic数量
+     */
+    default void onPageFetched(Integer totalPages, int topicCount) {
+    }
+
+    /**
+     * 开始写入数据库
+     *
+     * @param totalRows 待写入的行数
+     */
+    default void onWriteStarted(int totalRows) {
+    }
+
+    /**
+     * 写入完一批
+     *
+     * @param rows 本批写入的行数
+     */
+    default void onRowsWritten(int rows) {
+    }
+
+    /**
+     * 同步是否已被取消
+     *
+     * @return 已取消时返回true
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+
+    /**
+     * 本次同步持有的同步租约的围栏令牌
+     * 不为空时，写入的每批事务先校验令牌仍是系统当前的令牌
+     *
+     * @return 围栏令牌，未持有租约时为null
+     */
+    default Long getFencingToken() {
+        return null;
+    }
+
+    /**
+     * 已取消时抛出异常，终止同步
+     * 已提交的批次保留，重新同步时会被幂等地覆盖
+     */
+    default void checkCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException("同步已取消");
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.emqx.topichub.service;
+
+import com.emqx.topichub.common.TopicTrie;
+import com.emqx.topichub.config.EmqxProperties;
+import com.emqx.topichub.dto.TopicFetchResult;
+import com.emqx.topichub.dto.TopicSyncResult;
+import com.emqx.topichub.dto.TopicSyncState;
+import com.emqx.topichub.entity.Topic;
+import com.emqx.topichub.dto.TopicTagRow;
+import com.emqx.topichub.mapper.TopicMapper;
+import com.emqx.topichub.mapper.TopicTagMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Topic同步写入器
+ * 一次性加载系统下已有Topic的路径和生命周期字段，与从EMQX拉取的路径集合比对：
+ * 新出现的路径批量插入，已有路径只在需要时刷新，消失的路径累加未出现次数，
+ * 连续多次未出现的Topic先标记为过期再归档。写入量取决于变化量而不是Topic总数，
+ * 每批单独提交事务。归档与删除Topic一致，同时删除其标签关联；
+ * 归档和恢复引起的业务Topic数量与标签使用次数变化在同一事务中计入计数写缓冲
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TopicSyncWriter {
+
+    private static final String SYNC_STATE_ACTIVE = "active";
+    private static final String SYNC_STATE_STALE = "stale";
+
+    private final TopicMapper topicMapper;
+    private final TopicTagMapper topicTagMapper;
+    private final UsageCounterBuffer usageCounterBuffer;
+    private final TransactionTemplate transactionTemplate;
+    private final EmqxProperties emqxProperties;
+    private final TopicIndexService topicIndexService;
+    private final FullTextSearchService fullTextSearchService;
+    private final TopicDtoCache topicDtoCache;
+    private final TopicSyncLeaseManager topicSyncLeaseManager;
+
+    /**
+     * 将拉取结果与数据库比对并写入差异
+     * 手动创建且从未被同步到的Topic（最后活动时间为空）不参与过期和归档；
+     * 拉取结果不完整时不处理消失的Topic
+     *
+     * @param systemId    系统ID
+     * @param fetchResult 从EMQX拉取的结果
+     * @return 同步结果
+     */
+    public TopicSyncResult write(Long systemId, TopicFetchResult fetchResult) {
+        return write(systemId, fetchResult, TopicSyncProgress.NONE);
+    }
+
+    /**
+     * 将拉取结果与数据库比对并写入差异，每提交一批回调一次进度
+     * 取消时已提交的批次保留，剩余批次不再写入
+     *
+     * @param systemId    系统ID
+     * @param fetchResult 从EMQX拉取的结果
+     * @param progress    进度回调
+     * @return 同步结果
+     */
+    public TopicSyncResult write(Long systemId, TopicFetchResult fetchResult, TopicSyncProgress progress) {
+        EmqxProperties.Sync config = emqxProperties.getSync();
+        LocalDateTime syncTime = LocalDateTime.now();
+        LocalDateTime refreshBefore = syncTime.minus(config.getActivityRefreshInterval());
+        long startTime = System.currentTimeMillis();
+
+        // 1. 加载已有Topic，比对后剩下的即为本次未出现的Topic
+        List<TopicSyncState> states = topicMapper.selectSyncStates(systemId);
+        Map<String, TopicSyncState> existing = new HashMap<>(states.size() * 4 / 3 + 1);
+        for (TopicSyncState state : states) {
+            existing.put(state.getPath(), state);
+        }
+
+        // 2. 分类：新增 / 保留（需要刷新的才写入）
+        List<String> addedPaths = new ArrayList<>();
+        List<Long> seenIds = new ArrayList<>();
+        int retainedCount = 0;
+        int invalidCount = 0;
+        for (String path : fetchResult.getTopicPaths()) {
+            TopicSyncState state = existing.remove(path);
+            if (state == null) {
+                // EMQX的路由表中也有订阅过滤器，与导入使用同一校验，不作为新Topic入库；
+                // 已有的行照常视为出现，不会因校验被累计未出现次数
+                if (!isValidTopicName(path)) {
+                    invalidCount++;
+                    continue;
+                }
+                addedPaths.add(path);
+                continue;
+            }
+            retainedCount++;
+            if (needsRefresh(state, refreshBefore)) {
+                seenIds.add(state.getId());
+            }
+        }
+
+        if (invalidCount > 0) {
+            log.warn("系统 {} 同步时跳过不合法的Topic路径: {} 个", systemId, invalidCount);
+        }
+
+        // 3. 未出现的Topic累加未出现次数
+        List<Long> missedIds = new ArrayList<>();
+        Map<Long, String> archivedPaths = new HashMap<>();
+        Map<Long, Long> archivedGroupIds = new HashMap<>();
+        int staleCount = 0;
+        int removedCount = 0;
+        for (TopicSyncState state : existing.values()) {
+            if (state.getLastActivity() == null) {
+                continue;
+            }
+            if (!fetchResult.isComplete()) {
+                if (SYNC_STATE_STALE.equals(state.getSyncState())) {
+                    staleCount++;
+                }
+                continue;
+            }
+            int missedSyncs = state.getMissedSyncs() != null ? state.getMissedSyncs() : 0;
+            missedIds.add(state.getId());
+            if (missedSyncs + 1 >= config.getArchiveAfterMisses()) {
+                removedCount++;
+                archivedPaths.put(state.getId(), state.getPath());
+                if (state.getGroupId() != null) {
+                    archivedGroupIds.put(state.getId(), state.getGroupId());
+                }
+            } else if (missedSyncs + 1 >= config.getStaleAfterMisses()) {
+                staleCount++;
+            }
+        }
+
+        // 4. 分批写入差异，按相同顺序加锁以减少并发同步时的死锁
+        addedPaths.sort(null);
+        seenIds.sort(null);
+        missedIds.sort(null);
+        progress.onWriteStarted(addedPaths.size() + seenIds.size() + missedIds.size());
+        inChunks(systemId, addedPaths, progress, chunk -> {
+                    // 已归档的Topic重新出现时被恢复，保留原业务，业务Topic数量随之增加
+                    for (Long groupId : topicMapper.selectDeletedGroupIds(systemId, chunk)) {
+                        usageCounterBuffer.addGroupTopics(groupId, 1);
+                    }
+                    topicMapper.batchUpsertSyncedTopics(systemId, toTopics(chunk), syncTime);
+                }, chunk -> indexAdded(systemId, chunk));
+        // 只刷新活动时间，路径不变，无需维护索引，只需使详情缓存失效
+        inChunks(systemId, seenIds, progress, chunk -> topicMapper.markTopicsSeen(chunk, syncTime), topicDtoCache::evictTopics);
+        inChunks(systemId, missedIds, progress, chunk -> {
+                    topicMapper.markTopicsMissed(chunk, config.getStaleAfterMisses(), config.getArchiveAfterMisses());
+                    releaseArchived(chunk, archivedPaths, archivedGroupIds);
+                }, chunk -> {
+                    topicDtoCache.evictTopics(chunk);
+                    indexArchived(systemId, chunk, archivedPaths);
+                });
+
+        log.info("Topic同步写入完成，系统ID: {}，新增: {}，保留: {}（刷新 {}），过期: {}，归档: {}，耗时: {}ms",
+                systemId, addedPaths.size(), retainedCount, seenIds.size(), staleCount, removedCount,
+                System.currentTimeMillis() - startTime);
+        return TopicSyncResult.success(addedPaths.size(), retainedCount, staleCount, removedCount);
+    }
+
+    /**
+     * 已有Topic是否需要写入：之前未出现过、不是活跃状态，或最后活动时间超过刷新间隔
+     */
+    private boolean needsRefresh(TopicSyncState state, LocalDateTime refreshBefore) {
+        return (state.getMissedSyncs() != null && state.getMissedSyncs() > 0)
+                || !SYNC_STATE_ACTIVE.equals(state.getSyncState())
+                || state.getLastActivity() == null
+                || state.getLastActivity().isBefore(refreshBefore);
+    }
+
+    /**
+     * 分批执行写入，每批单独提交事务，每批开始前检查是否已取消
+     * 持有同步租约时每批事务先校验围栏令牌，租约已被新持有者取得时本批回滚
+     *
+     * @param afterCommit 每批提交后执行，用于维护Topic索引和详情缓存
+     */
+    private <T> void inChunks(Long systemId, List<T> items, TopicSyncProgress progress,
+                              Consumer<List<T>> writer, Consumer<List<T>> afterCommit) {
+        int chunkSize = emqxProperties.getSync().getWriteChunkSize();
+        Long fencingToken = progress.getFencingToken();
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            progress.checkCancelled();
+            List<T> chunk = items.subList(from, Math.min(from + chunkSize, items.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                if (fencingToken != null) {
+                    topicSyncLeaseManager.checkFence(systemId, fencingToken);
+                }
+                writer.accept(chunk);
+            });
+            afterCommit.accept(chunk);
+            progress.onRowsWritten(chunk.size());
+        }
+    }
+
+    /**
+     * 新增的Topic加入前缀树和全文索引，索引未加载时不额外查询
+     */
+    private void indexAdded(Long systemId, List<String> paths) {
+        fullTextSearchService.onTopicsAdded(systemId, paths);
+        topicIndexService.onTopicsAdded(systemId, paths);
+    }
+
+    /**
+     * 本批中被归档的Topic删除标签关联，并计入标签使用次数和业务Topic数量的减少
+     */
+    private void releaseArchived(List<Long> ids, Map<Long, String> archivedPaths, Map<Long, Long> archivedGroupIds) {
+        List<Long> archived = new ArrayList<>();
+        for (Long id : ids) {
+            if (archivedPaths.containsKey(id)) {
+                archived.add(id);
+                usageCounterBuffer.addGroupTopics(archivedGroupIds.get(id), -1);
+            }
+        }
+        if (archived.isEmpty()) {
+            return;
+        }
+        List<Long> tagIds = new ArrayList<>();
+        for (TopicTagRow row : topicTagMapper.selectTagsByTopicIds(archived)) {
+            tagIds.add(row.getTagId());
+        }
+        topicTagMapper.softDeleteLinksByTopicIds(archived);
+        usageCounterBuffer.addTagUsages(tagIds, -1);
+    }
+
+    /**
+     * 本批中被归档的Topic移出索引
+     */
+    private void indexArchived(Long systemId, List<Long> ids, Map<Long, String> archivedPaths) {
+        Map<Long, String> archived = new HashMap<>();
+        for (Long id : ids) {
+            String path = archivedPaths.get(id);
+            if (path != null) {
+                archived.put(id, path);
+            }
+        }
+        topicIndexService.onTopicsRemoved(systemId, archived);
+        fullTextSearchService.onTopicsRemoved(archived.keySet());
+    }
+
+    private static boolean isValidTopicName(String path) {
+        try {
+            TopicTrie.validateTopicName(path);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private List<Topic> toTopics(List<String> paths) {
+        List<Topic> topics = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            Topic topic = new Topic();
+            topic.setName(generateTopicName(path));
+            topic.setPath(path);
+            topics.add(topic);
+        }
+        return topics;
+    }
+
+    /**
+     * 根据Topic路径生成Topic名称
+     *
+     * @param topicPath Topic路径
+     * @return Topic名称
+     */
+    static String generateTopicName(String topicPath) {
+        // 取路径的最后一段作为名称
+        String[] parts = topicPath.split("/");
+        if (parts.length > 0) {
+            return parts[parts.length - 1];
+        }
+        return topicPath;
+    }
+}
@@ -0,0 +1,149 @@
+package com.emqx.topichub.service;
+
+import com.emqx.topichub.common.TransactionHooks;
+import com.emqx.topichub.mapper.GroupMapper;
+import com.emqx.topichub.mapper.TagMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 分组Topic数量与标签使用次数的写缓冲
+ * Topic增删改和批量操作只在内存中累加计数增量（事务中时等提交后再累加），
+ * 由定时任务按表合并为一条UPDATE写入 topic_group.topic_count 和 tag.usage_count，
+ * 每次变更的计数维护开销与数据量无关。
+ * 进程异常退出会丢失未写入的增量，多实例并发等情况也可能产生偏差，由定期校准按实际关联重新统计修正
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UsageCounterBuffer {
+
+    private final GroupMapper groupMapper;
+    private final TagMapper tagMapper;
+
+    /**
+     * 分组ID -> 未写入的Topic数量增量
+     */
+    private final Map<Long, Long> groupDeltas = new ConcurrentHashMap<>();
+
+    /**
+     * 标签ID -> 未写入的使用次数增量
+     */
+    private final Map<Long, Long> tagDeltas = new ConcurrentHashMap<>();
+
+    /**
+     * 记录分组Topic数量的变化
+     *
+     * @param groupId 分组ID，为空时忽略
+     * @param delta   增量，可为负数
+     */
+    public void addGroupTopics(Long groupId, long delta) {
+        if (groupId == null || delta == 0) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> groupDeltas.merge(groupId, delta, Long::sum));
+    }
+
+    /**
+     * 记录标签使用次数的变化
+     *
+     * @param tagId 标签ID，为空时忽略
+     * @param delta 增量，可为负数
+     */
+    public void addTagUsages(Long tagId, long delta) {
+        if (tagId == null || delta == 0) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> tagDeltas.merge(tagId, delta, Long::sum));
+    }
+
+    /**
+     * 记录多个标签使用次数的相同变化
+     *
+     * @param tagIds 标签ID集合，同一标签出现多次时按次数累加
+     * @param delta  每次出现的增量，可为负数
+     */
+    public void addTagUsages(Collection<Long> tagIds, long delta) {
+        if (tagIds == null) {
+            return;
+        }
+        for (Long tagId : tagIds) {
+            addTagUsages(tagId, delta);
+        }
+    }
+
+    /**
+     * 定时将累计的增量写入数据库
+     */
+    @Scheduled(fixedDelay = 5000)
+    public synchronized void flush() {
+        Map<Long, Long> groups = drain(groupDeltas);
+        if (!groups.isEmpty()) {
+            try {
+                groupMapper.addTopicCounts(groups);
+            } catch (Exception e) {
+                log.warn("写入分组Topic数量增量失败，分组数: {}，下次重试，错误: {}", groups.size(), e.getMessage());
+                groups.forEach((id, delta) -> groupDeltas.merge(id, delta, Long::sum));
+            }
+        }
+
+        Map<Long, Long> tags = drain(tagDeltas);
+        if (!tags.isEmpty()) {
+            try {
+                tagMapper.addUsageCounts(tags);
+            } catch (Exception e) {
+                log.warn("写入标签使用次数增量失败，标签数: {}，下次重试，错误: {}", tags.size(), e.getMessage());
+                tags.forEach((id, delta) -> tagDeltas.merge(id, delta, Long::sum));
+            }
+        }
+    }
+
+    /**
+     * 定期按实际关联重新统计，修正累计的偏差，只更新与实际不符的行
+     */
+    @Scheduled(initialDelay = 60000, fixedDelay = 600000)
+    public synchronized void reconcile() {
+        flush();
+        try {
+            long startTime = System.currentTimeMillis();
+            int groups = groupMapper.reconcileTopicCounts();
+            int tags = tagMapper.reconcileUsageCounts();
+            if (groups > 0 || tags > 0) {
+                log.info("校准计数完成，修正分组: {}，修正标签: {}，耗时: {}ms",
+                        groups, tags, System.currentTimeMillis() - startTime);
+            }
+        } catch (Exception e) {
+            log.warn("校准分组Topic数量和标签使用次数失败: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        flush();
+    }
+
+    /**
+     * 逐个取出并移除增量，移除与累加都是单键原子操作，取出期间的新增量不会丢失
+     */
+    private static Map<Long, Long> drain(Map<Long, Long> deltas) {
+        Map<Long, Long> drained = new HashMap<>();
+        for (Long id : deltas.keySet()) {
+            Long delta = deltas.remove(id);
+            if (delta != null && delta != 0) {
+                drained.put(id, delta);
+            }
+        }
+        return drained;
+    }
+}
@@ -106,6 +106,8 @@ CREATE TABLE `topic`
     `group_id`      bigint(20) DEFAULT NULL COMMENT '所属业务ID',
     `last_activity` datetime              DEFAULT NULL COMMENT '最后活动时间',
     `payload_doc`   text                  DEFAULT NULL COMMENT 'Payload说明文档',
+    `missed_syncs`  int(11) NOT NULL DEFAULT 0 COMMENT '连续未在EMQX中出现的同步次数',
+    `sync_state`    varchar(20)  NOT NULL DEFAULT 'active' COMMENT '同步状态：active-活跃，stale-过期，archived-已归档',
     `created_at`    datetime     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     `updated_at`    datetime     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     `deleted`       int(11) NOT NULL DEFAULT 0 COMMENT '逻辑删除标记：0-未删除，1-已删除',
@@ -115,6 +117,10 @@ CREATE TABLE `topic`
     KEY             `idx_group_id` (`group_id`),
     KEY             `idx_last_activity` (`last_activity`),
     KEY             `idx_created_at` (`created_at`),
+    KEY             `idx_system_sync_state` (`system_id`, `sync_state`),
+    KEY             `idx_system_deleted_created` (`system_id`, `deleted`, `created_at`),
+    KEY             `idx_system_deleted_updated` (`system_id`, `deleted`, `updated_at`),
+    KEY             `idx_system_deleted_name` (`system_id`, `deleted`, `name`),
     CONSTRAINT `fk_topic_system` FOREIGN KEY (`system_id`) REFERENCES `emqx_system` (`id`) ON DELETE CASCADE,
     CONSTRAINT `fk_topic_group` FOREIGN KEY (`group_id`) REFERENCES `topic_group` (`id`) ON DELETE SET NULL
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Topic表';
@@ -134,6 +140,7 @@ CREATE TABLE `topic_tag`
     UNIQUE KEY `uk_topic_tag` (`topic_id`, `tag_id`),
     KEY          `idx_topic_id` (`topic_id`),
     KEY          `idx_tag_id` (`tag_id`),
+    KEY          `idx_tag_deleted_topic` (`tag_id`, `deleted`, `topic_id`),
     KEY          `idx_created_at` (`created_at`),
     CONSTRAINT `fk_topic_tag_topic` FOREIGN KEY (`topic_id`) REFERENCES `topic` (`id`) ON DELETE CASCADE,
     CONSTRAINT `fk_topic_tag_tag` FOREIGN KEY (`tag_id`) REFERENCES `tag` (`id`) ON DELETE CASCADE
@@ -165,9 +172,23 @@ CREATE TABLE `payload_template`
     KEY              `idx_is_favorite` (`is_favorite`),
     KEY              `idx_last_used_at` (`last_used_at`),
     KEY              `idx_created_at` (`created_at`),
+    KEY              `idx_updated_at` (`updated_at`),
     CONSTRAINT `fk_payload_template_group` FOREIGN KEY (`group_id`) REFERENCES `topic_group` (`id`) ON DELETE SET NULL
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Payload模板表';
 
+-- ----------------------------
+-- Topic同步围栏表
+-- ----------------------------
+DROP TABLE IF EXISTS `topic_sync_fence`;
+CREATE TABLE `topic_sync_fence`
+(
+    `system_id`     bigint(20) NOT NULL COMMENT 'EMQX系统ID',
+    `fencing_token` bigint(20) NOT NULL DEFAULT 0 COMMENT '当前持有同步租约的围栏令牌，每次获取租约递增',
+    `updated_at`    datetime   NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`system_id`),
+    CONSTRAINT `fk_topic_sync_fence_system` FOREIGN KEY (`system_id`) REFERENCES `emqx_system` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Topic同步围栏表';
+
 -- ----------------------------
 -- 初始化数据
 -- ----------------------------
@@ -0,0 +1,95 @@
+package com.emqx.topichub.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * CsvReader单元测试
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+class CsvReaderTest {
+
+    @Test
+    void readsPlainAndQuotedFields() throws IOException {
+        List<List<String>> records = readAll("path,name\r\n\"a/b\",\"x, \"\"y\"\"\"\r\nc,\n");
+
+        assertThat(records).containsExactly(
+                List.of("path", "name"),
+                List.of("a/b", "x, \"y\""),
+                List.of("c", ""));
+    }
+
+    @Test
+    void keepsLineBreaksInsideQuotes() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,\"line1\nline2\"\r\nb,\"x\r\ny\"\nc,z"), 1000);
+
+        assertThat(reader.next()).containsExactly("a", "line1\nline2");
+        assertThat(reader.getRecordLine()).isEqualTo(1);
+        assertThat(reader.next()).containsExactly("b", "x\r\ny");
+        assertThat(reader.getRecordLine()).isEqualTo(3);
+        assertThat(reader.next()).containsExactly("c", "z");
+        assertThat(reader.getRecordLine()).isEqualTo(5);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void acceptsAnyLineEndingAndSkipsBlankLines() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a\r\rb\n\nc\r\n"), 1000);
+
+        assertThat(reader.next()).containsExactly("a");
+        assertThat(reader.next()).containsExactly("b");
+        assertThat(reader.getRecordLine()).isEqualTo(3);
+        assertThat(reader.next()).containsExactly("c");
+        assertThat(reader.getRecordLine()).isEqualTo(5);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void ignoresLeadingBom() throws IOException {
+        assertThat(readAll("\uFEFFpath\nx")).containsExactly(List.of("path"), List.of("x"));
+        assertThat(readAll("\uFEFF")).isEmpty();
+        assertThat(readAll("")).isEmpty();
+    }
+
+    @Test
+    void quoteInsideUnquotedFieldIsLiteral() throws IOException {
+        assertThat(readAll("a\"b,c")).containsExactly(List.of("a\"b", "c"));
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() {
+        CsvReader reader = new CsvReader(new StringReader("a\n\"open,b\nc"), 1000);
+
+        assertThatThrownBy(() -> {
+            reader.next();
+            reader.next();
+        }).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("第 2 行");
+    }
+
+    @Test
+    void rejectsRecordOverLengthLimit() {
+        CsvReader reader = new CsvReader(new StringReader("\"" + "x".repeat(100)), 10);
+
+        assertThatThrownBy(reader::next).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("超过 10 个字符");
+    }
+
+    private static List<List<String>> readAll(String text) throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(text), 1000);
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,99 @@
+package com.emqx.topichub.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * EmqxTopicListParser单元测试
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+class EmqxTopicListParserTest {
+
+    @Test
+    void parsesTopicsAndMeta() {
+        List<String> topics = new ArrayList<>();
+        EmqxTopicListParser.ParseResult result = parse("""
+                {"data":[{"topic":"a/b","node":"n1"},{"topic":"  c/d  "},{"topic":""},{"node":"n2"}],
+                 "meta":{"page":1,"limit":100,"count":42,"hasnext":true}}
+                """, topics);
+
+        assertThat(topics).containsExactly("a/b", "c/d");
+        assertThat(result.success()).isTrue();
+        assertThat(result.count()).isEqualTo(42L);
+        assertThat(result.hasNext()).isTrue();
+        assertThat(result.topicCount()).isEqualTo(2);
+    }
+
+    @Test
+    void detectsErrorResponse() {
+        List<String> topics = new ArrayList<>();
+        EmqxTopicListParser.ParseResult result = parse("{\"code\":\"BAD_REQUEST\",\"message\":\"x\"}", topics);
+
+        assertThat(result.success()).isFalse();
+        assertThat(result.count()).isNull();
+        assertThat(topics).isEmpty();
+    }
+
+    @Test
+    void numericNonZeroCodeIsFailure() {
+        assertThat(parse("{\"code\":500,\"data\":[]}", new ArrayList<>()).success()).isFalse();
+        assertThat(parse("{\"code\":0,\"data\":[]}", new ArrayList<>()).success()).isTrue();
+    }
+
+    @Test
+    void skipsMetaThatIsNotAnObject() {
+        List<String> topics = new ArrayList<>();
+        EmqxTopicListParser.ParseResult result = parse(
+                "{\"meta\":[1,{\"count\":9}],\"data\":[{\"topic\":\"a\"}],\"code\":0}", topics);
+
+        assertThat(topics).containsExactly("a");
+        assertThat(result.count()).isNull();
+        assertThat(result.success()).isTrue();
+    }
+
+    @Test
+    void skipsDataThatIsNotAnArray() {
+        List<String> topics = new ArrayList<>();
+        EmqxTopicListParser.ParseResult result = parse(
+                "{\"data\":{\"topic\":\"x\"},\"meta\":{\"count\":3},\"code\":0}", topics);
+
+        assertThat(topics).isEmpty();
+        assertThat(result.count()).isEqualTo(3L);
+        assertThat(result.success()).isTrue();
+    }
+
+    @Test
+    void skipsScalarMetaAndData() {
+        List<String> topics = new ArrayList<>();
+        EmqxTopicListParser.ParseResult result = parse(
+                "{\"data\":\"oops\",\"meta\":7,\"extra\":{\"data\":[]},\"code\":0}", topics);
+
+        assertThat(topics).isEmpty();
+        assertThat(result.success()).isTrue();
+    }
+
+    @Test
+    void toleratesNullMetaAndData() {
+        EmqxTopicListParser.ParseResult result = parse("{\"data\":null,\"meta\":null}", new ArrayList<>());
+
+        assertThat(result.success()).isTrue();
+        assertThat(result.topicCount()).isZero();
+    }
+
+    @Test
+    void rejectsNonObjectBody() {
+        assertThatThrownBy(() -> parse("[]", new ArrayList<>())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static EmqxTopicListParser.ParseResult parse(String body, List<String> topics) {
+        return EmqxTopicListParser.parse(body.getBytes(StandardCharsets.UTF_8), topics::add);
+    }
+}
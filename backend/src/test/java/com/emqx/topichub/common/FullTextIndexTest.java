@@ -0,0 +1,89 @@
+package com.emqx.topichub.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * FullTextIndex单元测试
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+class FullTextIndexTest {
+
+    @Test
+    void tokenizesCamelCaseDigitsAndCjk() {
+        assertThat(FullTextIndex.tokenize("factory/lineA/tempSensor01", true))
+                .contains("factory", "linea", "line", "a", "tempsensor01", "temp", "sensor", "01");
+        assertThat(FullTextIndex.tokenize("tempSensor", false)).containsExactly("temp", "sensor");
+        assertThat(FullTextIndex.tokenize("温度传感器", false)).containsExactly("温度", "度传", "传感", "感器");
+    }
+
+    @Test
+    void requiresAllTermsAndRanksByFieldWeight() {
+        FullTextIndex index = new FullTextIndex();
+        index.put(1L, new FullTextIndex.Field("temperature", 1.0f), new FullTextIndex.Field("factory", 1.0f));
+        index.put(2L, new FullTextIndex.Field("temperature factory", 3.0f));
+        index.put(3L, new FullTextIndex.Field("temperature", 3.0f));
+
+        assertThat(index.search("temperature factory", 10)).extracting(FullTextIndex.Hit::docId)
+                .containsExactly(2L, 1L);
+        assertThat(index.search("missing", 10)).isEmpty();
+    }
+
+    @Test
+    void fallsBackFromExactToPrefixToFuzzy() {
+        FullTextIndex index = new FullTextIndex();
+        index.put(1L, new FullTextIndex.Field("humidity", 1.0f));
+        index.put(2L, new FullTextIndex.Field("humid", 1.0f));
+
+        List<FullTextIndex.Hit> prefix = index.search("humid", 10);
+        assertThat(prefix).extracting(FullTextIndex.Hit::docId).containsExactly(2L, 1L);
+        assertThat(index.search("humidty", 10)).extracting(FullTextIndex.Hit::docId).containsExactly(1L);
+    }
+
+    @Test
+    void returnsAllHitsWhenLimitCoversThem() {
+        FullTextIndex index = new FullTextIndex();
+        for (long id = 1; id <= 50; id++) {
+            index.put(id, new FullTextIndex.Field("sensor", 1.0f));
+        }
+
+        assertThat(index.search("sensor", Integer.MAX_VALUE)).hasSize(50)
+                .extracting(FullTextIndex.Hit::docId).startsWith(1L, 2L, 3L);
+        assertThat(index.search("sensor", 5)).extracting(FullTextIndex.Hit::docId)
+                .containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void prefixExpansionKeepsMostFrequentTerms() {
+        FullTextIndex index = new FullTextIndex();
+        // 200个只出现一次的词项在字典顺序上都排在高频词项之前
+        for (int i = 0; i < 200; i++) {
+            index.put(i, new FullTextIndex.Field(String.format("tea%03d", i), 1.0f));
+        }
+        for (long id = 1000; id < 1005; id++) {
+            index.put(id, new FullTextIndex.Field("tezzz", 1.0f));
+        }
+
+        assertThat(index.search("te", Integer.MAX_VALUE)).extracting(FullTextIndex.Hit::docId)
+                .contains(1000L, 1001L, 1002L, 1003L, 1004L);
+    }
+
+    @Test
+    void removeAndReplaceDocuments() {
+        FullTextIndex index = new FullTextIndex();
+        index.put(1L, new FullTextIndex.Field("alpha", 1.0f));
+        index.put(1L, new FullTextIndex.Field("beta", 1.0f));
+
+        assertThat(index.search("alpha", 10)).isEmpty();
+        assertThat(index.search("beta", 10)).extracting(FullTextIndex.Hit::docId).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.search("beta", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+}
@@ -0,0 +1,115 @@
+package com.emqx.topichub.common;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.emqx.topichub.dto.CursorPage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * KeysetPaging单元测试
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+class KeysetPagingTest {
+
+    private static final KeysetPaging<Row> PAGING = new KeysetPaging<>(Row::id, "name",
+            new KeysetPaging.SortColumn<>("name", "name", Row::name, value -> value));
+
+    @Test
+    void firstPageFetchesOneExtraRowAndReturnsCursor() {
+        List<QueryWrapper<Row>> queries = new ArrayList<>();
+
+        CursorPage<Row> page = PAGING.page(new QueryWrapper<>(), null, "asc", null, 2, wrapper -> {
+            queries.add(wrapper);
+            return List.of(new Row(1L, "a"), new Row(2L, "b"), new Row(3L, "c"));
+        });
+
+        assertThat(page.getRecords()).extracting(Row::id).containsExactly(1L, 2L);
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getNextCursor()).isNotNull();
+        String sql = queries.get(0).getCustomSqlSegment();
+        assertThat(sql).contains("ORDER BY name ASC,id ASC").contains("LIMIT 3");
+    }
+
+    @Test
+    void cursorContinuesAfterLastRow() {
+        CursorPage<Row> first = PAGING.page(new QueryWrapper<>(), "name", "desc", null, 1,
+                wrapper -> List.of(new Row(5L, "e"), new Row(4L, "d")));
+        List<QueryWrapper<Row>> queries = new ArrayList<>();
+
+        CursorPage<Row> second = PAGING.page(new QueryWrapper<>(), "name", "desc", first.getNextCursor(), 1,
+                wrapper -> {
+                    queries.add(wrapper);
+                    return List.of(new Row(4L, "d"));
+                });
+
+        assertThat(second.getRecords()).extracting(Row::id).containsExactly(4L);
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+        QueryWrapper<Row> query = queries.get(0);
+        assertThat(query.getCustomSqlSegment()).contains("(name, id) <");
+        assertThat(query.getParamNameValuePairs()).containsValues("e", 5L);
+    }
+
+    @Test
+    void rejectsMismatchedOrInvalidCursorAndUnknownField() {
+        CursorPage<Row> first = PAGING.page(new QueryWrapper<>(), "name", "asc", null, 1,
+                wrapper -> List.of(new Row(1L, "a"), new Row(2L, "b")));
+
+        assertThatThrownBy(() -> PAGING.page(new QueryWrapper<>(), "name", "desc", first.getNextCursor(), 1,
+                wrapper -> List.of())).isInstanceOf(BusinessException.class).hasMessageContaining("游标与排序条件不一致");
+        assertThatThrownBy(() -> PAGING.page(new QueryWrapper<>(), "name", "asc", "not-a-cursor", 1,
+                wrapper -> List.of())).isInstanceOf(BusinessException.class).hasMessageContaining("无效的分页游标");
+        assertThatThrownBy(() -> PAGING.page(new QueryWrapper<>(), "color", "asc", null, 1,
+                wrapper -> List.of())).isInstanceOf(BusinessException.class).hasMessageContaining("color");
+        assertThatThrownBy(() -> PAGING.page(new QueryWrapper<>(), "name", "asc", null, 1001,
+                wrapper -> List.of())).isInstanceOf(BusinessException.class);
+    }
+
+    @Test
+    void candidateIdsArePagedPerChunkAndMerged() {
+        // 名称与ID的顺序相反，合并后的顺序只能来自内存排序
+        List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().toList();
+        Map<QueryWrapper<Row>, List<Long>> chunkOf = new IdentityHashMap<>();
+        List<Integer> chunkSizes = new ArrayList<>();
+
+        CursorPage<Row> page = PAGING.page(ids, chunk -> {
+            QueryWrapper<Row> wrapper = new QueryWrapper<Row>().in("id", chunk);
+            chunkOf.put(wrapper, chunk);
+            chunkSizes.add(chunk.size());
+            return wrapper;
+        }, "name", "asc", null, 3, wrapper -> chunkOf.get(wrapper).stream()
+                .map(id -> new Row(id, String.format("n%05d", 10000 - id)))
+                .sorted(Comparator.comparing(Row::name))
+                .limit(4)
+                .toList());
+
+        assertThat(chunkSizes).containsExactly(1000, 1000, 500);
+        assertThat(page.getRecords()).extracting(Row::id).containsExactly(2500L, 2499L, 2498L);
+        assertThat(page.isHasMore()).isTrue();
+    }
+
+    @Test
+    void comparatorIgnoresCaseAndBreaksTiesById() {
+        List<Row> rows = new ArrayList<>(List.of(new Row(3L, "b"), new Row(1L, "B"), new Row(2L, "a")));
+
+        rows.sort(PAGING.comparator("name", "asc"));
+        assertThat(rows).extracting(Row::id).containsExactly(2L, 1L, 3L);
+
+        rows.sort(PAGING.comparator(null, "desc"));
+        assertThat(rows).extracting(Row::id).containsExactly(3L, 1L, 2L);
+    }
+
+    private record Row(Long id, String name) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.emqx.topichub.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * RankedPaging单元测试
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+class RankedPagingTest {
+
+    @Test
+    void filterKeepsRankOrderAndQueriesInChunks() {
+        List<Long> ranked = LongStream.rangeClosed(1, 2500).map(id -> 2501 - id).boxed().toList();
+        List<Integer> chunkSizes = new ArrayList<>();
+
+        List<Long> matched = RankedPaging.filter(ranked, chunk -> {
+            chunkSizes.add(chunk.size());
+            return chunk.stream().filter(id -> id % 2 == 0).toList();
+        });
+
+        assertThat(chunkSizes).containsExactly(1000, 1000, 500);
+        assertThat(matched).hasSize(1250).startsWith(2500L, 2498L, 2496L);
+    }
+
+    @Test
+    void pageSlicesInMemory() {
+        List<Long> ids = LongStream.rangeClosed(1, 25).boxed().toList();
+
+        assertThat(RankedPaging.page(ids, 1, 10)).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        assertThat(RankedPaging.page(ids, 3, 10)).containsExactly(21L, 22L, 23L, 24L, 25L);
+        assertThat(RankedPaging.page(ids, 4, 10)).isEmpty();
+        assertThat(RankedPaging.page(ids, 0, 10)).hasSize(10).startsWith(1L);
+    }
+
+    @Test
+    void inOrderFollowsGivenIdsAndSkipsMissing() {
+        List<long[]> records = List.of(new long[]{3}, new long[]{1}, new long[]{2});
+
+        List<long[]> ordered = RankedPaging.inOrder(List.of(2L, 9L, 3L, 1L), records, record -> record[0]);
+
+        assertThat(ordered).extracting(record -> record[0]).containsExactly(2L, 3L, 1L);
+    }
+}
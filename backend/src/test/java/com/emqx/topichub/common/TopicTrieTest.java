@@ -0,0 +1,125 @@
+package com.emqx.topichub.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * TopicTrie单元测试
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+class TopicTrieTest {
+
+    @Test
+    void matchesWildcards() {
+        TopicTrie trie = new TopicTrie();
+        trie.put("factory/1/line/a", 1L);
+        trie.put("factory/2/line/b", 2L);
+        trie.put("factory/2/status", 3L);
+        trie.put("factory", 4L);
+
+        assertThat(trie.match("factory/+/line/+", 10)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(trie.match("factory/#", 10)).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+        assertThat(trie.match("factory/2/status", 10)).containsExactly(3L);
+        assertThat(trie.match("factory/#", 2)).hasSize(2);
+    }
+
+    @Test
+    void rootWildcardsSkipSystemTopics() {
+        TopicTrie trie = new TopicTrie();
+        trie.put("$SYS/brokers", 1L);
+        trie.put("a/b", 2L);
+
+        assertThat(trie.match("#", 10)).containsExactly(2L);
+        assertThat(trie.match("+/+", 10)).containsExactly(2L);
+        assertThat(trie.match("$SYS/#", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void rejectsInvalidFilters() {
+        assertThatThrownBy(() -> TopicTrie.validateFilter("a/#/b")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TopicTrie.validateFilter("a/b+")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TopicTrie.validateFilter("")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsInvalidTopicNames() {
+        TopicTrie.validateTopicName("factory/line-1/$temp");
+        TopicTrie.validateTopicName("/devices/a");
+        TopicTrie.validateTopicName("a//b/");
+        assertThatThrownBy(() -> TopicTrie.validateTopicName("a/+/b")).hasMessageContaining("通配符");
+        assertThatThrownBy(() -> TopicTrie.validateTopicName("a/#")).hasMessageContaining("通配符");
+        assertThatThrownBy(() -> TopicTrie.validateTopicName("a\0b")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TopicTrie.validateTopicName("")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void maintainsCountsOnPutAndRemove() {
+        TopicTrie trie = new TopicTrie();
+        trie.put("a/b", 1L);
+        trie.put("a/c", 2L);
+        trie.put("a/b", 3L);
+
+        assertThat(trie.size()).isEqualTo(2);
+        assertThat(trie.describe("a").topicCount()).isEqualTo(2);
+        assertThat(trie.match("a/b", 10)).containsExactly(3L);
+
+        assertThat(trie.remove("a/b")).isTrue();
+        assertThat(trie.remove("a/b")).isFalse();
+        assertThat(trie.describe("a/b")).isNull();
+        assertThat(trie.describe("a").topicCount()).isEqualTo(1);
+        assertThat(trie.describe(null).topicCount()).isEqualTo(1);
+    }
+
+    @Test
+    void conditionalRemoveKeepsTopicWithOtherId() {
+        TopicTrie trie = new TopicTrie();
+        trie.put("a/b", 2L);
+
+        assertThat(trie.remove("a/b", 1L)).isFalse();
+        assertThat(trie.match("a/b", 10)).containsExactly(2L);
+        assertThat(trie.remove("a/b", 2L)).isTrue();
+        assertThat(trie.size()).isZero();
+    }
+
+    @Test
+    void childrenAreSortedAndLimited() {
+        TopicTrie trie = new TopicTrie();
+        trie.put("r/c", 1L);
+        trie.put("r/a", 2L);
+        trie.put("r/b/x", 3L);
+
+        List<TopicTrie.LevelNode> children = trie.children("r", 10);
+        assertThat(children).extracting(TopicTrie.LevelNode::name).containsExactly("a", "b", "c");
+        assertThat(children).extracting(TopicTrie.LevelNode::path).containsExactly("r/a", "r/b", "r/c");
+        assertThat(children.get(1).topicId()).isNull();
+        assertThat(children.get(1).childCount()).isEqualTo(1);
+        assertThat(trie.children("r", 2)).extracting(TopicTrie.LevelNode::name).containsExactly("a", "b");
+        assertThat(trie.children("missing", 10)).isEmpty();
+    }
+
+    @Test
+    void leadingSlashTopicsCanBeBrowsed() {
+        TopicTrie trie = new TopicTrie();
+        trie.put("/a/b", 1L);
+        trie.put("//x", 2L);
+        trie.put("c", 3L);
+
+        List<TopicTrie.LevelNode> roots = trie.children(null, 10);
+        assertThat(roots).extracting(TopicTrie.LevelNode::path).containsExactly("/", "c");
+
+        List<TopicTrie.LevelNode> level1 = trie.children("/", 10);
+        assertThat(level1).extracting(TopicTrie.LevelNode::path).containsExactly("//", "/a");
+        assertThat(trie.describe("/").topicCount()).isEqualTo(2);
+
+        assertThat(trie.children("/a", 10)).extracting(TopicTrie.LevelNode::path).containsExactly("/a/b");
+        assertThat(trie.children("/a", 10).get(0).topicId()).isEqualTo(1L);
+        assertThat(trie.children("//", 10)).extracting(TopicTrie.LevelNode::path).containsExactly("//x");
+        assertThat(trie.children("//", 10).get(0).topicId()).isEqualTo(2L);
+    }
+}
@@ -0,0 +1,74 @@
+package com.emqx.topichub.service;
+
+import com.emqx.topichub.dto.TopicDTO;
+import com.emqx.topichub.dto.TopicTagRow;
+import com.emqx.topichub.entity.Group;
+import com.emqx.topichub.entity.Topic;
+import com.emqx.topichub.mapper.TopicTagMapper;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * TopicDtoAssembler单元测试
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+class TopicDtoAssemblerTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1000})
+    void assemblesPageWithTwoQueriesRegardlessOfSize(int pageSize) {
+        GroupService groupService = mock(GroupService.class);
+        TopicTagMapper topicTagMapper = mock(TopicTagMapper.class);
+        List<Topic> topics = new ArrayList<>();
+        List<TopicTagRow> tagRows = new ArrayList<>();
+        for (long id = 1; id <= pageSize; id++) {
+            Topic topic = new Topic();
+            topic.setId(id);
+            topic.setPath("factory/device-" + id);
+            topic.setGroupId(id % 5 + 1);
+            topic.setDeleted(0);
+            topics.add(topic);
+
+            TopicTagRow row = new TopicTagRow();
+            row.setTopicId(id);
+            row.setTagId(id % 3);
+            row.setName("tag-" + id % 3);
+            tagRows.add(row);
+        }
+        List<Group> groups = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            Group group = new Group();
+            group.setId(id);
+            group.setName("group-" + id);
+            groups.add(group);
+        }
+        when(groupService.listByIds(anyCollection())).thenReturn(groups);
+        when(topicTagMapper.selectTagsByTopicIds(anyCollection())).thenReturn(tagRows);
+
+        List<TopicDTO> dtos = new TopicDtoAssembler(groupService, topicTagMapper).toDTOs(topics);
+
+        verify(groupService, times(1)).listByIds(anyCollection());
+        verify(topicTagMapper, times(1)).selectTagsByTopicIds(anyCollection());
+        verifyNoMoreInteractions(groupService, topicTagMapper);
+
+        assertThat(dtos).hasSize(pageSize);
+        assertThat(dtos).extracting(TopicDTO::getId).startsWith(1L, 2L, 3L);
+        TopicDTO first = dtos.get(0);
+        assertThat(first.getGroupName()).isEqualTo("group-2");
+        assertThat(first.getTags()).extracting("name").containsExactly("tag-1");
+        assertThat(first.getStatus()).isEqualTo("enabled");
+    }
+}
@@ -0,0 +1,28 @@
+package com.emqx.topichub.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * TopicExporter中CSV公式转义的单元测试
+ *
+ * @author EMQX Topic Hub Team
+ * @since 1.0.0
+ */
+class TopicExporterTest {
+
+    @Test
+    void escapesFormulaPrefixesAndRoundTrips() {
+        assertThat(TopicExporter.escapeFormula("=SUM(A1)")).isEqualTo("'=SUM(A1)");
+        assertThat(TopicExporter.escapeFormula("@cmd")).isEqualTo("'@cmd");
+        assertThat(TopicExporter.escapeFormula("-1")).isEqualTo("'-1");
+        assertThat(TopicExporter.escapeFormula("factory/line")).isEqualTo("factory/line");
+        assertThat(TopicExporter.escapeFormula(null)).isNull();
+
+        for (String value : new String[]{"=1", "'=1", "''+x", "'plain", "plain", "", "+"}) {
+            assertThat(TopicExporter.unescapeFormula(TopicExporter.escapeFormula(value))).isEqualTo(value);
+        }
+        assertThat(TopicExporter.unescapeFormula("'plain")).isEqualTo("'plain");
+    }
+}
@@ -41,6 +41,8 @@ export interface PayloadTemplateSearchRequest {
   onlyFavorites?: boolean
   sortBy?: string
   sortDir?: 'asc' | 'desc'
+  countMode?: 'exact' | 'none' | 'cached'
+  cursor?: string
 }
 
 export interface PageResult<T> {
@@ -51,6 +53,12 @@ export interface PageResult<T> {
   pages: number
 }
 
+export interface CursorPage<T> {
+  records: T[]
+  nextCursor?: string
+  hasMore: boolean
+}
+
 export interface TemplateStatistics {
   totalTemplates: number
   groupCount: number
@@ -75,6 +83,13 @@ export const PayloadTemplateAPI = {
     return request.post('/payload-templates/search', searchRequest)
   },
 
+  /**
+   * 游标分页搜索Payload模板列表，将返回的nextCursor作为下一次请求的cursor
+   */
+  searchTemplatesByCursor(searchRequest: PayloadTemplateSearchRequest): Promise<CursorPage<PayloadTemplateDTO>> {
+    return request.post('/payload-templates/search/cursor', searchRequest)
+  },
+
   /**
    * 根据ID获取Payload模板详情
    */
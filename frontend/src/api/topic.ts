@@ -38,12 +38,16 @@ export interface TopicSearchRequest {
   keyword?: string
   groupId?: number
   tagIds?: number[]
+  tagMatch?: 'any' | 'all'
+  topicFilter?: string
   status?: string
   systemId?: number
   page?: number
   size?: number
   sortBy?: string
   sortDir?: 'asc' | 'desc'
+  countMode?: 'exact' | 'none' | 'cached'
+  cursor?: string
 }
 
 export interface TopicBatchRequest {
@@ -55,6 +59,57 @@ export interface TopicBatchRequest {
   payloadDoc?: string
 }
 
+export interface TopicFilterBatchRequest {
+  filter: TopicSearchRequest
+  action: 'assignGroup' | 'addTags' | 'removeTags' | 'updatePayload'
+  groupId?: number
+  tagIds?: number[]
+  templateId?: number
+  payloadDoc?: string
+  dryRun?: boolean
+}
+
+export interface TopicExportRequest {
+  systemId?: number
+  groupId?: number
+  tagIds?: number[]
+  tagMatch?: 'any' | 'all'
+  format?: 'ndjson' | 'csv'
+}
+
+export interface TopicBatchResult {
+  action: string
+  dryRun: boolean
+  matchedCount: number
+  processedCount: number
+  chunkCount: number
+  elapsedMillis: number
+}
+
+export interface TopicImportRequest {
+  systemId: number
+  format?: 'ndjson' | 'csv'
+  dryRun?: boolean
+}
+
+export interface TopicImportError {
+  line: number
+  path?: string
+  message: string
+}
+
+export interface TopicImportResult {
+  dryRun: boolean
+  totalRows: number
+  createdCount: number
+  updatedCount: number
+  errorCount: number
+  errors: TopicImportError[]
+  errorsTruncated: boolean
+  chunkCount: number
+  elapsedMillis: number
+}
+
 export interface PageResult<T> {
   records: T[]
   total: number
@@ -63,6 +118,58 @@ export interface PageResult<T> {
   pages: number
 }
 
+export interface TopicSyncResult {
+  syncedCount: number
+  updatedCount: number
+  addedCount: number
+  retainedCount: number
+  staleCount: number
+  removedCount: number
+  message: string
+}
+
+export interface CursorPage<T> {
+  records: T[]
+  nextCursor?: string
+  hasMore: boolean
+}
+
+export interface TopicTreeNode {
+  name: string
+  path: string
+  topicId?: number
+  topicCount: number
+  childCount: number
+}
+
+export interface TopicTree {
+  systemId: number
+  prefix: string
+  topicCount: number
+  childCount: number
+  truncated: boolean
+  children: TopicTreeNode[]
+}
+
+export type TopicSyncPhase = 'PENDING' | 'FETCHING' | 'WRITING' | 'COMPLETED' | 'FAILED' | 'CANCELLED'
+
+export interface TopicSyncJob {
+  jobId: string
+  systemId: number
+  phase: TopicSyncPhase
+  pagesFetched: number
+  totalPages?: number
+  topicsFetched: number
+  totalRows?: number
+  rowsWritten: number
+  throughput: number
+  startedAt?: string
+  finishedAt?: string
+  elapsedMillis: number
+  error?: string
+  result?: TopicSyncResult
+}
+
 /**
  * Topic管理API服务
  */
@@ -74,6 +181,20 @@ export const TopicAPI = {
     return request.post('/topics/search', data)
   },
 
+  /**
+   * 游标分页搜索Topic列表，将返回的nextCursor作为下一次请求的cursor
+   */
+  searchTopicsByCursor(data: TopicSearchRequest): Promise<CursorPage<TopicDTO>> {
+    return request.post('/topics/search/cursor', data)
+  },
+
+  /**
+   * 按层级浏览Topic，返回前缀下的直接子节点
+   */
+  getTopicTree(systemId: number, prefix?: string, limit?: number): Promise<TopicTree> {
+    return request.get('/topics/tree', { params: { systemId, prefix, limit } })
+  },
+
   /**
    * 根据ID获取Topic详情
    */
@@ -109,6 +230,37 @@ export const TopicAPI = {
     return request.post('/topics/batch', data)
   },
 
+  /**
+   * 按筛选条件批量操作Topic，dryRun为true时只统计命中数量
+   */
+  batchOperationByFilter(data: TopicFilterBatchRequest): Promise<TopicBatchResult> {
+    return request.post('/topics/batch/filter', data)
+  },
+
+  /**
+   * 按筛选条件导出Topic，返回NDJSON或CSV文件
+   */
+  exportTopics(params: TopicExportRequest): Promise<Blob> {
+    return request.get('/topics/export', {
+      params,
+      paramsSerializer: { indexes: null },
+      responseType: 'blob',
+      timeout: 0
+    })
+  },
+
+  /**
+   * 从CSV或NDJSON文件批量导入Topic，文件内容直接作为请求体上传
+   */
+  importTopics(file: Blob, params: TopicImportRequest): Promise<TopicImportResult> {
+    const format = params.format ?? (file instanceof File && file.name.toLowerCase().endsWith('.csv') ? 'csv' : 'ndjson')
+    return request.post('/topics/import', file, {
+      params: { ...params, format },
+      headers: { 'Content-Type': format === 'csv' ? 'text/csv' : 'application/x-ndjson' },
+      timeout: 0
+    })
+  },
+
   /**
    * 获取Topic的标签列表
    */
@@ -164,10 +316,24 @@ export const TopicAPI = {
   },
 
   /**
-   * 同步EMQX系统的Topic数据
+   * 提交同步EMQX系统Topic数据的后台任务
    */
-  syncTopicsFromEmqx(systemId: number): Promise<{ syncedCount: number; updatedCount: number; message: string }> {
+  syncTopicsFromEmqx(systemId: number): Promise<TopicSyncJob> {
     return request.post(`/topics/sync/${systemId}`)
+  },
+
+  /**
+   * 查询同步任务进度
+   */
+  getSyncJob(jobId: string): Promise<TopicSyncJob> {
+    return request.get(`/topics/sync/jobs/${jobId}`)
+  },
+
+  /**
+   * 取消同步任务
+   */
+  cancelSyncJob(jobId: string): Promise<TopicSyncJob> {
+    return request.delete(`/topics/sync/jobs/${jobId}`)
   }
 }
 
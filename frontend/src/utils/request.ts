@@ -9,9 +9,30 @@ const request: AxiosInstance = axios.create({
   timeout: 10000,
   headers: {
     'Content-Type': 'application/json'
-  }
+  },
+  // 304表示之前的响应仍然有效，由响应拦截器返回记录的数据
+  validateStatus: (status) => (status >= 200 && status < 300) || status === 304
 })
 
+// 条件请求：记录带ETag的响应，相同的请求再次发出时携带If-None-Match，
+// 服务端返回304时直接复用记录的数据，轮询未变化的数据不再传输和解析响应体
+const ETAG_CACHE_LIMIT = 200
+const etagCache = new Map<string, { etag: string; data: any }>()
+
+const etagCacheKey = (config: InternalAxiosRequestConfig) => {
+  const data = typeof config.data === 'string' ? config.data : JSON.stringify(config.data ?? null)
+  return `${config.method}:${config.url}:${JSON.stringify(config.params ?? null)}:${data}`
+}
+
+const rememberEtag = (key: string, etag: string, data: any) => {
+  etagCache.delete(key)
+  if (etagCache.size >= ETAG_CACHE_LIMIT) {
+    // Map按插入顺序迭代，删除最早记录的一项
+    etagCache.delete(etagCache.keys().next().value as string)
+  }
+  etagCache.set(key, { etag, data })
+}
+
 // 请求拦截器
 request.interceptors.request.use(
   (config: InternalAxiosRequestConfig) => {
@@ -24,6 +45,14 @@ request.interceptors.request.use(
       }
       config.headers['Authorization'] = `Bearer ${authStore.token}`
     }
+
+    const cached = etagCache.get(etagCacheKey(config))
+    if (cached) {
+      if (!config.headers) {
+        config.headers = new AxiosHeaders()
+      }
+      config.headers['If-None-Match'] = cached.etag
+    }
     
     return config
   },
@@ -36,11 +65,29 @@ request.interceptors.request.use(
 // 响应拦截器
 request.interceptors.response.use(
   (response: AxiosResponse) => {
+    // 文件下载直接返回内容
+    if (response.config.responseType === 'blob') {
+      return response.data
+    }
+
+    const key = etagCacheKey(response.config)
+    if (response.status === 304) {
+      const cached = etagCache.get(key)
+      if (cached) {
+        return cached.data
+      }
+    }
+
     const { code, message, data } = response.data
     
     // 请求成功
     if (code === 200) {
-      return data || response.data
+      const result = data || response.data
+      const etag = response.headers['etag']
+      if (etag) {
+        rememberEtag(key, etag, result)
+      }
+      return result
     }
     
     // 业务错误